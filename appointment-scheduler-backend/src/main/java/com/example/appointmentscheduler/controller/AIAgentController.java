@@ -1,7 +1,7 @@
 package com.example.appointmentscheduler.controller;
 
 import com.example.appointmentscheduler.dto.ChatResponse;
-import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.service.AIAgentService;
 import com.example.appointmentscheduler.utils.ChatIntents;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,7 +61,7 @@ public class AIAgentController {
             ChatResponse aiResponse = aiAgentService.processChat(
                 "I have these symptoms: " + symptoms, request.getUserId());
             
-            List<Doctor> doctors = aiResponse.getRecommendedDoctors();
+            List<DoctorSummary> doctors = aiResponse.getRecommendedDoctors();
             String specialty = (String) aiResponse.getEntities().get("specialty");
             
             DoctorRecommendationResponse response = new DoctorRecommendationResponse(
@@ -81,9 +81,9 @@ public class AIAgentController {
      * Get doctors by specialty directly
      */
     @GetMapping("/doctors/{specialty}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialty(@PathVariable String specialty) {
+    public ResponseEntity<List<DoctorSummary>> getDoctorsBySpecialty(@PathVariable String specialty) {
         try {
-            List<Doctor> doctors = aiAgentService.getDoctorsBySpecialty(specialty);
+            List<DoctorSummary> doctors = aiAgentService.getDoctorsBySpecialty(specialty);
             return ResponseEntity.ok(doctors);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -142,11 +142,11 @@ public class AIAgentController {
     
     public static class DoctorRecommendationResponse {
         private String message;
-        private List<Doctor> doctors;
+        private List<DoctorSummary> doctors;
         private String specialty;
         private String symptoms;
         
-        public DoctorRecommendationResponse(String message, List<Doctor> doctors) {
+        public DoctorRecommendationResponse(String message, List<DoctorSummary> doctors) {
             this.message = message;
             this.doctors = doctors;
         }
@@ -154,8 +154,8 @@ public class AIAgentController {
         // Getters and Setters
         public String getMessage() { return message; }
         public void setMessage(String message) { this.message = message; }
-        public List<Doctor> getDoctors() { return doctors; }
-        public void setDoctors(List<Doctor> doctors) { this.doctors = doctors; }
+        public List<DoctorSummary> getDoctors() { return doctors; }
+        public void setDoctors(List<DoctorSummary> doctors) { this.doctors = doctors; }
         public String getSpecialty() { return specialty; }
         public void setSpecialty(String specialty) { this.specialty = specialty; }
         public String getSymptoms() { return symptoms; }
@@ -1,11 +1,24 @@
 package com.example.appointmentscheduler.controller;
 
+import com.example.appointmentscheduler.dto.ImportReport;
+import com.example.appointmentscheduler.dto.UtilizationRow;
 import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.model.DoctorDayOccupancy;
+import com.example.appointmentscheduler.monitoring.SqlBudgetFilter;
+import com.example.appointmentscheduler.service.AnalyticsService;
+import com.example.appointmentscheduler.service.DoctorImportService;
 import com.example.appointmentscheduler.service.DoctorService;
+import com.example.appointmentscheduler.service.OccupancyService;
+import com.example.appointmentscheduler.service.OutboxDispatcher;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -15,6 +28,18 @@ public class AdminController {
     
     @Autowired
     private DoctorService doctorService;
+
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private DoctorImportService doctorImportService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
     
     // Add new doctor
     @PostMapping("/doctors")
@@ -84,6 +109,35 @@ public class AdminController {
         }
     }
     
+    // Bulk add/update doctors from a CSV (with a header row) or NDJSON request body; the format comes from
+    // the format parameter or the Content-Type (text/csv, application/x-ndjson). Rows whose email matches an
+    // existing doctor update it. Rejected rows are listed in the report; the others are saved.
+    @PostMapping("/doctors/import")
+    public ResponseEntity<?> importDoctors(@RequestParam(required = false) String format, HttpServletRequest request) {
+        try {
+            DoctorImportService.Format importFormat;
+            if (format != null) {
+                importFormat = DoctorImportService.Format.of(format);
+            } else if (request.getContentType() != null && MediaType.parseMediaType(request.getContentType())
+                    .isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                importFormat = DoctorImportService.Format.CSV;
+            } else if (request.getContentType() != null && MediaType.parseMediaType(request.getContentType())
+                    .isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))) {
+                importFormat = DoctorImportService.Format.NDJSON;
+            } else {
+                return ResponseEntity.badRequest().body(new AdminResponse("error",
+                    "Send Content-Type text/csv or application/x-ndjson, or a format parameter", null));
+            }
+            // Bulk by design: many batched statements in one request
+            request.setAttribute(SqlBudgetFilter.UNBOUNDED_ATTRIBUTE, Boolean.TRUE);
+            ImportReport report = doctorImportService.importDoctors(importFormat, request.getInputStream());
+            String message = "Imported " + (report.getInserted() + report.getUpdated()) + " of " + report.getRows() + " doctors";
+            return ResponseEntity.ok(new AdminResponse(report.getFailed() == 0 ? "success" : "partial", message, report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to import doctors: " + e.getMessage(), null));
+        }
+    }
+    
     // Get all doctors for admin management
     @GetMapping("/doctors")
     public ResponseEntity<?> getAllDoctorsForAdmin() {
@@ -95,6 +149,69 @@ public class AdminController {
         }
     }
     
+    // Daily utilization: booked count and minutes of every doctor with bookings on a date
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy(@RequestParam String date) {
+        try {
+            List<DoctorDayOccupancy> days = occupancyService.getOccupancy(LocalDate.parse(date));
+            return ResponseEntity.ok(new AdminResponse("success", "Occupancy retrieved successfully", days));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Invalid date: " + date, null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to retrieve occupancy: " + e.getMessage(), null));
+        }
+    }
+    
+    // One doctor's daily utilization over a date range (days without bookings are omitted)
+    @GetMapping("/occupancy/doctors/{doctorId}")
+    public ResponseEntity<?> getDoctorOccupancy(@PathVariable Long doctorId, @RequestParam String from, @RequestParam String to) {
+        try {
+            List<DoctorDayOccupancy> days = occupancyService.getOccupancy(doctorId, LocalDate.parse(from), LocalDate.parse(to));
+            return ResponseEntity.ok(new AdminResponse("success", "Occupancy retrieved successfully", days));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Invalid date range: " + from + " to " + to, null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to retrieve occupancy: " + e.getMessage(), null));
+        }
+    }
+    
+    // Occupancy, cancel and no-show rates per doctor, speciality or location, per day or week
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam String from, @RequestParam String to,
+                                          @RequestParam(defaultValue = "DAY") String granularity,
+                                          @RequestParam(defaultValue = "DOCTOR") String groupBy) {
+        try {
+            List<UtilizationRow> rows = analyticsService.getUtilization(LocalDate.parse(from), LocalDate.parse(to),
+                AnalyticsService.Granularity.of(granularity), AnalyticsService.GroupBy.of(groupBy));
+            return ResponseEntity.ok(new AdminResponse("success", "Analytics retrieved successfully", rows));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Invalid date range: " + from + " to " + to, null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to retrieve analytics: " + e.getMessage(), null));
+        }
+    }
+    
+    // Offset and lag of every change-event outbox consumer
+    @GetMapping("/outbox")
+    public ResponseEntity<?> getOutboxStatus() {
+        try {
+            return ResponseEntity.ok(new AdminResponse("success", "Outbox status retrieved successfully", outboxDispatcher.getStatus()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to retrieve outbox status: " + e.getMessage(), null));
+        }
+    }
+    
+    // Have an outbox consumer see every event after eventId again (0: rebuild from all events still kept)
+    @PutMapping("/outbox/consumers/{consumerName}/offset")
+    public ResponseEntity<?> resetOutboxOffset(@PathVariable String consumerName, @RequestParam long eventId) {
+        try {
+            outboxDispatcher.resetOffset(consumerName, eventId);
+            return ResponseEntity.ok(new AdminResponse("success", "Offset of " + consumerName + " set to " + eventId, null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AdminResponse("error", "Failed to reset offset: " + e.getMessage(), null));
+        }
+    }
+    
     // Toggle doctor availability
     @PutMapping("/doctors/{doctorId}/availability")
     public ResponseEntity<?> toggleDoctorAvailability(@PathVariable Long doctorId) {
@@ -149,6 +266,46 @@ public class AdminController {
         public void setContactNumber(String contactNumber) { this.contactNumber = contactNumber; }
         public String getEmail() { return email; }
         public void setEmail(String email) { this.email = email; }
+
+        /**
+         * Why this request cannot be saved as a doctor (empty when it can): the required fields and
+         * the column limits of the doctors table
+         */
+        public List<String> validate() {
+            List<String> problems = new ArrayList<>();
+            required(problems, "name", name);
+            required(problems, "speciality", speciality);
+            required(problems, "location", location);
+            maxLength(problems, "experience", experience, 255);
+            maxLength(problems, "qualifications", qualifications, 1000);
+            maxLength(problems, "about", about, 2000);
+            maxLength(problems, "contactNumber", contactNumber, 255);
+            maxLength(problems, "email", email, 255);
+            if (email != null && !email.isBlank() && !email.contains("@")) {
+                problems.add("email is not an email address");
+            }
+            if (feesPerHour != null && (feesPerHour < 0 || feesPerHour.isNaN() || feesPerHour.isInfinite())) {
+                problems.add("feesPerHour must not be negative");
+            }
+            if (rating != null && !(rating >= 0 && rating <= 5)) {
+                problems.add("rating must be between 0 and 5");
+            }
+            return problems;
+        }
+
+        private static void required(List<String> problems, String field, String value) {
+            if (value == null || value.isBlank()) {
+                problems.add(field + " is required");
+            } else {
+                maxLength(problems, field, value, 255);
+            }
+        }
+
+        private static void maxLength(List<String> problems, String field, String value, int max) {
+            if (value != null && value.length() > max) {
+                problems.add(field + " must be at most " + max + " characters");
+            }
+        }
     }
     
     public static class AdminResponse {
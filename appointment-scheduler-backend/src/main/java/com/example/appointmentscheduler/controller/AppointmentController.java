@@ -1,11 +1,23 @@
 package com.example.appointmentscheduler.controller;
 
+import com.example.appointmentscheduler.dto.SeriesOccurrence;
 import com.example.appointmentscheduler.model.Appointment;
+import com.example.appointmentscheduler.service.AppointmentExportService;
+import com.example.appointmentscheduler.service.AppointmentSeriesService;
 import com.example.appointmentscheduler.service.AppointmentService;
+import com.example.appointmentscheduler.service.IdempotencyStore;
+import com.example.appointmentscheduler.monitoring.SqlBudgetFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -13,11 +25,45 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AppointmentController {
 
+    // Open ends of a history range
+    private static final LocalDate HISTORY_START = LocalDate.of(1900, 1, 1);
+    private static final LocalDate HISTORY_END = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private AppointmentSeriesService appointmentSeriesService;
+
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * Book a slot. Clients that retry on timeouts should send an Idempotency-Key header (e.g. a UUID
+     * per booking attempt): a retry with the same key and body gets the original response back
+     * (marked Idempotency-Replayed: true) without booking again.
+     */
     @PostMapping("/book")
-    public ResponseEntity<?> bookAppointment(@RequestBody BookingRequest bookingRequest) {
+    public ResponseEntity<?> bookAppointment(@RequestBody BookingRequest bookingRequest,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return book(bookingRequest);
+        }
+        if (idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest().body(new BookingResponse(
+                "error",
+                "Idempotency-Key must be at most 255 characters",
+                null
+            ));
+        }
+        return idempotencyStore.execute("appointments.book", idempotencyKey.trim(),
+            bookingRequest.fingerprint(), () -> book(bookingRequest));
+    }
+
+    private ResponseEntity<?> book(BookingRequest bookingRequest) {
         try {
             Appointment appointment = appointmentService.createAppointment(bookingRequest);
             return ResponseEntity.ok(new BookingResponse(
@@ -40,6 +86,109 @@ public class AppointmentController {
         }
     }
 
+    // Book a recurring series (e.g. weekly for 12 weeks); with preview=true only report which dates are free
+    @PostMapping("/series")
+    public ResponseEntity<SeriesResponse> bookSeries(@RequestBody SeriesRequest request) {
+        try {
+            if (Boolean.TRUE.equals(request.getPreview())) {
+                List<SeriesOccurrence> occurrences = appointmentSeriesService.planSeries(request);
+                long free = occurrences.stream().filter(SeriesOccurrence::isAvailable).count();
+                return ResponseEntity.ok(new SeriesResponse("preview",
+                    free + " of " + occurrences.size() + " dates are available", occurrences));
+            }
+            List<SeriesOccurrence> occurrences = appointmentSeriesService.bookSeries(request);
+            long booked = occurrences.stream().filter(occurrence -> occurrence.getAppointment() != null).count();
+            return ResponseEntity.ok(new SeriesResponse("success",
+                "Booked " + booked + " of " + occurrences.size() + " appointments", occurrences));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new SeriesResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new SeriesResponse(
+                "error",
+                "Failed to book appointment series: " + e.getMessage(),
+                null
+            ));
+        }
+    }
+
+    // Cancel an appointment; its slot becomes available again
+    @PostMapping("/{appointmentId}/cancel")
+    public ResponseEntity<BookingResponse> cancelAppointment(@PathVariable Long appointmentId) {
+        try {
+            Appointment appointment = appointmentService.cancelAppointment(appointmentId);
+            return ResponseEntity.ok(new BookingResponse("success", "Appointment cancelled", appointment));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new BookingResponse(
+                "error",
+                "Failed to cancel appointment: " + e.getMessage(),
+                null
+            ));
+        }
+    }
+
+    // Move an appointment to a new date/time; it keeps its old slot if the new one is taken
+    @PutMapping("/{appointmentId}/reschedule")
+    public ResponseEntity<BookingResponse> rescheduleAppointment(@PathVariable Long appointmentId,
+                                                                 @RequestBody RescheduleRequest request) {
+        try {
+            Appointment appointment = appointmentService.rescheduleAppointment(appointmentId,
+                request.getAppointmentDate(), request.getStartTime(), request.getEndTime());
+            return ResponseEntity.ok(new BookingResponse("success", "Appointment rescheduled", appointment));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new BookingResponse(
+                "error",
+                "Failed to reschedule appointment: " + e.getMessage(),
+                null
+            ));
+        }
+    }
+
+    /**
+     * Export appointments as CSV or NDJSON, optionally limited to a date range and/or one doctor.
+     * Rows go from a database cursor straight to the response, so the download starts at once and
+     * no rows are held in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<BookingResponse> exportAppointments(@RequestParam(defaultValue = "csv") String format,
+                                                              @RequestParam(required = false) String from,
+                                                              @RequestParam(required = false) String to,
+                                                              @RequestParam(required = false) Long doctorId,
+                                                              HttpServletRequest request,
+                                                              HttpServletResponse response) throws IOException {
+        AppointmentExportService.Format exportFormat;
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            exportFormat = AppointmentExportService.Format.of(format);
+            fromDate = from != null ? LocalDate.parse(from) : null;
+            toDate = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", "Invalid date: " + e.getParsedString(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", e.getMessage(), null));
+        }
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", "The end date must not be before the start date", null));
+        }
+
+        // Written on this thread rather than as an async StreamingResponseBody: an async writer can outlive
+        // an aborted request and write into the recycled response of the next one
+        request.setAttribute(SqlBudgetFilter.UNBOUNDED_ATTRIBUTE, Boolean.TRUE);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments." + exportFormat.getExtension() + "\"");
+        try {
+            appointmentExportService.export(exportFormat, fromDate, toDate, doctorId, response.getOutputStream());
+        } catch (UncheckedIOException e) {
+            // The client went away; nothing more can be sent
+        }
+        return null;
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<List<Appointment>> getPatientAppointments(@PathVariable Long patientId) {
         try {
@@ -50,6 +199,31 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * A patient's appointments between from and to (inclusive, both optional), newest first, including
+     * those already moved to the archive. Archived months are read from files, so give a range where possible.
+     */
+    @GetMapping("/patient/{patientId}/history")
+    public ResponseEntity<?> getPatientHistory(@PathVariable Long patientId,
+                                               @RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : HISTORY_START;
+            LocalDate toDate = to != null ? LocalDate.parse(to) : HISTORY_END;
+            return ResponseEntity.ok(appointmentService.getPatientHistory(patientId, fromDate, toDate));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", "Invalid date: " + e.getParsedString(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new BookingResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new BookingResponse(
+                "error",
+                "Failed to load appointment history: " + e.getMessage(),
+                null
+            ));
+        }
+    }
+
     @GetMapping("/doctor/{doctorId}")
     public ResponseEntity<List<Appointment>> getDoctorAppointments(@PathVariable Long doctorId) {
         try {
@@ -111,6 +285,115 @@ public class AppointmentController {
 
         public String getStatus() { return status; }
         public void setStatus(String status) { this.status = status; }
+
+        // Identifies the request for Idempotency-Key reuse checks
+        String fingerprint() {
+            return String.join("|", String.valueOf(doctorId), String.valueOf(patientId),
+                String.valueOf(appointmentDate), String.valueOf(startTime), String.valueOf(endTime),
+                String.valueOf(reasonForVisit), String.valueOf(additionalNotes), String.valueOf(status));
+        }
+    }
+
+    public static class SeriesRequest {
+        private Long doctorId;
+        private Long patientId;
+        private String firstDate;
+        private String startTime;
+        private String endTime;
+        private String frequency; // DAILY, WEEKLY or MONTHLY
+        private Integer interval;
+        private Integer count;
+        private String until;
+        private String reasonForVisit;
+        private String additionalNotes;
+        private String status;
+        private String conflictPolicy; // SKIP_CONFLICTS (default) or ALL_OR_NOTHING
+        private Boolean preview;
+
+        public SeriesRequest() {}
+
+        // Getters and Setters
+        public Long getDoctorId() { return doctorId; }
+        public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+        public Long getPatientId() { return patientId; }
+        public void setPatientId(Long patientId) { this.patientId = patientId; }
+
+        public String getFirstDate() { return firstDate; }
+        public void setFirstDate(String firstDate) { this.firstDate = firstDate; }
+
+        public String getStartTime() { return startTime; }
+        public void setStartTime(String startTime) { this.startTime = startTime; }
+
+        public String getEndTime() { return endTime; }
+        public void setEndTime(String endTime) { this.endTime = endTime; }
+
+        public String getFrequency() { return frequency; }
+        public void setFrequency(String frequency) { this.frequency = frequency; }
+
+        public Integer getInterval() { return interval; }
+        public void setInterval(Integer interval) { this.interval = interval; }
+
+        public Integer getCount() { return count; }
+        public void setCount(Integer count) { this.count = count; }
+
+        public String getUntil() { return until; }
+        public void setUntil(String until) { this.until = until; }
+
+        public String getReasonForVisit() { return reasonForVisit; }
+        public void setReasonForVisit(String reasonForVisit) { this.reasonForVisit = reasonForVisit; }
+
+        public String getAdditionalNotes() { return additionalNotes; }
+        public void setAdditionalNotes(String additionalNotes) { this.additionalNotes = additionalNotes; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getConflictPolicy() { return conflictPolicy; }
+        public void setConflictPolicy(String conflictPolicy) { this.conflictPolicy = conflictPolicy; }
+
+        public Boolean getPreview() { return preview; }
+        public void setPreview(Boolean preview) { this.preview = preview; }
+    }
+
+    public static class SeriesResponse {
+        private String status;
+        private String message;
+        private List<SeriesOccurrence> occurrences;
+
+        public SeriesResponse(String status, String message, List<SeriesOccurrence> occurrences) {
+            this.status = status;
+            this.message = message;
+            this.occurrences = occurrences;
+        }
+
+        // Getters and Setters
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public List<SeriesOccurrence> getOccurrences() { return occurrences; }
+        public void setOccurrences(List<SeriesOccurrence> occurrences) { this.occurrences = occurrences; }
+    }
+
+    public static class RescheduleRequest {
+        private String appointmentDate;
+        private String startTime;
+        private String endTime;
+
+        public RescheduleRequest() {}
+
+        // Getters and Setters
+        public String getAppointmentDate() { return appointmentDate; }
+        public void setAppointmentDate(String appointmentDate) { this.appointmentDate = appointmentDate; }
+
+        public String getStartTime() { return startTime; }
+        public void setStartTime(String startTime) { this.startTime = startTime; }
+
+        public String getEndTime() { return endTime; }
+        public void setEndTime(String endTime) { this.endTime = endTime; }
     }
 
     public static class BookingResponse {
@@ -1,8 +1,15 @@
 package com.example.appointmentscheduler.controller;
 
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.model.DoctorReview;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.model.User;
+import com.example.appointmentscheduler.service.DoctorReviewService;
 import com.example.appointmentscheduler.service.DoctorService;
+import com.example.appointmentscheduler.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -11,37 +18,113 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class DoctorController {
     
+    // Most doctors one nearby search returns
+    private static final int MAX_NEARBY_RESULTS = 100;
+    
     @Autowired
     private DoctorService doctorService;
     
+    @Autowired
+    private DoctorReviewService doctorReviewService;
+    
+    @Autowired
+    private UserService userService;
+    
     // Get all doctors
     @GetMapping("/all")
-    public List<Doctor> getAllDoctors() {
+    public List<DoctorSummary> getAllDoctors() {
         return doctorService.getAllDoctors();
     }
     
-    // Get doctors by location and/or speciality with availability checking
+    // Get doctors by location and/or speciality with availability checking.
+    // Optional sort (best, rating, fee, experience) and limit; "best" ranks relative to the user's location.
     @GetMapping("/search")
-    public List<Doctor> getDoctorsByFilters(
+    public ResponseEntity<List<DoctorSummary>> getDoctorsByFilters(
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String speciality,
             @RequestParam(required = false) String date,
-            @RequestParam(required = false) String timeSlot) {
-        return doctorService.findAvailableDoctors(location, speciality, date, timeSlot);
+            @RequestParam(required = false) String timeSlot,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String userId) {
+        try {
+            List<DoctorSummary> doctors = doctorService.findAvailableDoctors(location, speciality, date, timeSlot);
+            User patient = userService.findChatUser(userId).orElse(null);
+            return ResponseEntity.ok(doctorService.sortDoctors(doctors, sort, patient, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Nearest available doctors, nearest first. The origin is lat/lon if given, else the coordinates of a
+    // known location name, else the home location of userId ("near me"). radiusKm restricts to a circle.
+    // k is at most MAX_NEARBY_RESULTS.
+    @GetMapping("/nearby")
+    public ResponseEntity<List<DoctorSummary>> getNearbyDoctors(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) Double radiusKm) {
+        if (k <= 0 || k > MAX_NEARBY_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            GeoPoint origin = GeoPoint.of(lat, lon);
+            if (origin == null && location != null) {
+                origin = doctorService.geocode(location);
+            }
+            if (origin == null) {
+                origin = userService.findChatUser(userId)
+                    .map(user -> GeoPoint.of(user.getLatitude(), user.getLongitude()))
+                    .orElse(null);
+            }
+            if (origin == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(doctorService.findNearbyDoctors(origin, speciality, k, radiusKm));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get doctors by location only
     @GetMapping("/by-location")
-    public List<Doctor> getDoctorsByLocation(@RequestParam String location) {
+    public List<DoctorSummary> getDoctorsByLocation(@RequestParam String location) {
         return doctorService.findDoctorsByLocation(location);
     }
     
     // Get doctors by speciality only
     @GetMapping("/by-speciality")
-    public List<Doctor> getDoctorsBySpeciality(@RequestParam String speciality) {
+    public List<DoctorSummary> getDoctorsBySpeciality(@RequestParam String speciality) {
         return doctorService.findDoctorsBySpeciality(speciality);
     }
     
+    // Get full doctor profile (bio, qualifications, contact details and reviews)
+    @GetMapping("/{doctorId}")
+    public ResponseEntity<Doctor> getDoctorById(@PathVariable Long doctorId) {
+        Doctor doctor = doctorService.findById(doctorId);
+        if (doctor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(doctor);
+    }
+    
+    // Submit a review; the doctor's rating aggregates are updated in the same transaction
+    @PostMapping("/{doctorId}/reviews")
+    public ResponseEntity<ReviewResponse> addReview(@PathVariable Long doctorId, @RequestBody ReviewRequest request) {
+        try {
+            DoctorReview review = doctorReviewService.addReview(doctorId, request.getReviewText(), request.getRating());
+            return ResponseEntity.ok(new ReviewResponse("success", "Review added successfully", review));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ReviewResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new ReviewResponse("error", "Failed to add review: " + e.getMessage(), null));
+        }
+    }
+    
     // Get unique locations for filter dropdown
     @GetMapping("/locations")
     public List<String> getUniqueLocations() {
@@ -53,4 +136,38 @@ public class DoctorController {
     public List<String> getUniqueSpecialities() {
         return doctorService.getUniqueSpecialities();
     }
-}
\ No newline at end of file
+    
+    // Inner classes for request/response
+    public static class ReviewRequest {
+        private String reviewText;
+        private Integer rating;
+        
+        public ReviewRequest() {}
+        
+        // Getters and Setters
+        public String getReviewText() { return reviewText; }
+        public void setReviewText(String reviewText) { this.reviewText = reviewText; }
+        public Integer getRating() { return rating; }
+        public void setRating(Integer rating) { this.rating = rating; }
+    }
+    
+    public static class ReviewResponse {
+        private String status;
+        private String message;
+        private DoctorReview review;
+        
+        public ReviewResponse(String status, String message, DoctorReview review) {
+            this.status = status;
+            this.message = message;
+            this.review = review;
+        }
+        
+        // Getters and Setters
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+        public DoctorReview getReview() { return review; }
+        public void setReview(DoctorReview review) { this.review = review; }
+    }
+}
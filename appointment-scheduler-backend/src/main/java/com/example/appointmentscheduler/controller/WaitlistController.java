@@ -0,0 +1,126 @@
+package com.example.appointmentscheduler.controller;
+
+import com.example.appointmentscheduler.model.WaitlistEntry;
+import com.example.appointmentscheduler.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "http://localhost:3000")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    // Join the waitlist for a fully booked doctor
+    @PostMapping
+    public ResponseEntity<WaitlistResponse> join(@RequestBody JoinRequest request) {
+        return respond("Added to the waitlist", "Failed to join the waitlist", () -> waitlistService.join(
+            request.getPatientId(),
+            request.getDoctorId(),
+            request.getDate(),
+            request.getWindowStart(),
+            request.getWindowEnd(),
+            request.getReasonForVisit(),
+            Boolean.TRUE.equals(request.getAutoConfirm())
+        ));
+    }
+
+    // A patient's waitlist entries, newest first; entries with status OFFERED have a slot on hold
+    @GetMapping("/patient/{patientId}")
+    public List<WaitlistEntry> getPatientEntries(@PathVariable Long patientId) {
+        return waitlistService.getPatientEntries(patientId);
+    }
+
+    // Book the slot held for this entry
+    @PostMapping("/{entryId}/accept")
+    public ResponseEntity<WaitlistResponse> accept(@PathVariable Long entryId) {
+        return respond("Appointment booked", "Failed to accept the offer", () -> waitlistService.accept(entryId));
+    }
+
+    // Pass the held slot on to the next patient in line
+    @PostMapping("/{entryId}/decline")
+    public ResponseEntity<WaitlistResponse> decline(@PathVariable Long entryId) {
+        return respond("Offer declined", "Failed to decline the offer", () -> waitlistService.decline(entryId));
+    }
+
+    // Leave the waitlist
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<WaitlistResponse> leave(@PathVariable Long entryId) {
+        return respond("Removed from the waitlist", "Failed to leave the waitlist", () -> waitlistService.leave(entryId));
+    }
+
+    private ResponseEntity<WaitlistResponse> respond(String successMessage, String failureMessage,
+                                                     Supplier<WaitlistEntry> action) {
+        try {
+            return ResponseEntity.ok(new WaitlistResponse("success", successMessage, action.get()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new WaitlistResponse("error", e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new WaitlistResponse(
+                "error", failureMessage + ": " + e.getMessage(), null));
+        }
+    }
+
+    // Inner classes for request/response
+    public static class JoinRequest {
+        private Long patientId;
+        private Long doctorId;
+        private String date;
+        private String windowStart;
+        private String windowEnd;
+        private String reasonForVisit;
+        private Boolean autoConfirm;
+
+        public JoinRequest() {}
+
+        // Getters and Setters
+        public Long getPatientId() { return patientId; }
+        public void setPatientId(Long patientId) { this.patientId = patientId; }
+
+        public Long getDoctorId() { return doctorId; }
+        public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+        public String getDate() { return date; }
+        public void setDate(String date) { this.date = date; }
+
+        public String getWindowStart() { return windowStart; }
+        public void setWindowStart(String windowStart) { this.windowStart = windowStart; }
+
+        public String getWindowEnd() { return windowEnd; }
+        public void setWindowEnd(String windowEnd) { this.windowEnd = windowEnd; }
+
+        public String getReasonForVisit() { return reasonForVisit; }
+        public void setReasonForVisit(String reasonForVisit) { this.reasonForVisit = reasonForVisit; }
+
+        public Boolean getAutoConfirm() { return autoConfirm; }
+        public void setAutoConfirm(Boolean autoConfirm) { this.autoConfirm = autoConfirm; }
+    }
+
+    public static class WaitlistResponse {
+        private String status;
+        private String message;
+        private WaitlistEntry entry;
+
+        public WaitlistResponse(String status, String message, WaitlistEntry entry) {
+            this.status = status;
+            this.message = message;
+            this.entry = entry;
+        }
+
+        // Getters and Setters
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public WaitlistEntry getEntry() { return entry; }
+        public void setEntry(WaitlistEntry entry) { this.entry = entry; }
+    }
+}
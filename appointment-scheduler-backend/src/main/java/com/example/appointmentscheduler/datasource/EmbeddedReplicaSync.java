@@ -0,0 +1,129 @@
+package com.example.appointmentscheduler.datasource;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in for streaming replication when primary and replica are two embedded H2 databases (the
+ * local profile): copies the primary's schema to the replica at startup, then all of its rows every
+ * replica.local-sync-interval-ms in one replica transaction. The replica lags by up to that interval,
+ * like a real one, which makes the read-your-writes pinning observable locally.
+ */
+@Component
+@ConditionalOnProperty(name = {"replica.datasource.url", "replica.local-sync-interval-ms"})
+public class EmbeddedReplicaSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedReplicaSync.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${replica.datasource.url}")
+    private String replicaUrl;
+
+    @Value("${replica.datasource.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${replica.datasource.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    private boolean enabled;
+
+    /**
+     * Copy the schema before anything reads from the replica. Injecting JdbcTemplate makes this run
+     * after Hibernate has created the schema and data.sql has been loaded.
+     */
+    @PostConstruct
+    public void init() throws SQLException {
+        if (!primaryUrl.startsWith("jdbc:h2:") || !replicaUrl.startsWith("jdbc:h2:")) {
+            logger.warn("replica.local-sync-interval-ms only applies to two H2 databases; the replica is not synced");
+            return;
+        }
+        List<String> schema = jdbcTemplate.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class);
+        try (Connection replica = DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword);
+             Statement statement = replica.createStatement()) {
+            for (String sql : schema) {
+                if (!sql.startsWith("--")) {
+                    statement.execute(sql);
+                }
+            }
+            // Tables are refilled one after the other; foreign keys would reject the order
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        enabled = true;
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${replica.local-sync-interval-ms}", initialDelayString = "${replica.local-sync-interval-ms}")
+    public void sync() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long rows = 0;
+        try (Connection primary = primaryDataSource.getConnection();
+             Connection replica = DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword)) {
+            replica.setAutoCommit(false);
+            List<String> tables = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'",
+                String.class);
+            for (String table : tables) {
+                rows += copyTable(primary, replica, table);
+            }
+            replica.commit();
+        }
+        logger.debug("Synced {} rows to the replica in {} ms", rows, System.currentTimeMillis() - started);
+    }
+
+    private static long copyTable(Connection primary, Connection replica, String table) throws SQLException {
+        try (Statement delete = replica.createStatement()) {
+            delete.executeUpdate("DELETE FROM \"" + table + "\"");
+        }
+        long rows = 0;
+        try (Statement select = primary.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            String placeholders = String.join(", ", Collections.nCopies(columns, "?"));
+            try (PreparedStatement insert = replica.prepareStatement("INSERT INTO \"" + table + "\" VALUES (" + placeholders + ")")) {
+                while (resultSet.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, resultSet.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.appointmentscheduler.datasource;
+
+/**
+ * Routing state of one HTTP request, kept on the calling thread for {@link ReadWriteRoutingDataSource}.
+ * Once the request is pinned (it ran a read-write transaction, or its patient recently changed an
+ * appointment) its read-only transactions go to the primary too, so it reads its own writes.
+ * Outside a request (scheduled jobs, startup) nothing is pinned.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<ReadRouting> CURRENT = new ThreadLocal<>();
+
+    private boolean pinnedToPrimary;
+
+    private ReadRouting() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new ReadRouting());
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static void pinToPrimary() {
+        ReadRouting routing = CURRENT.get();
+        if (routing != null) {
+            routing.pinnedToPrimary = true;
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        ReadRouting routing = CURRENT.get();
+        return routing != null && routing.pinnedToPrimary;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.appointmentscheduler.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Opens the {@link ReadRouting} state of each request and pins it to the primary up front when it
+ * is about a patient (patientId path variable or parameter) with a recent write
+ */
+public class ReadRoutingInterceptor implements HandlerInterceptor {
+
+    private final ReplicaStickiness replicaStickiness;
+
+    public ReadRoutingInterceptor(ReplicaStickiness replicaStickiness) {
+        this.replicaStickiness = replicaStickiness;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadRouting.begin();
+        Long patientId = patientId(request);
+        if (patientId != null && replicaStickiness.isSticky(patientId)) {
+            ReadRouting.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadRouting.end();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long patientId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables != null ? variables.get("patientId") : null;
+        if (value == null) {
+            value = request.getParameter("patientId");
+        }
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.appointmentscheduler.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * With replica.datasource.url set, the application DataSource becomes a read/write router over two
+ * Hikari pools, "primary" (spring.datasource.*) and "replica" (replica.datasource.*, hikari settings
+ * under replica.datasource.hikari.*). Each pool reports its own hikaricp.* metrics, tagged by pool name.
+ * Without a replica, Spring Boot's single DataSource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.datasource.url")
+public class ReadWriteDataSourceConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ReplicaStickiness replicaStickiness;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(@Value("${replica.datasource.url}") String url,
+                                              @Value("${replica.datasource.username:${spring.datasource.username:}}") String username,
+                                              @Value("${replica.datasource.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        // A write that reaches the replica by mistake fails instead of going unnoticed
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, meterRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadRoutingInterceptor(replicaStickiness));
+    }
+}
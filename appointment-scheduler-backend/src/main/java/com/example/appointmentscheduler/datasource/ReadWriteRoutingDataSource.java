@@ -0,0 +1,56 @@
+package com.example.appointmentscheduler.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions (@Transactional(readOnly = true) service
+ * methods, and repository queries: the repositories default to read-only, their @Modifying and
+ * row-locking queries are read-write) and primary connections to everything else. Must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction's read-only flag is only set after it has begun,
+ * so the real connection has to be chosen at the first statement.
+ *
+ * A read-write transaction pins the current request to the primary ({@link ReadRouting}), so reads
+ * after a write in the same request never hit a replica that has not caught up yet.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target { PRIMARY, REPLICA }
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        primaryConnections = connectionCounter(meterRegistry, "primary");
+        replicaConnections = connectionCounter(meterRegistry, "replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!ReadRouting.isPinnedToPrimary()) {
+                replicaConnections.increment();
+                return Target.REPLICA;
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReadRouting.pinToPrimary();
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routed.connections")
+            .description("Connections handed out by the read/write router, per target database")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+}
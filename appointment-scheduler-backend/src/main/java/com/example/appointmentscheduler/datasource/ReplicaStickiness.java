@@ -0,0 +1,64 @@
+package com.example.appointmentscheduler.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Patients who changed their appointments in the last replica.sticky-seconds: their requests read
+ * from the primary (see {@link ReadRoutingInterceptor}), so a patient always sees their own booking
+ * even while the replica lags. Keyed by patient id because the frontend's cross-origin calls carry
+ * no cookies. In memory, like the idempotency keys (per instance; use a shared store when running
+ * several). Does nothing when no replica is configured.
+ */
+@Component
+public class ReplicaStickiness {
+
+    @Value("${replica.datasource.url:}")
+    private String replicaUrl;
+
+    @Value("${replica.sticky-seconds:30}")
+    private long stickySeconds;
+
+    // patient id -> primary reads until (epoch ms)
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    /**
+     * The patient changed an appointment; the window starts when the current transaction commits
+     */
+    public void recordWrite(Long patientId) {
+        if (replicaUrl.isEmpty() || patientId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stick(patientId);
+                }
+            });
+        } else {
+            stick(patientId);
+        }
+    }
+
+    public boolean isSticky(Long patientId) {
+        Long until = primaryUntil.get(patientId);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${replica.sticky-sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        primaryUntil.values().removeIf(until -> until <= now);
+    }
+
+    private void stick(Long patientId) {
+        primaryUntil.put(patientId, System.currentTimeMillis() + stickySeconds * 1000);
+    }
+}
@@ -11,16 +11,18 @@ public class BookingConversationState {
     private String symptoms;
     private String originalSymptoms; // Store original symptoms from AI analysis
     private boolean symptomsPreAnalyzed; // Flag to indicate if symptoms were already analyzed
-    private List<com.example.appointmentscheduler.model.Doctor> recommendedDoctors;
+    private List<DoctorSummary> recommendedDoctors;
     private List<String> availableLocations;
     private String selectedLocation;
-    private List<com.example.appointmentscheduler.model.Doctor> filteredDoctors;
-    private com.example.appointmentscheduler.model.Doctor selectedDoctor;
+    private List<DoctorSummary> filteredDoctors;
+    private DoctorSummary selectedDoctor;
     private LocalDate selectedDate;
     private List<String> availableTimeSlots;
     private String selectedTimeSlot;
     private String reason;
     private String userId;
+    private int turnCount; // messages received in this conversation (for the turns-per-booking metric)
+    private long lastActivityMillis = System.currentTimeMillis(); // last message, for evicting abandoned conversations
     
     public BookingConversationState() {}
     
@@ -31,7 +33,7 @@ public class BookingConversationState {
     }
     
     // Constructor for pre-analyzed symptoms (when coming from AI agent)
-    public BookingConversationState(String userId, String originalSymptoms, List<com.example.appointmentscheduler.model.Doctor> recommendedDoctors) {
+    public BookingConversationState(String userId, String originalSymptoms, List<DoctorSummary> recommendedDoctors) {
         this.userId = userId;
         this.originalSymptoms = originalSymptoms;
         this.symptoms = originalSymptoms;
@@ -53,8 +55,8 @@ public class BookingConversationState {
     public boolean isSymptomsPreAnalyzed() { return symptomsPreAnalyzed; }
     public void setSymptomsPreAnalyzed(boolean symptomsPreAnalyzed) { this.symptomsPreAnalyzed = symptomsPreAnalyzed; }
     
-    public List<com.example.appointmentscheduler.model.Doctor> getRecommendedDoctors() { return recommendedDoctors; }
-    public void setRecommendedDoctors(List<com.example.appointmentscheduler.model.Doctor> recommendedDoctors) { this.recommendedDoctors = recommendedDoctors; }
+    public List<DoctorSummary> getRecommendedDoctors() { return recommendedDoctors; }
+    public void setRecommendedDoctors(List<DoctorSummary> recommendedDoctors) { this.recommendedDoctors = recommendedDoctors; }
     
     public List<String> getAvailableLocations() { return availableLocations; }
     public void setAvailableLocations(List<String> availableLocations) { this.availableLocations = availableLocations; }
@@ -62,11 +64,11 @@ public class BookingConversationState {
     public String getSelectedLocation() { return selectedLocation; }
     public void setSelectedLocation(String selectedLocation) { this.selectedLocation = selectedLocation; }
     
-    public List<com.example.appointmentscheduler.model.Doctor> getFilteredDoctors() { return filteredDoctors; }
-    public void setFilteredDoctors(List<com.example.appointmentscheduler.model.Doctor> filteredDoctors) { this.filteredDoctors = filteredDoctors; }
+    public List<DoctorSummary> getFilteredDoctors() { return filteredDoctors; }
+    public void setFilteredDoctors(List<DoctorSummary> filteredDoctors) { this.filteredDoctors = filteredDoctors; }
     
-    public com.example.appointmentscheduler.model.Doctor getSelectedDoctor() { return selectedDoctor; }
-    public void setSelectedDoctor(com.example.appointmentscheduler.model.Doctor selectedDoctor) { this.selectedDoctor = selectedDoctor; }
+    public DoctorSummary getSelectedDoctor() { return selectedDoctor; }
+    public void setSelectedDoctor(DoctorSummary selectedDoctor) { this.selectedDoctor = selectedDoctor; }
     
     public LocalDate getSelectedDate() { return selectedDate; }
     public void setSelectedDate(LocalDate selectedDate) { this.selectedDate = selectedDate; }
@@ -82,4 +84,10 @@ public class BookingConversationState {
     
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
+    
+    public int getTurnCount() { return turnCount; }
+    public void setTurnCount(int turnCount) { this.turnCount = turnCount; }
+    
+    public long getLastActivityMillis() { return lastActivityMillis; }
+    public void setLastActivityMillis(long lastActivityMillis) { this.lastActivityMillis = lastActivityMillis; }
 }
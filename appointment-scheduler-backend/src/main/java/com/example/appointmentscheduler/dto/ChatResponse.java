@@ -1,6 +1,5 @@
 package com.example.appointmentscheduler.dto;
 
-import com.example.appointmentscheduler.model.Doctor;
 import java.util.List;
 import java.util.Map;
 
@@ -8,7 +7,7 @@ public class ChatResponse {
     private String reply;
     private String intent;
     private Map<String, Object> entities;
-    private List<Doctor> recommendedDoctors;
+    private List<DoctorSummary> recommendedDoctors;
     private String appointmentId;
     private boolean success;
     
@@ -52,11 +51,11 @@ public class ChatResponse {
         this.entities = entities;
     }
 
-    public List<Doctor> getRecommendedDoctors() {
+    public List<DoctorSummary> getRecommendedDoctors() {
         return recommendedDoctors;
     }
 
-    public void setRecommendedDoctors(List<Doctor> recommendedDoctors) {
+    public void setRecommendedDoctors(List<DoctorSummary> recommendedDoctors) {
         this.recommendedDoctors = recommendedDoctors;
     }
 
@@ -0,0 +1,66 @@
+package com.example.appointmentscheduler.dto;
+
+import com.example.appointmentscheduler.model.Doctor;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight read-only view of a doctor for list and chat payloads.
+ * Populated directly by JPQL constructor expressions in DoctorRepository so
+ * the large text columns (about, qualifications) and reviews are never read.
+ * Use GET /api/doctors/{id} for the full profile.
+ */
+public class DoctorSummary {
+    private final Long id;
+    private final String name;
+    private final String speciality;
+    private final String location;
+    private final int yearsOfExperience;
+    private final BigDecimal feesPerHour;
+    private final BigDecimal rating;
+    private final boolean available;
+    private final Double latitude;
+    private final Double longitude;
+
+    public DoctorSummary(Long id, String name, String speciality, String location,
+                         int yearsOfExperience, BigDecimal feesPerHour, BigDecimal rating,
+                         boolean available, Double latitude, Double longitude) {
+        this.id = id;
+        this.name = name;
+        this.speciality = speciality;
+        this.location = location;
+        this.yearsOfExperience = yearsOfExperience;
+        this.feesPerHour = feesPerHour;
+        this.rating = rating;
+        this.available = available;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public static DoctorSummary of(Doctor doctor) {
+        return new DoctorSummary(doctor.getId(), doctor.getName(), doctor.getSpeciality(), doctor.getLocation(),
+            doctor.getYearsOfExperience(), doctor.getFeesPerHour(), doctor.getRating(), doctor.isAvailable(),
+            doctor.getLatitude(), doctor.getLongitude());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getSpeciality() { return speciality; }
+
+    public String getLocation() { return location; }
+
+    public int getYearsOfExperience() { return yearsOfExperience; }
+
+    public BigDecimal getFeesPerHour() { return feesPerHour; }
+
+    public BigDecimal getRating() { return rating; }
+
+    public boolean isAvailable() { return available; }
+
+    public Double getLatitude() { return latitude; }
+
+    public Double getLongitude() { return longitude; }
+}
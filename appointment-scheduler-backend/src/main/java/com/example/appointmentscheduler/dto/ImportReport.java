@@ -0,0 +1,70 @@
+package com.example.appointmentscheduler.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk doctor import: row counts and the rows that were rejected (line number and
+ * reason). Only the first maxErrors rejections are listed; failed always has the full count.
+ */
+public class ImportReport {
+    private long rows;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private long elapsedMs;
+    private final List<RowError> errors = new ArrayList<>();
+    private final int maxErrors;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addRow() {
+        rows++;
+    }
+
+    public void addInserted(long count) {
+        inserted += count;
+    }
+
+    public void addUpdated(long count) {
+        updated += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public long getRows() { return rows; }
+
+    public long getInserted() { return inserted; }
+
+    public long getUpdated() { return updated; }
+
+    public long getFailed() { return failed; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public List<RowError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return failed > errors.size(); }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+
+        public String getMessage() { return message; }
+    }
+}
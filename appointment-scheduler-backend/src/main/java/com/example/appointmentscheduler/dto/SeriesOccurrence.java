@@ -0,0 +1,35 @@
+package com.example.appointmentscheduler.dto;
+
+import com.example.appointmentscheduler.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One date of an appointment series: whether its slot is free and, once booked, the appointment
+ */
+public class SeriesOccurrence {
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean available;
+    private Appointment appointment;
+
+    public SeriesOccurrence(LocalDate date, LocalTime startTime, LocalTime endTime, boolean available) {
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.available = available;
+    }
+
+    public LocalDate getDate() { return date; }
+
+    public LocalTime getStartTime() { return startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+
+    public boolean isAvailable() { return available; }
+
+    public Appointment getAppointment() { return appointment; }
+    public void setAppointment(Appointment appointment) { this.appointment = appointment; }
+}
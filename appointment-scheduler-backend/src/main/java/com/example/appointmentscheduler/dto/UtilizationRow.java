@@ -0,0 +1,75 @@
+package com.example.appointmentscheduler.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Utilization and demand of one group (a doctor, speciality or location) over one period (a day or
+ * an ISO week); doctorId is set on per-doctor rows only. Rates are fractions (0.25 = 25%); occupancy
+ * is booked time over the group's capacity.
+ */
+public class UtilizationRow {
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final String group;
+    private final Long doctorId;
+    private final int doctors;
+    private final long appointments;
+    private final long cancelled;
+    private final long noShows;
+    private final long completed;
+    private final long bookedMinutes;
+    private final long capacityMinutes;
+
+    public UtilizationRow(LocalDate periodStart, LocalDate periodEnd, String group, Long doctorId, int doctors,
+                          long appointments, long cancelled, long noShows, long completed,
+                          long bookedMinutes, long capacityMinutes) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.group = group;
+        this.doctorId = doctorId;
+        this.doctors = doctors;
+        this.appointments = appointments;
+        this.cancelled = cancelled;
+        this.noShows = noShows;
+        this.completed = completed;
+        this.bookedMinutes = bookedMinutes;
+        this.capacityMinutes = capacityMinutes;
+    }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+
+    public LocalDate getPeriodEnd() { return periodEnd; }
+
+    public String getGroup() { return group; }
+
+    public Long getDoctorId() { return doctorId; }
+
+    public int getDoctors() { return doctors; }
+
+    public long getAppointments() { return appointments; }
+
+    public long getCancelled() { return cancelled; }
+
+    public long getNoShows() { return noShows; }
+
+    public long getCompleted() { return completed; }
+
+    public long getBookedMinutes() { return bookedMinutes; }
+
+    public long getCapacityMinutes() { return capacityMinutes; }
+
+    public double getOccupancy() {
+        return capacityMinutes == 0 ? 0.0 : (double) bookedMinutes / capacityMinutes;
+    }
+
+    // Cancelled out of all appointments
+    public double getCancelRate() {
+        return appointments == 0 ? 0.0 : (double) cancelled / appointments;
+    }
+
+    // No-shows out of the appointments that were not cancelled
+    public double getNoShowRate() {
+        long kept = appointments - cancelled;
+        return kept == 0 ? 0.0 : (double) noShows / kept;
+    }
+}
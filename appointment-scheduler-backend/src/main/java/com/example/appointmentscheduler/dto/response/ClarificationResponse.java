@@ -1,6 +1,6 @@
 package com.example.appointmentscheduler.dto.response;
 
-import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import java.util.List;
 import java.util.Map;
 
@@ -13,7 +13,7 @@ public class ClarificationResponse {
     private String reply;
     private String intent;
     private Map<String, Object> entities;
-    private List<Doctor> recommendedDoctors;
+    private List<DoctorSummary> recommendedDoctors;
     private boolean success;
     
     // Clarification-specific fields
@@ -56,11 +56,11 @@ public class ClarificationResponse {
         this.entities = entities;
     }
     
-    public List<Doctor> getRecommendedDoctors() {
+    public List<DoctorSummary> getRecommendedDoctors() {
         return recommendedDoctors;
     }
     
-    public void setRecommendedDoctors(List<Doctor> recommendedDoctors) {
+    public void setRecommendedDoctors(List<DoctorSummary> recommendedDoctors) {
         this.recommendedDoctors = recommendedDoctors;
     }
     
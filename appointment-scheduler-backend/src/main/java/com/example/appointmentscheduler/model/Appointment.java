@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_date", columnList = "appointment_date"),
+    @Index(name = "idx_appointments_patient_date", columnList = "patient_id, appointment_date")
+})
 public class Appointment {
     
     @Id
@@ -35,7 +38,7 @@ public class Appointment {
     private String additionalNotes;
     
     @Column(name = "status", nullable = false)
-    private String status; // CONFIRMED, CANCELLED, COMPLETED
+    private String status; // CONFIRMED, CANCELLED, COMPLETED, NO_SHOW
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -43,6 +46,10 @@ public class Appointment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Shared by the appointments of a recurring series booked together; null for single bookings
+    @Column(name = "series_id", length = 36)
+    private String seriesId;
+    
     // Constructors
     public Appointment() {
         this.createdAt = LocalDateTime.now();
@@ -107,6 +114,10 @@ public class Appointment {
         return updatedAt;
     }
 
+    public String getSeriesId() {
+        return seriesId;
+    }
+
     // Setters
     public void setId(Long id) {
         this.id = id;
@@ -153,6 +164,10 @@ public class Appointment {
         this.updatedAt = updatedAt;
     }
 
+    public void setSeriesId(String seriesId) {
+        this.seriesId = seriesId;
+    }
+
     // Convenience methods
     @PreUpdate
     protected void onUpdate() {
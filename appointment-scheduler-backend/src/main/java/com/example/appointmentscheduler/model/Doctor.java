@@ -2,12 +2,16 @@ package com.example.appointmentscheduler.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors", indexes = {
+    // Bulk import matches rows to existing doctors by email
+    @Index(name = "idx_doctors_email", columnList = "email")
+})
 public class Doctor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +33,16 @@ public class Doctor {
     
     private BigDecimal rating;
     
+    // Running review aggregates, maintained by DoctorReviewService on every review insert.
+    // Not updatable through the entity so an admin edit can never write back a stale count.
+    @Column(name = "review_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private int reviewCount;
+    
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingSum;
+    
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<DoctorReview> reviewEntities = new ArrayList<>();
@@ -36,6 +50,11 @@ public class Doctor {
     @Column(nullable = false)
     private String location;
     
+    // Clinic coordinates, geocoded from location via the gazetteer when not given explicitly
+    private Double latitude;
+    
+    private Double longitude;
+    
     private boolean available;
     
     // Additional fields for admin management
@@ -90,6 +109,12 @@ public class Doctor {
     public BigDecimal getRating() { return rating; }
     public void setRating(BigDecimal rating) { this.rating = rating; }
 
+    public int getReviewCount() { return reviewCount; }
+    public void setReviewCount(int reviewCount) { this.reviewCount = reviewCount; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
     public List<DoctorReview> getReviewEntities() { return reviewEntities; }
     public void setReviewEntities(List<DoctorReview> reviewEntities) { this.reviewEntities = reviewEntities; }
 
@@ -108,6 +133,12 @@ public class Doctor {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public boolean isAvailable() { return available; }
     public void setAvailable(boolean available) { this.available = available; }
     
@@ -6,7 +6,9 @@ import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "doctor_booking")
+@Table(name = "doctor_booking", indexes = {
+    @Index(name = "idx_doctor_booking_doctor_date", columnList = "doctor_id, booking_date")
+})
 public class DoctorBooking {
     
     @Id
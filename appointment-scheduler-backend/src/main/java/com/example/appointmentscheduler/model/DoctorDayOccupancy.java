@@ -0,0 +1,184 @@
+package com.example.appointmentscheduler.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * One doctor's bookings on one date, summarized: a bit per 15-minute cell of the day (96 cells in
+ * two 64-bit words) set when any booking overlaps the cell, plus the booking count.
+ * Maintained in the same transaction as every booking and release (see OccupancyService).
+ *
+ * The mask is exact while every booking of the day lies on the 15-minute grid: a set cell is then
+ * fully booked, so a slot overlaps a booking exactly when it touches a set cell. Bookings off the
+ * grid are counted in offGridCount; while any exist, callers fall back to the doctor_booking rows.
+ */
+@Entity
+@Table(name = "doctor_day_occupancy", indexes = {
+    @Index(name = "idx_occupancy_date", columnList = "occupancy_date")
+})
+public class DoctorDayOccupancy {
+
+    private static final int CELLS = 24 * 60 / TimeSlot.GRID_MINUTES;
+
+    @EmbeddedId
+    private Key id;
+
+    // Cells 0-63 and 64-95 (bit i = minutes [i * 15, i * 15 + 15) of the day)
+    @Column(name = "mask_low", nullable = false)
+    private long maskLow;
+
+    @Column(name = "mask_high", nullable = false)
+    private long maskHigh;
+
+    @Column(name = "booked_count", nullable = false)
+    private int bookedCount;
+
+    @Column(name = "off_grid_count", nullable = false)
+    private int offGridCount;
+
+    public DoctorDayOccupancy() {}
+
+    public DoctorDayOccupancy(Long doctorId, LocalDate date) {
+        this.id = new Key(doctorId, date);
+    }
+
+    /**
+     * Whether [startTime, endTime) overlaps a booked cell
+     */
+    public boolean overlaps(LocalTime startTime, LocalTime endTime) {
+        return (maskLow & lowBits(startTime, endTime)) != 0 || (maskHigh & highBits(startTime, endTime)) != 0;
+    }
+
+    /**
+     * Mark a new booking
+     */
+    public void occupy(LocalTime startTime, LocalTime endTime) {
+        maskLow |= lowBits(startTime, endTime);
+        maskHigh |= highBits(startTime, endTime);
+        bookedCount++;
+        if (!isOnGrid(startTime, endTime)) {
+            offGridCount++;
+        }
+    }
+
+    /**
+     * Unmark a released on-grid booking. Off-grid ones may share cells with other bookings,
+     * so for those the caller rebuilds the mask from the remaining bookings instead.
+     */
+    public void free(LocalTime startTime, LocalTime endTime) {
+        maskLow &= ~lowBits(startTime, endTime);
+        maskHigh &= ~highBits(startTime, endTime);
+        bookedCount = Math.max(0, bookedCount - 1);
+    }
+
+    public void clear() {
+        maskLow = 0;
+        maskHigh = 0;
+        bookedCount = 0;
+        offGridCount = 0;
+    }
+
+    /**
+     * Whether the mask alone answers overlap questions for this day
+     */
+    public boolean isExact() {
+        return offGridCount == 0;
+    }
+
+    /**
+     * Booked time on the grid (exact when isExact)
+     */
+    public int getBookedMinutes() {
+        return (Long.bitCount(maskLow) + Long.bitCount(maskHigh)) * TimeSlot.GRID_MINUTES;
+    }
+
+    public static boolean isOnGrid(LocalTime startTime, LocalTime endTime) {
+        return minuteOfDay(startTime) % TimeSlot.GRID_MINUTES == 0 && minuteOfDay(endTime) % TimeSlot.GRID_MINUTES == 0;
+    }
+
+    // Cells with any overlap with [startTime, endTime)
+    private static long lowBits(LocalTime startTime, LocalTime endTime) {
+        return bits(firstCell(startTime), endCell(endTime), 0);
+    }
+
+    private static long highBits(LocalTime startTime, LocalTime endTime) {
+        return bits(firstCell(startTime), endCell(endTime), 64);
+    }
+
+    // Bits for cells [from, to) that fall in the word starting at cell offset
+    private static long bits(int from, int to, int offset) {
+        int lo = Math.max(from - offset, 0);
+        int hi = Math.min(to - offset, 64);
+        if (lo >= hi) {
+            return 0L;
+        }
+        long upTo = hi == 64 ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+
+    private static int firstCell(LocalTime time) {
+        return minuteOfDay(time) / TimeSlot.GRID_MINUTES;
+    }
+
+    private static int endCell(LocalTime time) {
+        return Math.min(CELLS, (minuteOfDay(time) + TimeSlot.GRID_MINUTES - 1) / TimeSlot.GRID_MINUTES);
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // Getters and Setters
+    public Long getDoctorId() { return id.doctorId; }
+
+    public LocalDate getDate() { return id.date; }
+
+    public long getMaskLow() { return maskLow; }
+    public void setMaskLow(long maskLow) { this.maskLow = maskLow; }
+
+    public long getMaskHigh() { return maskHigh; }
+    public void setMaskHigh(long maskHigh) { this.maskHigh = maskHigh; }
+
+    public int getBookedCount() { return bookedCount; }
+    public void setBookedCount(int bookedCount) { this.bookedCount = bookedCount; }
+
+    public int getOffGridCount() { return offGridCount; }
+    public void setOffGridCount(int offGridCount) { this.offGridCount = offGridCount; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "doctor_id", nullable = false)
+        private Long doctorId;
+
+        @Column(name = "occupancy_date", nullable = false)
+        private LocalDate date;
+
+        public Key() {}
+
+        public Key(Long doctorId, LocalDate date) {
+            this.doctorId = doctorId;
+            this.date = date;
+        }
+
+        public Long getDoctorId() { return doctorId; }
+
+        public LocalDate getDate() { return date; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(doctorId, key.doctorId) && Objects.equals(date, key.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, date);
+        }
+    }
+}
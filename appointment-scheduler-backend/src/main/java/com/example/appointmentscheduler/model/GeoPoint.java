@@ -0,0 +1,52 @@
+package com.example.appointmentscheduler.model;
+
+/**
+ * Immutable latitude/longitude pair in decimal degrees
+ */
+public final class GeoPoint {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Null when either coordinate is missing
+     */
+    public static GeoPoint of(Double latitude, Double longitude) {
+        return latitude != null && longitude != null ? new GeoPoint(latitude, longitude) : null;
+    }
+
+    public double getLatitude() { return latitude; }
+
+    public double getLongitude() { return longitude; }
+
+    /**
+     * Great-circle (haversine) distance in kilometres
+     */
+    public double distanceKm(double otherLatitude, double otherLongitude) {
+        double dLat = Math.toRadians(otherLatitude - latitude);
+        double dLon = Math.toRadians(otherLongitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(otherLatitude))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(other.latitude, other.longitude);
+    }
+
+    @Override
+    public String toString() {
+        return "GeoPoint{" + latitude + ", " + longitude + '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.appointmentscheduler.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far an OutboxConsumer has got: every outbox event with an id up to eventId has been delivered
+ * to it. Survives restarts; setting it lower makes the consumer see the later events again.
+ */
+@Entity
+@Table(name = "outbox_consumer_offsets")
+public class OutboxConsumerOffset {
+
+    @Id
+    @Column(name = "consumer_name", length = 100)
+    private String consumerName;
+
+    @Column(name = "event_id", nullable = false)
+    private long eventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public OutboxConsumerOffset() {}
+
+    public OutboxConsumerOffset(String consumerName, long eventId) {
+        this.consumerName = consumerName;
+        this.eventId = eventId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getConsumerName() { return consumerName; }
+
+    public long getEventId() { return eventId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
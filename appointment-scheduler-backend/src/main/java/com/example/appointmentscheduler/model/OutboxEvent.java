@@ -0,0 +1,119 @@
+package com.example.appointmentscheduler.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One change to bookings or the doctor catalog, written to the outbox in the same transaction as the
+ * change itself (see OutboxService) and delivered to the OutboxConsumers by the OutboxDispatcher.
+ * Columns a type does not use are null: slot events carry the doctor, date and times, appointment
+ * events the appointment and patient as well, doctor events only the doctor, a catalog reload nothing.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    public enum Type {
+        APPOINTMENT_BOOKED,
+        APPOINTMENT_CANCELLED,
+        // Date and times are the new ones; the old slot comes as its own SLOT_RELEASED
+        APPOINTMENT_RESCHEDULED,
+        SLOT_BOOKED,
+        SLOT_RELEASED,
+        DOCTOR_CREATED,
+        DOCTOR_UPDATED,
+        DOCTOR_DELETED,
+        // Many doctors changed at once (import, rating reconciliation): consumers reload the catalog
+        DOCTOR_CATALOG_RELOADED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private Type type;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Column(name = "event_date")
+    private LocalDate date;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    private OutboxEvent(Type type, Long doctorId) {
+        this();
+        this.type = type;
+        this.doctorId = doctorId;
+    }
+
+    public static OutboxEvent slot(Type type, Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        OutboxEvent event = new OutboxEvent(type, doctorId);
+        event.date = date;
+        event.startTime = startTime;
+        event.endTime = endTime;
+        return event;
+    }
+
+    public static OutboxEvent appointment(Type type, Appointment appointment) {
+        OutboxEvent event = slot(type, appointment.getDoctorId(), appointment.getAppointmentDate(),
+            appointment.getStartTime(), appointment.getEndTime());
+        event.appointmentId = appointment.getId();
+        event.patientId = appointment.getPatientId();
+        return event;
+    }
+
+    public static OutboxEvent doctor(Type type, Long doctorId) {
+        return new OutboxEvent(type, doctorId);
+    }
+
+    public static OutboxEvent catalogReloaded() {
+        return new OutboxEvent(Type.DOCTOR_CATALOG_RELOADED, null);
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Type getType() { return type; }
+
+    public Long getDoctorId() { return doctorId; }
+
+    public Long getAppointmentId() { return appointmentId; }
+
+    public Long getPatientId() { return patientId; }
+
+    public LocalDate getDate() { return date; }
+
+    public LocalTime getStartTime() { return startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{id=" + id + ", type=" + type + ", doctorId=" + doctorId + ", appointmentId=" + appointmentId +
+               ", date=" + date + "}";
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.appointmentscheduler.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable repeat rule for an appointment series: every interval days, weeks or months from the
+ * first date, for count occurrences or until a date (inclusive). Monthly dates past the end of a
+ * short month fall on its last day. A series has at most MAX_OCCURRENCES dates.
+ */
+public final class RecurrenceRule {
+
+    public static final int MAX_OCCURRENCES = 104;
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Build a rule from request fields: frequency is required (case-insensitive), interval defaults
+     * to 1, and exactly one of count and until must be given
+     */
+    public static RecurrenceRule of(String frequency, Integer interval, Integer count, String until) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Frequency is required (DAILY, WEEKLY or MONTHLY)");
+        }
+        Frequency parsedFrequency;
+        try {
+            parsedFrequency = Frequency.valueOf(frequency.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown frequency: " + frequency);
+        }
+        int parsedInterval = interval != null ? interval : 1;
+        if (parsedInterval < 1) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if ((count == null) == (until == null)) {
+            throw new IllegalArgumentException("Give either count or until");
+        }
+        if (count != null && (count < 1 || count > MAX_OCCURRENCES)) {
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_OCCURRENCES);
+        }
+        LocalDate parsedUntil = null;
+        if (until != null) {
+            try {
+                parsedUntil = LocalDate.parse(until.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid until date: " + until);
+            }
+        }
+        return new RecurrenceRule(parsedFrequency, parsedInterval, count, parsedUntil);
+    }
+
+    /**
+     * The series dates, starting with first
+     */
+    public List<LocalDate> occurrences(LocalDate first) {
+        if (until != null && until.isBefore(first)) {
+            throw new IllegalArgumentException("Until must not be before the first date");
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; count == null || i < count; i++) {
+            LocalDate date = step(first, (long) i * interval);
+            if (until != null && date.isAfter(until)) {
+                break;
+            }
+            if (dates.size() == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("A series can have at most " + MAX_OCCURRENCES + " occurrences");
+            }
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    private LocalDate step(LocalDate first, long amount) {
+        switch (frequency) {
+            case DAILY:
+                return first.plusDays(amount);
+            case WEEKLY:
+                return first.plusWeeks(amount);
+            default:
+                // From the first date each time, so Jan 31 gives Feb 28 then Mar 31 (not Mar 28)
+                return first.plusMonths(amount);
+        }
+    }
+
+    public Frequency getFrequency() { return frequency; }
+
+    public int getInterval() { return interval; }
+
+    public Integer getCount() { return count; }
+
+    public LocalDate getUntil() { return until; }
+}
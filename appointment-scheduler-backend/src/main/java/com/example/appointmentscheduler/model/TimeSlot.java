@@ -0,0 +1,243 @@
+package com.example.appointmentscheduler.model;
+
+import java.time.LocalTime;
+
+/**
+ * Immutable appointment time range within one day, stored as minutes since midnight.
+ * Parses the "09:00 AM - 10:00 AM" labels used by the UI and chat (and 24-hour "14:00")
+ * with a hand-written scanner, without splitting, regex or boxing. Slots on the 15-minute
+ * grid are interned, so parsing a valid slot returns a shared instance and allocates nothing.
+ */
+public final class TimeSlot {
+
+    public static final int GRID_MINUTES = 15;
+    // Slots stay within one day: the latest end is 11:59 PM
+    public static final int LAST_END_MINUTE = 24 * 60 - 1;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int GRID_POINTS = MINUTES_PER_DAY / GRID_MINUTES;
+
+    // Shared LocalTime per grid point and the interned catalog indexed by [start point][end point]
+    private static final LocalTime[] GRID_TIMES = new LocalTime[GRID_POINTS];
+    private static final TimeSlot[][] CATALOG = new TimeSlot[GRID_POINTS][GRID_POINTS];
+
+    static {
+        for (int point = 0; point < GRID_POINTS; point++) {
+            GRID_TIMES[point] = LocalTime.of(point * GRID_MINUTES / 60, point * GRID_MINUTES % 60);
+        }
+        for (int start = 0; start < GRID_POINTS; start++) {
+            for (int end = start + 1; end < GRID_POINTS; end++) {
+                CATALOG[start][end] = new TimeSlot(start * GRID_MINUTES, end * GRID_MINUTES);
+            }
+        }
+    }
+
+    private final int startMinute;
+    private final int endMinute;
+    private final LocalTime start;
+    private final LocalTime end;
+    private String label; // built on first use; a racy rebuild yields an equal string
+
+    private TimeSlot(int startMinute, int endMinute) {
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.start = timeOf(startMinute);
+        this.end = timeOf(endMinute);
+    }
+
+    /**
+     * The slot from startMinute to endMinute (minutes since midnight); the catalog instance when on the grid
+     */
+    public static TimeSlot of(int startMinute, int endMinute) {
+        if (startMinute < 0 || endMinute > LAST_END_MINUTE) {
+            throw new IllegalArgumentException("Invalid time slot: " + startMinute + "-" + endMinute + " minutes");
+        }
+        if (startMinute >= endMinute) {
+            throw new IllegalArgumentException("Time slot must end after it starts: "
+                + formatTime(startMinute) + " - " + formatTime(endMinute));
+        }
+        if (startMinute % GRID_MINUTES == 0 && endMinute % GRID_MINUTES == 0) {
+            return CATALOG[startMinute / GRID_MINUTES][endMinute / GRID_MINUTES];
+        }
+        return new TimeSlot(startMinute, endMinute);
+    }
+
+    public static TimeSlot of(LocalTime start, LocalTime end) {
+        return of(start.getHour() * 60 + start.getMinute(), end.getHour() * 60 + end.getMinute());
+    }
+
+    /**
+     * Parse a slot label such as "09:00 AM - 10:00 AM" or "14:00-15:00"
+     */
+    public static TimeSlot parse(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Time slot is required");
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == '-') {
+                return of(parseTime(text, 0, i), parseTime(text, i + 1, length));
+            }
+        }
+        throw new IllegalArgumentException("Invalid time slot: " + text);
+    }
+
+    /**
+     * Parse separate start and end times ("09:00 AM", "10:00 AM")
+     */
+    public static TimeSlot parse(CharSequence startText, CharSequence endText) {
+        if (startText == null || endText == null) {
+            throw new IllegalArgumentException("Start and end time are required");
+        }
+        return of(parseTime(startText, 0, startText.length()), parseTime(endText, 0, endText.length()));
+    }
+
+    /**
+     * Minutes since midnight for "9:00 AM", "09:00 pm", "9 AM" or 24-hour "14:00"
+     */
+    public static int parseTime(CharSequence text) {
+        return parseTime(text, 0, text.length());
+    }
+
+    /**
+     * Minutes since midnight for the time in text[from, to), surrounding spaces allowed
+     */
+    public static int parseTime(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) == ' ') {
+            i++;
+        }
+        while (to > i && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+
+        // Hour: one or two digits
+        int hour = digit(text, i, to);
+        if (hour < 0) {
+            throw invalidTime(text, from, to);
+        }
+        i++;
+        int second = digit(text, i, to);
+        if (second >= 0) {
+            hour = hour * 10 + second;
+            i++;
+        }
+
+        // Optional ":mm"
+        int minute = 0;
+        if (i < to && text.charAt(i) == ':') {
+            int tens = digit(text, i + 1, to);
+            int ones = digit(text, i + 2, to);
+            if (tens < 0 || ones < 0) {
+                throw invalidTime(text, from, to);
+            }
+            minute = tens * 10 + ones;
+            i += 3;
+        }
+        while (i < to && text.charAt(i) == ' ') {
+            i++;
+        }
+
+        // Optional AM/PM (case-insensitive); without it the time is on the 24-hour clock
+        if (i == to) {
+            if (hour > 23 || minute > 59) {
+                throw invalidTime(text, from, to);
+            }
+            return hour * 60 + minute;
+        }
+        if (to - i != 2 || (text.charAt(i + 1) != 'M' && text.charAt(i + 1) != 'm')) {
+            throw invalidTime(text, from, to);
+        }
+        char meridiem = text.charAt(i);
+        boolean pm;
+        if (meridiem == 'A' || meridiem == 'a') {
+            pm = false;
+        } else if (meridiem == 'P' || meridiem == 'p') {
+            pm = true;
+        } else {
+            throw invalidTime(text, from, to);
+        }
+        if (hour < 1 || hour > 12 || minute > 59) {
+            throw invalidTime(text, from, to);
+        }
+        return (hour % 12 + (pm ? 12 : 0)) * 60 + minute;
+    }
+
+    /**
+     * "09:00 AM" style label for a minute of the day
+     */
+    public static String formatTime(int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        int clockHour = hour % 12 == 0 ? 12 : hour % 12;
+        char[] chars = {
+            (char) ('0' + clockHour / 10), (char) ('0' + clockHour % 10), ':',
+            (char) ('0' + minute / 10), (char) ('0' + minute % 10), ' ', hour < 12 ? 'A' : 'P', 'M'
+        };
+        return new String(chars);
+    }
+
+    public int getStartMinute() { return startMinute; }
+
+    public int getEndMinute() { return endMinute; }
+
+    public LocalTime getStart() { return start; }
+
+    public LocalTime getEnd() { return end; }
+
+    public int getDurationMinutes() { return endMinute - startMinute; }
+
+    /**
+     * True when the two slots share any time (touching end/start does not count)
+     */
+    public boolean overlaps(TimeSlot other) {
+        return startMinute < other.endMinute && other.startMinute < endMinute;
+    }
+
+    /**
+     * "09:00 AM - 10:00 AM"
+     */
+    public String getLabel() {
+        String result = label;
+        if (result == null) {
+            result = formatTime(startMinute) + " - " + formatTime(endMinute);
+            label = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeSlot)) return false;
+        TimeSlot other = (TimeSlot) o;
+        return startMinute == other.startMinute && endMinute == other.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return startMinute * MINUTES_PER_DAY + endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+
+    private static LocalTime timeOf(int minuteOfDay) {
+        return minuteOfDay % GRID_MINUTES == 0 && GRID_TIMES[minuteOfDay / GRID_MINUTES] != null
+            ? GRID_TIMES[minuteOfDay / GRID_MINUTES]
+            : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static int digit(CharSequence text, int index, int to) {
+        if (index >= to) {
+            return -1;
+        }
+        char c = text.charAt(index);
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    private static IllegalArgumentException invalidTime(CharSequence text, int from, int to) {
+        return new IllegalArgumentException("Invalid time: " + text.subSequence(from, Math.max(from, to)));
+    }
+}
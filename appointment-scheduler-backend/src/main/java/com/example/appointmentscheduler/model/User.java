@@ -28,6 +28,11 @@ public class User {
     @Column
     private String location;
     
+    // Home coordinates, geocoded from location via the gazetteer
+    private Double latitude;
+    
+    private Double longitude;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private UserRole role;
@@ -82,6 +87,12 @@ public class User {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public UserRole getRole() { return role; }
     public void setRole(UserRole role) { this.role = role; }
     
@@ -0,0 +1,126 @@
+package com.example.appointmentscheduler.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A patient waiting for any slot with a doctor on a date, inside a time window.
+ * Entries are served in id order (first come, first served). The index lets the next eligible
+ * entry for a released slot be found with one index seek instead of scanning the waitlist.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+    @Index(name = "idx_waitlist_queue", columnList = "doctor_id, requested_date, status, id"),
+    @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "requested_date", nullable = false)
+    private LocalDate requestedDate;
+
+    // Any slot that fits inside [windowStart, windowEnd] will do
+    @Column(name = "window_start", nullable = false)
+    private LocalTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalTime windowEnd;
+
+    @Column(name = "reason_for_visit", nullable = false)
+    private String reasonForVisit;
+
+    // Book a released slot straight away instead of holding it for the patient to accept
+    @Column(name = "auto_confirm", nullable = false)
+    private boolean autoConfirm;
+
+    @Column(name = "status", nullable = false)
+    private String status; // WAITING, OFFERED, BOOKED, DECLINED, EXPIRED, CANCELLED
+
+    // The slot currently held for (or booked from) this entry
+    @Column(name = "offered_start_time")
+    private LocalTime offeredStartTime;
+
+    @Column(name = "offered_end_time")
+    private LocalTime offeredEndTime;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public WaitlistEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public WaitlistEntry(Long patientId, Long doctorId, LocalDate requestedDate, LocalTime windowStart,
+                         LocalTime windowEnd, String reasonForVisit, boolean autoConfirm) {
+        this();
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.requestedDate = requestedDate;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.reasonForVisit = reasonForVisit;
+        this.autoConfirm = autoConfirm;
+        this.status = "WAITING";
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getPatientId() { return patientId; }
+    public void setPatientId(Long patientId) { this.patientId = patientId; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public LocalDate getRequestedDate() { return requestedDate; }
+    public void setRequestedDate(LocalDate requestedDate) { this.requestedDate = requestedDate; }
+
+    public LocalTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalTime windowStart) { this.windowStart = windowStart; }
+
+    public LocalTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalTime windowEnd) { this.windowEnd = windowEnd; }
+
+    public String getReasonForVisit() { return reasonForVisit; }
+    public void setReasonForVisit(String reasonForVisit) { this.reasonForVisit = reasonForVisit; }
+
+    public boolean isAutoConfirm() { return autoConfirm; }
+    public void setAutoConfirm(boolean autoConfirm) { this.autoConfirm = autoConfirm; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalTime getOfferedStartTime() { return offeredStartTime; }
+    public void setOfferedStartTime(LocalTime offeredStartTime) { this.offeredStartTime = offeredStartTime; }
+
+    public LocalTime getOfferedEndTime() { return offeredEndTime; }
+    public void setOfferedEndTime(LocalTime offeredEndTime) { this.offeredEndTime = offeredEndTime; }
+
+    public LocalDateTime getOfferExpiresAt() { return offerExpiresAt; }
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) { this.offerExpiresAt = offerExpiresAt; }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,117 @@
+package com.example.appointmentscheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Java Flight Recorder events for the stages of a booking, so a recording shows where a slow
+ * request spent its time (AI call, classification, doctor lookup, availability, commit).
+ * Each carries doctorId (0 when not known yet), the conversation step (from the MDC set by
+ * ConversationalBookingService) and an outcome. Without a recording, begin/commit cost almost nothing.
+ *
+ * Usage: {@code event.begin(); ... event.doctorId = id; event.finish("success");}
+ * Fields or outcomes that have to be built (concatenation, joins) are only built when
+ * {@code event.isEnabled()}, so nothing is allocated for them without a recording.
+ */
+public final class BookingEvents {
+
+    private BookingEvents() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    @Category({"Appointment Scheduler", "Booking"})
+    @StackTrace(false)
+    public abstract static class BookingStageEvent extends Event {
+
+        @Label("Doctor ID")
+        public long doctorId;
+
+        @Label("Step")
+        @Description("Booking conversation step, if the stage ran inside a conversation turn")
+        public String step;
+
+        @Label("Outcome")
+        public String outcome;
+
+        /**
+         * Record the event (if a recording wants it) with the given outcome
+         */
+        public void finish(String outcome) {
+            end();
+            if (shouldCommit()) {
+                this.outcome = outcome;
+                if (step == null) {
+                    step = MDC.get("step");
+                }
+                commit();
+            }
+        }
+    }
+
+    @Name("com.example.appointmentscheduler.AiRequest")
+    @Label("AI Request")
+    @Description("Call to the AI service's /chat endpoint")
+    public static class AiRequest extends BookingStageEvent {
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Intent")
+        public String intent;
+    }
+
+    @Name("com.example.appointmentscheduler.SymptomClassification")
+    @Label("Symptom Classification")
+    @Description("Mapping symptom text or an AI reply to specialities")
+    public static class SymptomClassification extends BookingStageEvent {
+
+        @Label("Specialities")
+        public String specialities;
+    }
+
+    @Name("com.example.appointmentscheduler.DoctorLookup")
+    @Label("Doctor Lookup")
+    @Description("Loading candidate doctors and ranking them")
+    public static class DoctorLookup extends BookingStageEvent {
+
+        @Label("Query")
+        public String query;
+
+        @Label("Doctors Found")
+        public int found;
+    }
+
+    @Name("com.example.appointmentscheduler.AvailabilityCheck")
+    @Label("Availability Check")
+    @Description("Checking booked slots for one doctor or for all doctors in a slot")
+    public static class AvailabilityCheck extends BookingStageEvent {
+
+        @Label("Date")
+        public String date;
+
+        @Label("Start Time")
+        public String startTime;
+    }
+
+    @Name("com.example.appointmentscheduler.BookingCommit")
+    @Label("Booking Commit")
+    @Description("Saving an appointment and its slot")
+    public static class BookingCommit extends BookingStageEvent {
+
+        @Label("Appointment ID")
+        public long appointmentId;
+    }
+
+    @Name("com.example.appointmentscheduler.StepTransition")
+    @Label("Conversation Step Transition")
+    public static class StepTransition extends BookingStageEvent {
+
+        @Label("Next Step")
+        public String nextStep;
+    }
+}
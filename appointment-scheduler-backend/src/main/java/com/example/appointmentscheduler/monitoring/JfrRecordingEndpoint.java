@@ -0,0 +1,129 @@
+package com.example.appointmentscheduler.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flight recording on demand, on the management port:
+ * POST /actuator/jfr starts a recording (JDK "default" settings, about 1% overhead, plus the
+ * {@link BookingEvents}), GET /actuator/jfr downloads what it has captured so far as a .jfr file
+ * (open in JDK Mission Control or with "jfr print"), DELETE /actuator/jfr stops it.
+ * Only exposed with the ops profile, which binds the management port to localhost.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(15);
+
+    private Recording recording;
+    private Path dumpFile;
+
+    /**
+     * Start a recording. settings is a JDK configuration name ("default", or "profile" for more detail
+     * at a few percent overhead); maxAgeSeconds bounds how much history is kept (default 15 minutes)
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings,
+                                                                      @Nullable Long maxAgeSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        String configurationName = settings != null ? settings : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "Unknown JFR settings: " + configurationName);
+            return new WebEndpointResponse<>(error, WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        closeRecording();
+        recording = new Recording(configuration);
+        recording.setName("appointment-scheduler");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : DEFAULT_MAX_AGE);
+        for (Class<?> event : BookingEvents.class.getDeclaredClasses()) {
+            if (!Modifier.isAbstract(event.getModifiers())) {
+                recording.enable(event.getName()).withoutStackTrace();
+            }
+        }
+        recording.start();
+        logger.info("Started JFR recording with '{}' settings", configurationName);
+        return new WebEndpointResponse<>(status());
+    }
+
+    /**
+     * Download the running (or last stopped) recording
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (dumpFile == null) {
+            dumpFile = Files.createTempFile("appointment-scheduler-", ".jfr");
+        }
+        recording.dump(dumpFile);
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Stopped JFR recording");
+        }
+        return status();
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAgeSeconds", recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : null);
+            status.put("sizeBytes", recording.getSize());
+        }
+        return status;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (dumpFile != null) {
+            try {
+                Files.deleteIfExists(dumpFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete old JFR dump {}", dumpFile, e);
+            }
+            dumpFile = null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.appointmentscheduler.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps one in sampleEvery DEBUG/TRACE events from high-volume loggers
+ * (e.g. org.hibernate.SQL), so DEBUG can stay on in production without logging every statement.
+ * Dropped events are rejected before the message is formatted. Other levels and loggers are untouched.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final AtomicLong counter = new AtomicLong();
+    private int sampleEvery = 100;
+
+    public void addLoggerPrefix(String prefix) {
+        loggerPrefixes.add(prefix.trim());
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() checks arrive without a format; let them through so only real events are counted
+        if (format == null || level == null || level.isGreaterOrEqual(Level.INFO)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleEvery == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.appointmentscheduler.monitoring;
+
+/**
+ * Thrown by {@link SqlBudgetFilter} when sql.budget.fail-on-violation is set, so that an
+ * integration test exercising an endpoint fails on an N+1 or over-budget request
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.appointmentscheduler.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements, rows and JDBC time of each HTTP request, records them per endpoint
+ * (sql.request.statements, sql.request.rows, sql.request.time) and logs a warning when the request
+ * goes over the statement/row budget or runs the same statement shape more than
+ * sql.budget.max-repeated-statements times (typically a lazy collection loaded once per entity).
+ * With sql.budget.fail-on-violation=true (for integration tests) a violation throws
+ * {@link SqlBudgetExceededException} instead; the response is then buffered until the check has passed,
+ * so an over-budget request fails with an error rather than reaching the client as a 200. Requests that are bulk by design (exports, imports) set
+ * {@link #UNBOUNDED_ATTRIBUTE}: they are still recorded, but never counted as a violation.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.inspection.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    public static final String UNBOUNDED_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".UNBOUNDED";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${sql.budget.max-rows:5000}")
+    private long maxRows;
+
+    @Value("${sql.budget.max-repeated-statements:10}")
+    private int maxRepeatedStatements;
+
+    @Value("${sql.budget.fail-on-violation:false}")
+    private boolean failOnViolation;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Nothing may be committed before the check when a violation is to fail the request
+        ContentCachingResponseWrapper buffered = failOnViolation ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlStatementStats.end();
+        }
+        checkBudget(request, stats);
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+            .description("SQL statements executed per HTTP request")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+            .description("Rows read or changed per HTTP request")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(stats.getRows());
+        Timer.builder("sql.request.time")
+            .description("JDBC execution time per HTTP request")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        List<String> violations = new ArrayList<>();
+        if (stats.getStatements() > maxStatements) {
+            violations.add("statements");
+        }
+        if (stats.getRows() > maxRows) {
+            violations.add("rows");
+        }
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() > maxRepeatedStatements;
+        if (repeated) {
+            violations.add("repeated_statement");
+        }
+        if (violations.isEmpty() || request.getAttribute(UNBOUNDED_ATTRIBUTE) != null) {
+            return;
+        }
+
+        for (String violation : violations) {
+            meterRegistry.counter("sql.budget.violations", "method", method, "uri", uri, "kind", violation).increment();
+        }
+        String message = String.format(
+            "SQL budget exceeded: method=%s uri=%s violations=%s statements=%d/%d rows=%d/%d jdbcMs=%.1f%s",
+            method, uri, violations, stats.getStatements(), maxStatements, stats.getRows(), maxRows,
+            stats.getJdbcNanos() / 1e6,
+            repeated ? String.format(" repeated=%d/%d statement=\"%s\"", mostRepeated.getValue(),
+                maxRepeatedStatements, mostRepeated.getKey()) : "");
+        if (failOnViolation) {
+            throw new SqlBudgetExceededException(message);
+        }
+        logger.warn(message);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.appointmentscheduler.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that reports every statement execution, its JDBC time and the rows it read
+ * or changed to the {@link SqlStatementStats} active on the calling thread. With no stats active
+ * (scheduled jobs, startup) the only cost is a thread-local lookup per call.
+ */
+public class SqlInspectingDataSource extends DelegatingDataSource {
+
+    public SqlInspectingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return wrap(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return wrap(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlInspectingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlInspectingDataSource.invoke(connection, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrap(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return wrap(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement":
+                    return wrap(Statement.class, new StatementHandler((Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats == null) {
+                return SqlInspectingDataSource.invoke(statement, method, args);
+            }
+            if (name.startsWith("execute")) {
+                // Plain statements carry their SQL as the first argument
+                String sql = preparedSql != null ? preparedSql
+                    : (args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+                long started = System.nanoTime();
+                Object result;
+                try {
+                    result = SqlInspectingDataSource.invoke(statement, method, args);
+                } finally {
+                    stats.recordStatement(sql, System.nanoTime() - started);
+                }
+                countUpdatedRows(stats, result);
+                return result instanceof ResultSet ? wrapResultSet((ResultSet) result) : result;
+            }
+            Object result = SqlInspectingDataSource.invoke(statement, method, args);
+            if (result instanceof ResultSet && ("getResultSet".equals(name) || "getGeneratedKeys".equals(name))) {
+                return wrapResultSet((ResultSet) result);
+            }
+            return result;
+        }
+
+        private static void countUpdatedRows(SqlStatementStats stats, Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                stats.recordRows(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    stats.recordRows(Math.max(0, count));
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    stats.recordRows(Math.max(0, count));
+                }
+            }
+        }
+
+        private static ResultSet wrapResultSet(ResultSet resultSet) {
+            return wrap(ResultSet.class, (proxy, method, args) -> {
+                Object result = SqlInspectingDataSource.invoke(resultSet, method, args);
+                if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                    SqlStatementStats stats = SqlStatementStats.current();
+                    if (stats != null) {
+                        stats.recordRows(1);
+                    }
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.appointmentscheduler.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link SqlInspectingDataSource} so {@link SqlBudgetFilter}
+ * sees every statement, whichever repository or JdbcTemplate issues it. DataSources that only
+ * delegate to others (the read/write router and its lazy proxy) are left alone: the pools behind
+ * them are wrapped, so each statement is counted once.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.inspection.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInspectionPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return new SqlInspectingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
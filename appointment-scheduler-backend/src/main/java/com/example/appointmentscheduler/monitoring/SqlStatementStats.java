@@ -0,0 +1,103 @@
+package com.example.appointmentscheduler.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, rows and JDBC time of one unit of work (an HTTP request), collected on the
+ * calling thread by {@link SqlInspectingDataSource}. Statements are also counted by shape
+ * (literals and IN lists collapsed) to spot the same query repeated once per entity (N+1).
+ */
+public class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Prepared SQL strings repeat, so their shapes are cached (bounded: cleared when full)
+    private static final int SHAPE_CACHE_LIMIT = 2000;
+    private static final Map<String, String> SHAPE_CACHE = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> statementsByShape = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    /**
+     * Start collecting on this thread; returns the stats already active if called re-entrantly
+     */
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            stats = new SqlStatementStats();
+            CURRENT.set(stats);
+        }
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        if (sql != null) {
+            statementsByShape.merge(shapeOf(sql), 1, Integer::sum);
+        }
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * The statement shape executed most often, or null if nothing ran
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : statementsByShape.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = SHAPE_CACHE.get(sql);
+        if (shape == null) {
+            shape = sql.toLowerCase();
+            shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+            shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+            shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+            shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+            if (SHAPE_CACHE.size() >= SHAPE_CACHE_LIMIT) {
+                SHAPE_CACHE.clear();
+            }
+            SHAPE_CACHE.put(sql, shape);
+        }
+        return shape;
+    }
+}
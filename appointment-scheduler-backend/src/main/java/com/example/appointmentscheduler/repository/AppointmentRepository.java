@@ -1,18 +1,35 @@
 package com.example.appointmentscheduler.repository;
 
 import com.example.appointmentscheduler.model.Appointment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
+@Transactional(readOnly = true)
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
     // Find appointments by patient ID, ordered by date (newest first)
     List<Appointment> findByPatientIdOrderByAppointmentDateDesc(Long patientId);
     
+    // A patient's appointments in a date range, newest first (only the partitions of the range are read)
+    List<Appointment> findByPatientIdAndAppointmentDateBetweenOrderByAppointmentDateDescStartTimeDesc(
+        Long patientId, LocalDate fromDate, LocalDate toDate);
+
     // Find appointments by doctor ID, ordered by date (newest first)
     List<Appointment> findByDoctorIdOrderByAppointmentDateDesc(Long doctorId);
     
@@ -22,4 +39,23 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     // Find appointments by status
     List<Appointment> findByStatusOrderByAppointmentDateDesc(String status);
+
+    // Appointments of a recurring series, in date order
+    List<Appointment> findBySeriesIdOrderByAppointmentDateAsc(String seriesId);
+
+    // Load an appointment with a row lock, so concurrent cancel/reschedule of it run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT a FROM Appointment a WHERE a.id = :id")
+    Optional<Appointment> findByIdForUpdate(@Param("id") Long id);
+
+    // Stream (doctorId, date, startTime, endTime, status) of every appointment in a date range, for the
+    // analytics aggregates. Must be consumed inside a transaction; rows are fetched in batches.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.doctorId, a.appointmentDate, a.startTime, a.endTime, a.status FROM Appointment a " +
+           "WHERE a.appointmentDate BETWEEN :fromDate AND :toDate")
+    Stream<Object[]> streamForAnalytics(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
 }
@@ -1,16 +1,25 @@
 package com.example.appointmentscheduler.repository;
 
 import com.example.appointmentscheduler.model.DoctorBooking;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
+@Transactional(readOnly = true)
 public interface DoctorBookingRepository extends JpaRepository<DoctorBooking, Long> {
     
     // Find all bookings for a specific doctor on a specific date
@@ -39,4 +48,39 @@ public interface DoctorBookingRepository extends JpaRepository<DoctorBooking, Lo
         @Param("startTime") LocalTime startTime,
         @Param("endTime") LocalTime endTime
     );
+
+    // Dates in [fromDate, toDate] on which the doctor has a booking overlapping the time range:
+    // one query for a whole recurring series instead of one conflict check per occurrence
+    @Query("SELECT DISTINCT db.bookingDate FROM DoctorBooking db WHERE db.doctorId = :doctorId " +
+           "AND db.bookingDate BETWEEN :fromDate AND :toDate " +
+           "AND db.startTime < :endTime AND db.endTime > :startTime")
+    List<LocalDate> findBookedDatesInRange(
+        @Param("doctorId") Long doctorId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("startTime") LocalTime startTime,
+        @Param("endTime") LocalTime endTime
+    );
+
+    // Stream (doctorId, date, startTime, endTime) of the bookings of the doctors in [fromId, toId], for the
+    // occupancy rebuild. Must be consumed inside a transaction; rows are fetched in batches.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT db.doctorId, db.bookingDate, db.startTime, db.endTime FROM DoctorBooking db " +
+           "WHERE db.doctorId BETWEEN :fromId AND :toId")
+    Stream<Object[]> streamSlotsOfDoctors(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Release exactly the slot an appointment occupied
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DoctorBooking db WHERE db.doctorId = :doctorId AND db.bookingDate = :bookingDate " +
+           "AND db.startTime = :startTime AND db.endTime = :endTime")
+    int deleteSlot(
+        @Param("doctorId") Long doctorId,
+        @Param("bookingDate") LocalDate bookingDate,
+        @Param("startTime") LocalTime startTime,
+        @Param("endTime") LocalTime endTime
+    );
 }
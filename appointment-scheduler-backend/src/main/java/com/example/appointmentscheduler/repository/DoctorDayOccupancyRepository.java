@@ -0,0 +1,53 @@
+package com.example.appointmentscheduler.repository;
+
+import com.example.appointmentscheduler.model.DoctorDayOccupancy;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface DoctorDayOccupancyRepository extends JpaRepository<DoctorDayOccupancy, DoctorDayOccupancy.Key> {
+
+    // Row-lock a doctor's days; every booking and release takes this lock before touching doctor_booking,
+    // so bookings for the same doctor and day run one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT o FROM DoctorDayOccupancy o WHERE o.id.doctorId = :doctorId " +
+           "AND o.id.date BETWEEN :fromDate AND :toDate ORDER BY o.id.date")
+    List<DoctorDayOccupancy> lockRange(@Param("doctorId") Long doctorId, @Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT o FROM DoctorDayOccupancy o WHERE o.id.doctorId = :doctorId " +
+           "AND o.id.date BETWEEN :fromDate AND :toDate ORDER BY o.id.date")
+    List<DoctorDayOccupancy> findRange(@Param("doctorId") Long doctorId, @Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate);
+
+    // Every doctor with bookings on a date
+    @Query("SELECT o FROM DoctorDayOccupancy o WHERE o.id.date = :date AND o.bookedCount > 0 ORDER BY o.id.doctorId")
+    List<DoctorDayOccupancy> findByDate(@Param("date") LocalDate date);
+
+    // A row for every day the doctors in [fromId, toId] have bookings on but no row yet, for the rebuild.
+    // Inserted in date order like lockDays does, so the two never wait on each other's new rows in a cycle
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO doctor_day_occupancy (doctor_id, occupancy_date, mask_low, mask_high, booked_count, off_grid_count) " +
+                   "SELECT doctor_id, booking_date, 0, 0, 0, 0 FROM doctor_booking WHERE doctor_id BETWEEN :fromId AND :toId " +
+                   "GROUP BY doctor_id, booking_date ORDER BY doctor_id, booking_date ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingDays(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Row-lock every day of the doctors in [fromId, toId], each doctor's in the order lockRange takes them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT o FROM DoctorDayOccupancy o WHERE o.id.doctorId BETWEEN :fromId AND :toId " +
+           "ORDER BY o.id.doctorId, o.id.date")
+    List<DoctorDayOccupancy> lockDoctors(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
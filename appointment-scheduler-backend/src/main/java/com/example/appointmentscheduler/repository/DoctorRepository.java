@@ -1,42 +1,114 @@
 package com.example.appointmentscheduler.repository;
 
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    
+
+    // Constructor expression shared by all summary queries (selects only the summary columns)
+    String SUMMARY_SELECT = "SELECT new com.example.appointmentscheduler.dto.DoctorSummary(" +
+           "d.id, d.name, d.speciality, d.location, d.yearsOfExperience, d.feesPerHour, d.rating, d.available, " +
+           "d.latitude, d.longitude) " +
+           "FROM Doctor d ";
+
+    // Search results are ordered by the precomputed rating (highest first)
+    String BY_RATING = " ORDER BY d.rating DESC NULLS LAST, d.id";
+
+    // Single doctor summary (used to refresh the spatial index after an update)
+    @Query(SUMMARY_SELECT + "WHERE d.id = :id")
+    Optional<DoctorSummary> findSummaryById(@Param("id") Long id);
+
     // Find doctors by location (case-insensitive)
-    @Query("SELECT d FROM Doctor d WHERE d.available = true AND " +
-           "(:location IS NULL OR LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%')))")
-    List<Doctor> findByLocationContainingIgnoreCase(@Param("location") String location);
-    
+    @Query(SUMMARY_SELECT + "WHERE d.available = true AND " +
+           "(:location IS NULL OR LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%')))" + BY_RATING)
+    List<DoctorSummary> findSummariesByLocation(@Param("location") String location);
+
     // Find doctors by speciality (case-insensitive)
-    @Query("SELECT d FROM Doctor d WHERE d.available = true AND " +
-           "(:speciality IS NULL OR LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%')))")
-    List<Doctor> findBySpecialityContainingIgnoreCase(@Param("speciality") String speciality);
-    
+    @Query(SUMMARY_SELECT + "WHERE d.available = true AND " +
+           "(:speciality IS NULL OR LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%')))" + BY_RATING)
+    List<DoctorSummary> findSummariesBySpeciality(@Param("speciality") String speciality);
+
     // Find doctors by both location and speciality
-    @Query("SELECT d FROM Doctor d WHERE d.available = true AND " +
+    @Query(SUMMARY_SELECT + "WHERE d.available = true AND " +
            "(:location IS NULL OR LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%'))) AND " +
-           "(:speciality IS NULL OR LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%')))")
-    List<Doctor> findByLocationAndSpecialityContainingIgnoreCase(
-        @Param("location") String location, 
+           "(:speciality IS NULL OR LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%')))" + BY_RATING)
+    List<DoctorSummary> findSummariesByLocationAndSpeciality(
+        @Param("location") String location,
         @Param("speciality") String speciality
     );
-    
+
     // Find all available doctors
-    List<Doctor> findByAvailableTrue();
-    
+    @Query(SUMMARY_SELECT + "WHERE d.available = true" + BY_RATING)
+    List<DoctorSummary> findAvailableSummaries();
+
+    // Find all doctors including unavailable ones
+    @Query(SUMMARY_SELECT)
+    List<DoctorSummary> findAllSummaries();
+
+    // Fold one new review into the running aggregates. A single UPDATE so concurrent
+    // inserts for the same doctor serialize on the row lock instead of losing counts.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor d SET d.reviewCount = d.reviewCount + 1, " +
+           "d.ratingSum = d.ratingSum + :rating, " +
+           "d.rating = CAST(d.ratingSum + :rating AS BigDecimal) / (d.reviewCount + 1) " +
+           "WHERE d.id = :doctorId")
+    int applyReviewRating(@Param("doctorId") Long doctorId, @Param("rating") long rating);
+
+    @Query("SELECT d.id FROM Doctor d ORDER BY d.id")
+    List<Long> findAllIds();
+
+    // Doctors whose aggregates count reviews or who have reviews: the ones reconciliation recomputes
+    @Query("SELECT d.id FROM Doctor d WHERE d.reviewCount > 0 " +
+           "OR EXISTS (SELECT r.id FROM DoctorReview r WHERE r.doctor = d) ORDER BY d.id")
+    List<Long> findIdsToReconcile();
+
+    // Row-lock doctors (in id order) before recomputing their aggregates: a review being added holds
+    // the same lock, so it commits first or waits, and is never overwritten
+    @Transactional
+    @Query(value = "SELECT id FROM doctors WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForReconcile(@Param("ids") Collection<Long> ids);
+
+    // Overwrite the aggregates with values computed from the review table (no reviews keeps the last rating).
+    // Run after lockForReconcile: as a later statement it sees every review committed before the lock.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE doctors d SET " +
+           "review_count = (SELECT COUNT(r.rating) FROM doctor_reviews r WHERE r.doctor_id = d.id), " +
+           "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM doctor_reviews r WHERE r.doctor_id = d.id), " +
+           "rating = COALESCE((SELECT ROUND(CAST(SUM(r.rating) AS DECIMAL(12, 2)) / NULLIF(COUNT(r.rating), 0), 2) " +
+           "FROM doctor_reviews r WHERE r.doctor_id = d.id), d.rating) " +
+           "WHERE d.id IN (:ids)", nativeQuery = true)
+    int recomputeReviewAggregates(@Param("ids") Collection<Long> ids);
+
     // Get unique locations
     @Query("SELECT DISTINCT d.location FROM Doctor d WHERE d.available = true ORDER BY d.location")
     List<String> findUniqueLocations();
-    
+
     // Get unique specialities
     @Query("SELECT DISTINCT d.speciality FROM Doctor d WHERE d.available = true ORDER BY d.speciality")
     List<String> findUniqueSpecialities();
+
+    // Locations of doctors that have not been geocoded yet
+    @Query("SELECT DISTINCT d.location FROM Doctor d WHERE d.latitude IS NULL OR d.longitude IS NULL")
+    List<String> findLocationsMissingCoordinates();
+
+    // Bulk-assign coordinates to every not yet geocoded doctor at a location
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor d SET d.latitude = :latitude, d.longitude = :longitude " +
+           "WHERE d.location = :location AND (d.latitude IS NULL OR d.longitude IS NULL)")
+    int assignCoordinates(@Param("location") String location, @Param("latitude") double latitude,
+                          @Param("longitude") double longitude);
 }
@@ -0,0 +1,11 @@
+package com.example.appointmentscheduler.repository;
+
+import com.example.appointmentscheduler.model.OutboxConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface OutboxConsumerOffsetRepository extends JpaRepository<OutboxConsumerOffset, String> {
+}
@@ -0,0 +1,37 @@
+package com.example.appointmentscheduler.repository;
+
+import com.example.appointmentscheduler.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The next events after an offset, in id order
+    List<OutboxEvent> findByIdGreaterThanOrderById(Long id, Pageable page);
+
+    // Events skipped over earlier because their transaction had not committed yet
+    List<OutboxEvent> findByIdInOrderById(Collection<Long> ids);
+
+    @Query("SELECT MIN(e.id) FROM OutboxEvent e")
+    Long findMinId();
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e")
+    Long findMaxId();
+
+    // Drop events every consumer has seen, once older than the retention
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :deliveredId AND e.createdAt < :before")
+    int deleteDelivered(@Param("deliveredId") long deliveredId, @Param("before") LocalDateTime before);
+}
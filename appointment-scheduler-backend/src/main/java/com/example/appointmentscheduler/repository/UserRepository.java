@@ -3,10 +3,15 @@ package com.example.appointmentscheduler.repository;
 import com.example.appointmentscheduler.model.User;
 import com.example.appointmentscheduler.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
 
+// Unlike the other repositories, not read-only by default: account lookups (login, registration checks)
+// stay on the primary, so a login right after registering finds the new account
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
@@ -14,4 +19,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
     List<User> findByLocation(String location);
     Optional<User> findByEmailAndPassword(String email, String password);
+
+    // Locations of users that have not been geocoded yet
+    @Query("SELECT DISTINCT u.location FROM User u WHERE u.location IS NOT NULL AND (u.latitude IS NULL OR u.longitude IS NULL)")
+    List<String> findLocationsMissingCoordinates();
+
+    // Bulk-assign coordinates to every not yet geocoded user at a location
+    @Modifying
+    @Query("UPDATE User u SET u.latitude = :latitude, u.longitude = :longitude " +
+           "WHERE u.location = :location AND (u.latitude IS NULL OR u.longitude IS NULL)")
+    int assignCoordinates(@Param("location") String location, @Param("latitude") double latitude,
+                          @Param("longitude") double longitude);
 }
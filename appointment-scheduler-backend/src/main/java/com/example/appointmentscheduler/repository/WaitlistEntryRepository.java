@@ -0,0 +1,59 @@
+package com.example.appointmentscheduler.repository;
+
+import com.example.appointmentscheduler.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Oldest waiting entries whose window covers the slot; walks idx_waitlist_queue in id order,
+    // so the first page is found without reading the rest of the queue
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.doctorId = :doctorId AND w.requestedDate = :date " +
+           "AND w.status = 'WAITING' AND w.windowStart <= :startTime AND w.windowEnd >= :endTime " +
+           "ORDER BY w.id")
+    List<WaitlistEntry> findNextEligible(
+        @Param("doctorId") Long doctorId,
+        @Param("date") LocalDate date,
+        @Param("startTime") LocalTime startTime,
+        @Param("endTime") LocalTime endTime,
+        Pageable page
+    );
+
+    // Take a waiting entry for an offer. A single conditional UPDATE, so two slot releases
+    // racing for the same entry cannot both claim it
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', w.offeredStartTime = :startTime, " +
+           "w.offeredEndTime = :endTime, w.offerExpiresAt = :expiresAt " +
+           "WHERE w.id = :id AND w.status = 'WAITING'")
+    int claimForOffer(@Param("id") Long id, @Param("startTime") LocalTime startTime,
+                      @Param("endTime") LocalTime endTime, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Load an entry with a row lock before accepting, declining or expiring its offer
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> findByIdForUpdate(@Param("id") Long id);
+
+    List<WaitlistEntry> findByStatus(String status);
+
+    List<WaitlistEntry> findByPatientIdOrderByIdDesc(Long patientId);
+
+    boolean existsByPatientIdAndDoctorIdAndRequestedDateAndStatusIn(Long patientId, Long doctorId,
+                                                                     LocalDate requestedDate, List<String> statuses);
+}
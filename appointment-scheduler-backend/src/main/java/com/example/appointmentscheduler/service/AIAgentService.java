@@ -3,13 +3,16 @@ package com.example.appointmentscheduler.service;
 import com.example.appointmentscheduler.dto.ChatMessage;
 import com.example.appointmentscheduler.dto.ChatRequest;
 import com.example.appointmentscheduler.dto.ChatResponse;
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.dto.request.ClarificationRequest;
 import com.example.appointmentscheduler.dto.response.ClarificationResponse;
-import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
 import com.example.appointmentscheduler.repository.DoctorRepository;
+import com.example.appointmentscheduler.utils.AIResponseParser;
 import com.example.appointmentscheduler.utils.ChatIntents;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.appointmentscheduler.utils.SymptomKeywords;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -19,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AIAgentService {
@@ -37,11 +41,23 @@ public class AIAgentService {
     @Autowired
     private ConversationalBookingService conversationalBookingService;
     
+    @Autowired
+    private DoctorRanker doctorRanker;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Maximum number of doctors returned with a recommendation
+    @Value("${ranking.recommendation.limit:20}")
+    private int recommendationLimit;
+    
     private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
     
-    // Store symptom analysis context temporarily for booking transition
-    private final Map<String, ChatResponse> userSymptomContext = new HashMap<>();
+    // Store symptom analysis context temporarily for booking transition (written by concurrent chat requests)
+    private final Map<String, ChatResponse> userSymptomContext = new ConcurrentHashMap<>();
 
     /**
      * Process chat message and return AI response with additional data
@@ -59,7 +75,7 @@ public class AIAgentService {
             ChatRequest aiRequest = new ChatRequest(Arrays.asList(chatMessage), userId);
             
             // Call Python AI service
-            ChatResponse aiResponse = callAIService(aiRequest);
+            ChatResponse aiResponse = callAIService(aiRequest, "chat");
             
             if (aiResponse == null) {
                 return createErrorResponse("AI service is unavailable");
@@ -78,7 +94,7 @@ public class AIAgentService {
                 case ChatIntents.SYMPTOM_CHECK:
                 case ChatIntents.DOCTOR_RECOMMENDATION:
                     // Store symptom analysis context for potential booking
-                    ChatResponse response = processSymptomCheck(aiResponse);
+                    ChatResponse response = processSymptomCheck(aiResponse, userId);
                     if (response.getRecommendedDoctors() != null && !response.getRecommendedDoctors().isEmpty()) {
                         // Store the symptom analysis for potential booking
                         userSymptomContext.put(userId, response);
@@ -87,9 +103,9 @@ public class AIAgentService {
                     return response;
                 case ChatIntents.GENERAL_CHAT:
                     // Check if general chat contains symptom information that we should process
-                    if (containsSymptoms(userMessage)) {
+                    if (SymptomKeywords.containsSymptoms(userMessage)) {
                         // Directly process symptoms without calling AI service again
-                        ChatResponse symptomResponse = processSymptomsDirect(userMessage);
+                        ChatResponse symptomResponse = processSymptomsDirect(userMessage, userId);
                         if (symptomResponse.getRecommendedDoctors() != null && !symptomResponse.getRecommendedDoctors().isEmpty()) {
                             // Store the symptom analysis for potential booking
                             userSymptomContext.put(userId, symptomResponse);
@@ -132,20 +148,33 @@ public class AIAgentService {
     /**
      * Process symptoms directly without calling AI service (prevents loops)
      */
-    private ChatResponse processSymptomsDirect(String userMessage) {
+    private ChatResponse processSymptomsDirect(String userMessage, String userId) {
         try {
             // Rule-based symptom analysis
-            String specialty = determineSpecialty(userMessage);
-            List<Doctor> doctors = new ArrayList<>();
+            BookingEvents.SymptomClassification classification = new BookingEvents.SymptomClassification();
+            classification.begin();
+            String specialty = SymptomKeywords.determineSpecialty(userMessage);
+            classification.specialities = specialty;
+            classification.finish("rule_based");
+            
+            BookingEvents.DoctorLookup lookup = new BookingEvents.DoctorLookup();
+            lookup.begin();
+            if (lookup.isEnabled()) {
+                lookup.query = "speciality:" + specialty;
+            }
+            List<DoctorSummary> doctors = new ArrayList<>();
             
             if (specialty != null) {
-                doctors = doctorRepository.findBySpecialityContainingIgnoreCase(specialty);
+                doctors = doctorRepository.findSummariesBySpeciality(specialty);
             }
             
             if (doctors.isEmpty()) {
                 // Fallback to general medicine
-                doctors = doctorRepository.findBySpecialityContainingIgnoreCase("General Medicine");
+                doctors = doctorRepository.findSummariesBySpeciality("General Medicine");
             }
+            doctors = rankForUser(doctors, userId);
+            lookup.found = doctors.size();
+            lookup.finish(doctors.isEmpty() ? "none" : "found");
             
             ChatResponse response = new ChatResponse();
             if (!doctors.isEmpty()) {
@@ -168,84 +197,6 @@ public class AIAgentService {
         }
     }
     
-    /**
-     * Determine medical specialty based on symptoms (rule-based)
-     */
-    private String determineSpecialty(String message) {
-        if (message == null) return null;
-        
-        String lowerMessage = message.toLowerCase();
-        
-        // Heart/Chest related
-        if (lowerMessage.contains("chest pain") || lowerMessage.contains("heart")) {
-            return "Cardiology";
-        }
-        
-        // Skin related
-        if (lowerMessage.contains("skin") || lowerMessage.contains("rash")) {
-            return "Dermatology";
-        }
-        
-        // Respiratory
-        if (lowerMessage.contains("cough") || lowerMessage.contains("breathing") || lowerMessage.contains("lung")) {
-            return "Pulmonology";
-        }
-        
-        // Digestive
-        if (lowerMessage.contains("stomach") || lowerMessage.contains("nausea") || lowerMessage.contains("digestive")) {
-            return "Gastroenterology";
-        }
-        
-        // Bone/Joint
-        if (lowerMessage.contains("joint") || lowerMessage.contains("back pain") || lowerMessage.contains("bone")) {
-            return "Orthopedics";
-        }
-        
-        // Eye related
-        if (lowerMessage.contains("eye") || lowerMessage.contains("vision")) {
-            return "Ophthalmology";
-        }
-        
-        // ENT
-        if (lowerMessage.contains("ear") || lowerMessage.contains("throat") || lowerMessage.contains("nose")) {
-            return "ENT";
-        }
-        
-        // Neurological
-        if (lowerMessage.contains("headache") || lowerMessage.contains("migraine") || lowerMessage.contains("dizzy")) {
-            return "Neurology";
-        }
-        
-        // Default to General Medicine
-        return "General Medicine";
-    }
-
-    /**
-     * Check if user message contains symptom-related keywords
-     */
-    private boolean containsSymptoms(String message) {
-        if (message == null) return false;
-        
-        String lowerMessage = message.toLowerCase();
-        
-        // Common symptom keywords
-        String[] symptomKeywords = {
-            "headache", "fever", "pain", "ache", "hurt", "sick", "ill", 
-            "cough", "cold", "flu", "nausea", "dizzy", "tired", "fatigue",
-            "stomach", "chest", "back", "throat", "ear", "eye", "skin",
-            "rash", "bleeding", "swollen", "infection", "symptom", "problem",
-            "i have", "i feel", "experiencing", "suffering"
-        };
-        
-        for (String keyword : symptomKeywords) {
-            if (lowerMessage.contains(keyword)) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-
     /**
      * Extract original symptoms from stored context
      */
@@ -284,9 +235,14 @@ public class AIAgentService {
     }
     
     /**
-     * Call the Python AI service
+     * Call the Python AI service, timed as ai.service.requests by operation, outcome and returned intent
      */
-    private ChatResponse callAIService(ChatRequest request) {
+    private ChatResponse callAIService(ChatRequest request, String operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BookingEvents.AiRequest event = new BookingEvents.AiRequest();
+        event.begin();
+        String outcome = "error";
+        ChatResponse parsed = null;
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -294,102 +250,43 @@ public class AIAgentService {
             HttpEntity<ChatRequest> entity = new HttpEntity<>(request, headers);
             
             String url = aiServiceUrl + "/chat";
-            logger.info("Calling AI service at: {}", url);
+            logger.debug("Calling AI service at: {}", url);
             
             ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
             
+            outcome = "http_error";
             if (response.getStatusCode() == HttpStatus.OK) {
-                return parseAIResponse(response.getBody());
+                parsed = parseAIResponse(response.getBody());
+                outcome = parsed.isSuccess() ? "success" : "invalid_response";
+                return parsed;
             }
             
         } catch (Exception e) {
             logger.error("Error calling AI service", e);
+        } finally {
+            String intent = parsed != null && parsed.isSuccess() ? parsed.getIntent() : null;
+            sample.stop(meterRegistry.timer("ai.service.requests",
+                "operation", operation, "outcome", outcome, "intent", ChatIntents.forMetrics(intent)));
+            event.operation = operation;
+            event.intent = intent;
+            event.finish(outcome);
         }
         
         return null;
     }
     
     /**
-     * Parse AI service JSON response with enhanced fields
+     * Parse AI service JSON response with enhanced fields; an unreadable body becomes an error response
      */
     private ChatResponse parseAIResponse(String jsonResponse) {
         try {
-            JsonNode node = objectMapper.readTree(jsonResponse);
-            
-            ChatResponse response = new ChatResponse();
-            response.setReply(node.get("reply").asText());
-            response.setIntent(node.get("intent").asText());
-            
-            // Parse entities
-            Map<String, Object> entities = new HashMap<>();
-            JsonNode entitiesNode = node.get("entities");
-            if (entitiesNode != null) {
-                entitiesNode.fields().forEachRemaining(entry -> {
-                    JsonNode valueNode = entry.getValue();
-                    if (valueNode.isArray()) {
-                        // Handle arrays (like clarification_questions)
-                        List<String> arrayValues = new ArrayList<>();
-                        valueNode.forEach(item -> arrayValues.add(item.asText()));
-                        entities.put(entry.getKey(), arrayValues);
-                    } else {
-                        entities.put(entry.getKey(), valueNode.asText());
-                    }
-                });
-            }
-            response.setEntities(entities);
-            
-            // Parse new enhanced fields from entities
-            if (entitiesNode != null) {
-                // Map confidence level
-                if (entitiesNode.has("confidence")) {
-                    double confidence = entitiesNode.get("confidence").asDouble();
-                    response.setConfidenceLevel(mapConfidenceLevel(confidence));
-                }
-                
-                // Map requires clarification
-                if (entitiesNode.has("requires_clarification")) {
-                    response.setRequiresClarification(entitiesNode.get("requires_clarification").asBoolean());
-                }
-                
-                // Map clarification questions
-                if (entitiesNode.has("clarification_questions")) {
-                    JsonNode questionsNode = entitiesNode.get("clarification_questions");
-                    if (questionsNode.isArray()) {
-                        List<String> questions = new ArrayList<>();
-                        questionsNode.forEach(q -> questions.add(q.asText()));
-                        response.setClarificationQuestions(questions);
-                    }
-                }
-                
-                // Map fallback level
-                if (entitiesNode.has("fallback_level")) {
-                    response.setFallbackLevel(entitiesNode.get("fallback_level").asText());
-                }
-            }
-            
-            response.setSuccess(true);
-            
-            return response;
-            
+            return AIResponseParser.parse(jsonResponse);
         } catch (Exception e) {
             logger.error("Error parsing AI response", e);
             return createErrorResponse("Failed to process AI response");
         }
     }
     
-    /**
-     * Map numeric confidence to string levels
-     */
-    private String mapConfidenceLevel(double confidence) {
-        if (confidence >= 0.8) {
-            return "high";
-        } else if (confidence >= 0.5) {
-            return "medium";
-        } else {
-            return "low";
-        }
-    }
-    
     /**
      * Process clarification response from user
      * Combines original message with clarification and retries AI analysis
@@ -402,14 +299,14 @@ public class AIAgentService {
             String combinedMessage = request.getOriginalMessage() + ". " + 
                 "Additional details: " + request.getClarificationResponse();
             
-            logger.info("Combined message for retry: {}", combinedMessage);
+            logger.debug("Combined message for retry: {}", combinedMessage);
             
             // Create new chat request with combined message
             ChatMessage combinedChatMessage = new ChatMessage("user", combinedMessage);
             ChatRequest retryRequest = new ChatRequest(Arrays.asList(combinedChatMessage), request.getUserId());
             
             // Call AI service again with enhanced context
-            ChatResponse aiResponse = callAIService(retryRequest);
+            ChatResponse aiResponse = callAIService(retryRequest, "clarification");
             
             if (aiResponse == null) {
                 return createClarificationErrorResponse("AI service is unavailable for clarification processing");
@@ -431,7 +328,7 @@ public class AIAgentService {
             if (aiResponse.getIntent().equals(ChatIntents.SYMPTOM_CHECK) && aiResponse.getEntities() != null) {
                 String specialty = (String) aiResponse.getEntities().get("specialty");
                 if (specialty != null) {
-                    List<Doctor> doctors = doctorRepository.findBySpecialityContainingIgnoreCase(specialty);
+                    List<DoctorSummary> doctors = findRankedDoctors(specialty, request.getUserId());
                     clarificationResponse.setRecommendedDoctors(doctors);
                     
                     if (!doctors.isEmpty()) {
@@ -467,15 +364,15 @@ public class AIAgentService {
     /**
      * Process symptom check and find recommended doctors
      */
-    private ChatResponse processSymptomCheck(ChatResponse aiResponse) {
+    private ChatResponse processSymptomCheck(ChatResponse aiResponse, String userId) {
         String specialty = (String) aiResponse.getEntities().get("specialty");
         
         if (specialty != null) {
-            List<Doctor> doctors = doctorRepository.findBySpecialityContainingIgnoreCase(specialty);
+            List<DoctorSummary> doctors = findRankedDoctors(specialty, userId);
             aiResponse.setRecommendedDoctors(doctors);
             
             if (!doctors.isEmpty()) {
-                Doctor topDoctor = doctors.get(0); // Get highest rated or first doctor
+                DoctorSummary topDoctor = doctors.get(0); // Best match by DoctorRanker
                 String enhancedReply = aiResponse.getReply() + 
                     String.format("\n\nI found Dr. %s who specializes in %s. " +
                     "Rating: %.1f⭐, Experience: %d years. Would you like to book an appointment?",
@@ -492,6 +389,32 @@ public class AIAgentService {
         return aiResponse;
     }
     
+    /**
+     * Doctors of the speciality, ranked for this user (recorded as a DoctorLookup JFR event)
+     */
+    private List<DoctorSummary> findRankedDoctors(String specialty, String userId) {
+        BookingEvents.DoctorLookup lookup = new BookingEvents.DoctorLookup();
+        lookup.begin();
+        if (lookup.isEnabled()) {
+            lookup.query = "speciality:" + specialty;
+        }
+        List<DoctorSummary> doctors = rankForUser(doctorRepository.findSummariesBySpeciality(specialty), userId);
+        lookup.found = doctors.size();
+        lookup.doctorId = doctors.isEmpty() ? 0 : doctors.get(0).getId();
+        lookup.finish(doctors.isEmpty() ? "none" : "found");
+        return doctors;
+    }
+    
+    /**
+     * Keep the best recommendationLimit doctors for this user, best first
+     */
+    private List<DoctorSummary> rankForUser(List<DoctorSummary> doctors, String userId) {
+        if (doctors.isEmpty()) {
+            return doctors;
+        }
+        return doctorRanker.topK(doctors, userService.findChatUser(userId).orElse(null), recommendationLimit);
+    }
+    
     /**
      * Process booking request
      */
@@ -505,9 +428,9 @@ public class AIAgentService {
             String timeStr = (String) entities.get("time");
             
             if (specialty != null) {
-                List<Doctor> doctors = doctorRepository.findBySpecialityContainingIgnoreCase(specialty);
+                List<DoctorSummary> doctors = doctorRepository.findSummariesBySpeciality(specialty);
                 if (!doctors.isEmpty()) {
-                    Doctor doctor = doctors.get(0); // Select first available doctor
+                    DoctorSummary doctor = doctors.get(0); // Select first available doctor
                     
                     // For now, just return confirmation - actual booking would need more implementation
                     String reply = String.format("I found Dr. %s for your %s appointment. " +
@@ -550,7 +473,7 @@ public class AIAgentService {
     /**
      * Get doctors by specialty (public method for other services)
      */
-    public List<Doctor> getDoctorsBySpecialty(String specialty) {
-        return doctorRepository.findBySpecialityContainingIgnoreCase(specialty);
+    public List<DoctorSummary> getDoctorsBySpecialty(String specialty) {
+        return doctorRepository.findSummariesBySpeciality(specialty);
     }
 }
@@ -0,0 +1,325 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.dto.UtilizationRow;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.repository.AppointmentRepository;
+import com.example.appointmentscheduler.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Occupancy, cancel and no-show figures per doctor, speciality or location, per day or ISO week.
+ *
+ * Appointments are read in one streaming pass per run of uncached periods and folded into per-doctor
+ * counters, so memory grows with periods x doctors, never with appointments. Closed periods (ended
+ * before today) are kept in memory for good; open ones are recomputed on every request. A slot booked
+ * or released on a past date (SLOT_* outbox events) evicts the periods of its date. Counters are
+ * kept per doctor and rolled up by the doctor's current speciality and location when serving.
+ */
+@Service
+public class AnalyticsService implements OutboxConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    public enum Granularity {
+        DAY, WEEK;
+
+        public static Granularity of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown granularity: " + value + " (DAY or WEEK)");
+            }
+        }
+    }
+
+    public enum GroupBy {
+        DOCTOR, SPECIALITY, LOCATION;
+
+        public static GroupBy of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown grouping: " + value + " (DOCTOR, SPECIALITY or LOCATION)");
+            }
+        }
+    }
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    // Bookable minutes per doctor on a working day
+    @Value("${analytics.capacity-minutes-per-day:480}")
+    private long capacityMinutesPerDay;
+
+    @Value("${analytics.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private Set<DayOfWeek> workingDays;
+
+    @Value("${analytics.max-days:400}")
+    private long maxDays;
+
+    // Closed periods: period start -> doctor -> counters (immutable once stored)
+    private final Map<Granularity, Map<LocalDate, Map<Long, Counters>>> closedPeriods = new EnumMap<>(Granularity.class);
+
+    // Bumped on every eviction; a pass only caches its periods if no eviction happened meanwhile
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AnalyticsService() {
+        for (Granularity granularity : Granularity.values()) {
+            closedPeriods.put(granularity, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Figures for every period overlapping [fromDate, toDate], one row per period and group, in
+     * period then group order. The range is widened to whole periods.
+     */
+    @Transactional(readOnly = true)
+    public List<UtilizationRow> getUtilization(LocalDate fromDate, LocalDate toDate, Granularity granularity, GroupBy groupBy) {
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("The end date must not be before the start date");
+        }
+        LocalDate first = periodStart(fromDate, granularity);
+        LocalDate last = periodStart(toDate, granularity);
+        if (ChronoUnit.DAYS.between(first, periodEnd(last, granularity)) >= maxDays) {
+            throw new IllegalArgumentException("The date range can span at most " + maxDays + " days");
+        }
+
+        Map<LocalDate, Map<Long, Counters>> periods = loadPeriods(first, last, granularity);
+        Map<Long, DoctorSummary> doctors = doctorRepository.findAllSummaries().stream()
+            .collect(Collectors.toMap(DoctorSummary::getId, Function.identity()));
+
+        List<UtilizationRow> rows = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<Long, Counters>> period : periods.entrySet()) {
+            rows.addAll(rollUp(period.getKey(), granularity, groupBy, period.getValue(), doctors));
+        }
+        return rows;
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "analytics-closed-periods";
+    }
+
+    /**
+     * A booked or released slot means an appointment changed: forget the closed periods holding its date
+     */
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (event.getType() == OutboxEvent.Type.SLOT_BOOKED || event.getType() == OutboxEvent.Type.SLOT_RELEASED) {
+                evictions.incrementAndGet();
+                for (Granularity granularity : Granularity.values()) {
+                    closedPeriods.get(granularity).remove(periodStart(event.getDate(), granularity));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void resync() {
+        evictions.incrementAndGet();
+        closedPeriods.values().forEach(Map::clear);
+    }
+
+    // Counters for every period from first to last (period starts), cached where closed
+    private Map<LocalDate, Map<Long, Counters>> loadPeriods(LocalDate first, LocalDate last, Granularity granularity) {
+        Map<LocalDate, Map<Long, Counters>> cache = closedPeriods.get(granularity);
+        Map<LocalDate, Map<Long, Counters>> periods = new TreeMap<>();
+        long evictionsBefore = evictions.get();
+
+        // Consecutive uncached periods are read with one query
+        LocalDate runStart = null;
+        for (LocalDate start = first; !start.isAfter(last); start = nextPeriod(start, granularity)) {
+            Map<Long, Counters> cached = cache.get(start);
+            if (cached != null) {
+                if (runStart != null) {
+                    periods.putAll(scan(runStart, start.minusDays(1), granularity));
+                    runStart = null;
+                }
+                periods.put(start, cached);
+            } else if (runStart == null) {
+                runStart = start;
+            }
+        }
+        if (runStart != null) {
+            periods.putAll(scan(runStart, periodEnd(last, granularity), granularity));
+        }
+
+        LocalDate today = LocalDate.now();
+        int stored = 0;
+        for (Map.Entry<LocalDate, Map<Long, Counters>> period : periods.entrySet()) {
+            if (periodEnd(period.getKey(), granularity).isBefore(today) && !cache.containsKey(period.getKey())
+                    && evictions.get() == evictionsBefore) {
+                cache.put(period.getKey(), Collections.unmodifiableMap(period.getValue()));
+                stored++;
+            }
+        }
+        if (stored > 0) {
+            logger.debug("Cached {} closed {} periods from {}", stored, granularity, first);
+        }
+        return periods;
+    }
+
+    // One streaming pass over the appointments of [fromDate, toDate] (whole periods)
+    private Map<LocalDate, Map<Long, Counters>> scan(LocalDate fromDate, LocalDate toDate, Granularity granularity) {
+        Map<LocalDate, Map<Long, Counters>> periods = new TreeMap<>();
+        for (LocalDate start = fromDate; !start.isAfter(toDate); start = nextPeriod(start, granularity)) {
+            periods.put(start, new HashMap<>());
+        }
+        try (Stream<Object[]> rows = appointmentRepository.streamForAnalytics(fromDate, toDate)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Long doctorId = (Long) row[0];
+                LocalDate date = (LocalDate) row[1];
+                periods.get(periodStart(date, granularity))
+                    .computeIfAbsent(doctorId, id -> new Counters())
+                    .add((LocalTime) row[2], (LocalTime) row[3], (String) row[4]);
+            }
+        }
+        return periods;
+    }
+
+    // Group one period's per-doctor counters. A doctor adds capacity when currently available or booked in the period.
+    private List<UtilizationRow> rollUp(LocalDate start, Granularity granularity, GroupBy groupBy,
+                                        Map<Long, Counters> byDoctor, Map<Long, DoctorSummary> doctors) {
+        LocalDate end = periodEnd(start, granularity);
+        long doctorCapacity = workingDaysBetween(start, end) * capacityMinutesPerDay;
+
+        Set<Long> counted = new HashSet<>(byDoctor.keySet());
+        for (DoctorSummary doctor : doctors.values()) {
+            if (doctor.isAvailable()) {
+                counted.add(doctor.getId());
+            }
+        }
+
+        Map<String, Group> groups = new HashMap<>();
+        for (Long doctorId : counted) {
+            DoctorSummary doctor = doctors.get(doctorId);
+            String key;
+            String label;
+            if (doctor == null) {
+                // Appointments of a deleted doctor
+                key = label = "Unknown";
+            } else if (groupBy == GroupBy.DOCTOR) {
+                key = doctorId.toString();
+                label = doctor.getName();
+            } else {
+                key = label = groupBy == GroupBy.SPECIALITY ? doctor.getSpeciality() : doctor.getLocation();
+            }
+            Group group = groups.computeIfAbsent(key, k -> new Group(label, groupBy == GroupBy.DOCTOR && doctor != null ? doctorId : null));
+            if (doctor != null) {
+                group.doctors++;
+            }
+            Counters counters = byDoctor.get(doctorId);
+            if (counters != null) {
+                group.counters.add(counters);
+            }
+        }
+
+        return groups.values().stream()
+            .sorted(Comparator.comparing((Group group) -> group.label, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+            .map(group -> new UtilizationRow(start, end, group.label, group.doctorId, group.doctors,
+                group.counters.appointments, group.counters.cancelled, group.counters.noShows, group.counters.completed,
+                group.counters.bookedMinutes, group.doctors * doctorCapacity))
+            .collect(Collectors.toList());
+    }
+
+    private long workingDaysBetween(LocalDate start, LocalDate end) {
+        long days = 0;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (workingDays.contains(date.getDayOfWeek())) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    private static LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return granularity == Granularity.WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    private static LocalDate periodEnd(LocalDate start, Granularity granularity) {
+        return granularity == Granularity.WEEK ? start.plusDays(6) : start;
+    }
+
+    private static LocalDate nextPeriod(LocalDate start, Granularity granularity) {
+        return granularity == Granularity.WEEK ? start.plusWeeks(1) : start.plusDays(1);
+    }
+
+    // Running totals of one doctor (or group) in one period
+    private static class Counters {
+        long appointments;
+        long cancelled;
+        long noShows;
+        long completed;
+        long bookedMinutes;
+
+        void add(LocalTime startTime, LocalTime endTime, String status) {
+            appointments++;
+            if ("CANCELLED".equals(status)) {
+                cancelled++;
+                return;
+            }
+            if ("NO_SHOW".equals(status)) {
+                noShows++;
+            } else if ("COMPLETED".equals(status)) {
+                completed++;
+            }
+            // A no-show still held the slot, so it counts towards occupancy
+            bookedMinutes += Duration.between(startTime, endTime).toMinutes();
+        }
+
+        void add(Counters other) {
+            appointments += other.appointments;
+            cancelled += other.cancelled;
+            noShows += other.noShows;
+            completed += other.completed;
+            bookedMinutes += other.bookedMinutes;
+        }
+    }
+
+    private static class Group {
+        final String label;
+        final Long doctorId;
+        final Counters counters = new Counters();
+        int doctors;
+
+        Group(String label, Long doctorId) {
+            this.label = label;
+            this.doctorId = doctorId;
+        }
+    }
+}
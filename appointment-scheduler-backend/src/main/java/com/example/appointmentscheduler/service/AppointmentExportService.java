@@ -0,0 +1,225 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.utils.CsvWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes appointments straight from a forward-only JDBC cursor to an output stream, as CSV or
+ * NDJSON (one JSON object per line). Rows are fetched export.fetch-size at a time inside a read-only
+ * transaction (PostgreSQL only uses a cursor when auto-commit is off) and never collected, so memory
+ * stays flat however many rows there are, and the output is flushed every export.flush-rows rows.
+ *
+ * Rows come in table order (no ORDER BY, so the database does not have to sort the whole history
+ * before sending the first row); every row carries its id and date for sorting downstream.
+ */
+@Service
+public class AppointmentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentExportService.class);
+
+    public enum Format {
+        CSV("text/csv"), NDJSON("application/x-ndjson");
+
+        private final MediaType mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+        }
+
+        public MediaType getMediaType() { return mediaType; }
+
+        public String getExtension() { return name().toLowerCase(); }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value + " (csv or ndjson)");
+            }
+        }
+    }
+
+    private static final String[] COLUMNS = {
+        "id", "patient_id", "doctor_id", "appointment_date", "start_time", "end_time", "status",
+        "reason_for_visit", "additional_notes", "series_id", "created_at", "updated_at"
+    };
+
+    private static final String SELECT = "SELECT " + String.join(", ", COLUMNS) + " FROM appointments";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${export.flush-rows:1000}")
+    private int flushRows;
+
+    /**
+     * Write the appointments matching the filters (each optional) and return how many were written.
+     * Fails with an UncheckedIOException (after rolling back and closing the cursor) when the client
+     * goes away mid-stream.
+     */
+    public long export(Format format, LocalDate fromDate, LocalDate toDate, Long doctorId, OutputStream out) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        String separator = " WHERE ";
+        if (fromDate != null) {
+            sql.append(separator).append("appointment_date >= ?");
+            args.add(fromDate);
+            separator = " AND ";
+        }
+        if (toDate != null) {
+            sql.append(separator).append("appointment_date <= ?");
+            args.add(toDate);
+            separator = " AND ";
+        }
+        if (doctorId != null) {
+            sql.append(separator).append("doctor_id = ?");
+            args.add(doctorId);
+        }
+
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(fetchSize);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        long started = System.currentTimeMillis();
+        long[] written = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            // Headers go out before the query runs, so the client sees the response start at once
+            writer.flush();
+            readOnly.executeWithoutResult(status -> cursor.query(sql.toString(), resultSet -> {
+                try {
+                    rows.write(resultSet);
+                    if (++written[0] % flushRows == 0) {
+                        rows.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray()));
+            rows.flush();
+        } catch (IOException e) {
+            logger.info("Export as {} aborted after {} appointments: {}", format, written[0], e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (UncheckedIOException e) {
+            logger.info("Export as {} aborted after {} appointments: {}", format, written[0], e.getMessage());
+            throw e;
+        }
+        logger.info("Exported {} appointments as {} in {} ms", written[0], format, System.currentTimeMillis() - started);
+        return written[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void flush() throws IOException;
+    }
+
+    // RFC 4180: header line, then one record per row
+    private static class CsvRowWriter implements RowWriter {
+        private final CsvWriter csv;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.csv = new CsvWriter(writer);
+            for (String column : COLUMNS) {
+                csv.field(column);
+            }
+            csv.endRecord();
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                csv.field(text(resultSet, i + 1));
+            }
+            csv.endRecord();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            csv.flush();
+        }
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            // Lines are ended explicitly below; no separator between root values
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                // Ids as numbers, everything else as text (ISO dates and times)
+                if (i < 3) {
+                    generator.writeNumberField(COLUMNS[i], resultSet.getLong(i + 1));
+                } else {
+                    generator.writeStringField(COLUMNS[i], text(resultSet, i + 1));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    // Column as text: dates and times in ISO format, null stays null
+    static String text(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().toString();
+        }
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime().toString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.controller.AppointmentController.SeriesRequest;
+import com.example.appointmentscheduler.datasource.ReplicaStickiness;
+import com.example.appointmentscheduler.dto.SeriesOccurrence;
+import com.example.appointmentscheduler.model.Appointment;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.model.RecurrenceRule;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
+import com.example.appointmentscheduler.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring appointment series (e.g. weekly physiotherapy): the same doctor and time on every date
+ * of a RecurrenceRule. The whole series is checked against the doctor's occupancy rows with one range
+ * query and booked with JDBC batch inserts (appointments and their slots) in one transaction, instead
+ * of a conflict query and two inserts per occurrence.
+ */
+@Service
+public class AppointmentSeriesService {
+
+    public static final String SKIP_CONFLICTS = "SKIP_CONFLICTS";
+    public static final String ALL_OR_NOTHING = "ALL_OR_NOTHING";
+
+    private static final String INSERT_APPOINTMENT =
+        "INSERT INTO appointments (patient_id, doctor_id, appointment_date, start_time, end_time, " +
+        "reason_for_visit, additional_notes, status, created_at, series_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOKING =
+        "INSERT INTO doctor_booking (doctor_id, booking_date, start_time, end_time, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaStickiness replicaStickiness;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Expand the series and mark which dates are free, without booking anything (preview)
+     */
+    @Transactional(readOnly = true)
+    public List<SeriesOccurrence> planSeries(SeriesRequest request) {
+        return planSeries(request, false);
+    }
+
+    // lock: take the doctor's day locks first, so the plan stays valid until the transaction ends
+    private List<SeriesOccurrence> planSeries(SeriesRequest request, boolean lock) {
+        if (request.getDoctorId() == null || request.getPatientId() == null) {
+            throw new IllegalArgumentException("Doctor and patient are required");
+        }
+        LocalDate firstDate;
+        try {
+            firstDate = LocalDate.parse(request.getFirstDate());
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid first date: " + request.getFirstDate());
+        }
+        if (firstDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("First date must not be in the past");
+        }
+        TimeSlot slot = TimeSlot.parse(request.getStartTime(), request.getEndTime());
+        RecurrenceRule rule = RecurrenceRule.of(request.getFrequency(), request.getInterval(),
+            request.getCount(), request.getUntil());
+        List<LocalDate> dates = rule.occurrences(firstDate);
+
+        if (lock) {
+            occupancyService.lockDays(request.getDoctorId(), dates);
+        }
+        Set<LocalDate> booked = occupancyService.findBookedDates(request.getDoctorId(), dates, slot.getStart(), slot.getEnd());
+
+        List<SeriesOccurrence> occurrences = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            occurrences.add(new SeriesOccurrence(date, slot.getStart(), slot.getEnd(), !booked.contains(date)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Book every free date of the series. With ALL_OR_NOTHING any taken date fails the whole series
+     * (IllegalStateException, nothing booked); with SKIP_CONFLICTS (the default) taken dates are left out.
+     * Returns all occurrences, with the appointment set on the booked ones.
+     */
+    @Transactional
+    public List<SeriesOccurrence> bookSeries(SeriesRequest request) {
+        String policy = request.getConflictPolicy() != null ? request.getConflictPolicy().trim().toUpperCase() : SKIP_CONFLICTS;
+        if (!SKIP_CONFLICTS.equals(policy) && !ALL_OR_NOTHING.equals(policy)) {
+            throw new IllegalArgumentException("Unknown conflict policy: " + request.getConflictPolicy());
+        }
+        if (request.getReasonForVisit() == null || request.getReasonForVisit().trim().isEmpty()) {
+            throw new IllegalArgumentException("Reason for visit is required");
+        }
+        List<SeriesOccurrence> occurrences = planSeries(request, true);
+        List<SeriesOccurrence> free = occurrences.stream()
+            .filter(SeriesOccurrence::isAvailable)
+            .collect(Collectors.toList());
+
+        if (ALL_OR_NOTHING.equals(policy) && free.size() < occurrences.size()) {
+            String taken = occurrences.stream()
+                .filter(occurrence -> !occurrence.isAvailable())
+                .map(occurrence -> occurrence.getDate().toString())
+                .collect(Collectors.joining(", "));
+            throw new IllegalStateException("The slot is already booked on " + taken);
+        }
+        if (free.isEmpty()) {
+            throw new IllegalStateException("The slot is already booked on every date of the series");
+        }
+
+        BookingEvents.BookingCommit commit = new BookingEvents.BookingCommit();
+        commit.begin();
+        commit.doctorId = request.getDoctorId();
+        String seriesId = UUID.randomUUID().toString();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String status = request.getStatus() != null ? request.getStatus() : "CONFIRMED";
+        try {
+            jdbcTemplate.batchUpdate(INSERT_APPOINTMENT, free, free.size(), (statement, occurrence) -> {
+                statement.setLong(1, request.getPatientId());
+                statement.setLong(2, request.getDoctorId());
+                statement.setDate(3, Date.valueOf(occurrence.getDate()));
+                statement.setTime(4, Time.valueOf(occurrence.getStartTime()));
+                statement.setTime(5, Time.valueOf(occurrence.getEndTime()));
+                statement.setString(6, request.getReasonForVisit().trim());
+                statement.setString(7, request.getAdditionalNotes());
+                statement.setString(8, status);
+                statement.setTimestamp(9, now);
+                statement.setString(10, seriesId);
+            });
+            jdbcTemplate.batchUpdate(INSERT_BOOKING, free, free.size(), (statement, occurrence) -> {
+                statement.setLong(1, request.getDoctorId());
+                statement.setDate(2, Date.valueOf(occurrence.getDate()));
+                statement.setTime(3, Time.valueOf(occurrence.getStartTime()));
+                statement.setTime(4, Time.valueOf(occurrence.getEndTime()));
+                statement.setTimestamp(5, now);
+            });
+            occupancyService.recordBookings(request.getDoctorId(),
+                free.stream().map(SeriesOccurrence::getDate).collect(Collectors.toList()),
+                free.get(0).getStartTime(), free.get(0).getEndTime());
+        } catch (RuntimeException e) {
+            commit.finish("failed");
+            throw e;
+        }
+
+        // Both lists are in date order, one appointment per free date
+        Iterator<Appointment> appointments = appointmentRepository.findBySeriesIdOrderByAppointmentDateAsc(seriesId).iterator();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (SeriesOccurrence occurrence : free) {
+            Appointment appointment = appointments.next();
+            occurrence.setAppointment(appointment);
+            events.add(OutboxEvent.appointment(OutboxEvent.Type.APPOINTMENT_BOOKED, appointment));
+            events.add(OutboxEvent.slot(OutboxEvent.Type.SLOT_BOOKED, request.getDoctorId(), occurrence.getDate(),
+                occurrence.getStartTime(), occurrence.getEndTime()));
+        }
+        outboxService.recordAll(events);
+        commit.appointmentId = free.get(0).getAppointment().getId();
+        commit.finish(commit.isEnabled() ? "series:" + free.size() : null);
+        replicaStickiness.recordWrite(request.getPatientId());
+        return occurrences;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.appointmentscheduler.service;
 
 import com.example.appointmentscheduler.controller.AppointmentController.BookingRequest;
+import com.example.appointmentscheduler.datasource.ReplicaStickiness;
 import com.example.appointmentscheduler.model.Appointment;
 import com.example.appointmentscheduler.model.DoctorBooking;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
 import com.example.appointmentscheduler.repository.AppointmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -10,8 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AppointmentService {
@@ -22,13 +30,29 @@ public class AppointmentService {
     @Autowired
     private DoctorBookingService doctorBookingService;
 
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private PartitionService partitionService;
+
+    @Autowired
+    private ReplicaStickiness replicaStickiness;
+
+    @Autowired
+    private OutboxService outboxService;
+
     @Transactional
     public Appointment createAppointment(BookingRequest request) {
+        BookingEvents.BookingCommit commit = new BookingEvents.BookingCommit();
+        commit.begin();
+        commit.doctorId = request.getDoctorId() != null ? request.getDoctorId() : 0;
         try {
             // Parse date and times
             LocalDate appointmentDate = LocalDate.parse(request.getAppointmentDate());
-            LocalTime startTime = parseTime(request.getStartTime());
-            LocalTime endTime = parseTime(request.getEndTime());
+            TimeSlot slot = TimeSlot.parse(request.getStartTime(), request.getEndTime());
+            LocalTime startTime = slot.getStart();
+            LocalTime endTime = slot.getEnd();
 
             // Check if the time slot is still available
             if (!doctorBookingService.isTimeSlotAvailable(request.getDoctorId(), appointmentDate, startTime, endTime)) {
@@ -57,50 +81,120 @@ public class AppointmentService {
                 startTime,
                 endTime
             );
+            outboxService.record(OutboxEvent.appointment(OutboxEvent.Type.APPOINTMENT_BOOKED, savedAppointment));
 
+            commit.appointmentId = savedAppointment.getId();
+            commit.finish("booked");
+            replicaStickiness.recordWrite(request.getPatientId());
             return savedAppointment;
 
         } catch (Exception e) {
+            commit.finish("failed");
             throw new RuntimeException("Failed to create appointment: " + e.getMessage(), e);
         }
     }
 
-    public List<Appointment> getAppointmentsByPatientId(Long patientId) {
-        return appointmentRepository.findByPatientIdOrderByAppointmentDateDesc(patientId);
+    /**
+     * Cancel an appointment and free its slot in the same transaction, so the slot is bookable
+     * again as soon as this commits
+     */
+    @Transactional
+    public Appointment cancelAppointment(Long appointmentId) {
+        Appointment appointment = findChangeable(appointmentId);
+        doctorBookingService.releaseBooking(appointment.getDoctorId(), appointment.getAppointmentDate(),
+            appointment.getStartTime(), appointment.getEndTime());
+        appointment.setStatus("CANCELLED");
+        outboxService.record(OutboxEvent.appointment(OutboxEvent.Type.APPOINTMENT_CANCELLED, appointment));
+        replicaStickiness.recordWrite(appointment.getPatientId());
+        return appointment;
     }
 
-    public List<Appointment> getAppointmentsByDoctorId(Long doctorId) {
-        return appointmentRepository.findByDoctorIdOrderByAppointmentDateDesc(doctorId);
+    /**
+     * Move an appointment to another date/time with the same doctor. The old slot is released and
+     * the new one booked in one transaction: if the new slot is taken, everything rolls back and
+     * the appointment keeps its old slot. The old slot is released first, so the new slot may
+     * overlap it (e.g. moving 30 minutes later).
+     */
+    @Transactional
+    public Appointment rescheduleAppointment(Long appointmentId, String date, String startTime, String endTime) {
+        Appointment appointment = findChangeable(appointmentId);
+        LocalDate newDate;
+        try {
+            newDate = LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        TimeSlot slot = TimeSlot.parse(startTime, endTime);
+
+        BookingEvents.BookingCommit commit = new BookingEvents.BookingCommit();
+        commit.begin();
+        commit.doctorId = appointment.getDoctorId();
+        commit.appointmentId = appointmentId;
+        try {
+            // Both days up front and in date order, so two reschedules between the same days cannot deadlock
+            occupancyService.lockDays(appointment.getDoctorId(), List.of(appointment.getAppointmentDate(), newDate));
+            doctorBookingService.releaseBooking(appointment.getDoctorId(), appointment.getAppointmentDate(),
+                appointment.getStartTime(), appointment.getEndTime());
+            if (!doctorBookingService.isTimeSlotAvailable(appointment.getDoctorId(), newDate, slot.getStart(), slot.getEnd())) {
+                throw new IllegalStateException("The selected time slot is no longer available");
+            }
+            doctorBookingService.createBooking(appointment.getDoctorId(), newDate, slot.getStart(), slot.getEnd());
+        } catch (RuntimeException e) {
+            commit.finish("failed");
+            throw e;
+        }
+        appointment.setAppointmentDate(newDate);
+        appointment.setStartTime(slot.getStart());
+        appointment.setEndTime(slot.getEnd());
+        outboxService.record(OutboxEvent.appointment(OutboxEvent.Type.APPOINTMENT_RESCHEDULED, appointment));
+        commit.finish("rescheduled");
+        replicaStickiness.recordWrite(appointment.getPatientId());
+        return appointment;
     }
 
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAllByOrderByAppointmentDateDesc();
+    // Lock the appointment row so two changes to the same appointment cannot both release its slot
+    private Appointment findChangeable(Long appointmentId) {
+        Appointment appointment = appointmentRepository.findByIdForUpdate(appointmentId)
+            .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+        if ("CANCELLED".equals(appointment.getStatus()) || "COMPLETED".equals(appointment.getStatus())) {
+            throw new IllegalStateException("Appointment is already " + appointment.getStatus().toLowerCase());
+        }
+        return appointment;
+    }
+
+    public List<Appointment> getAppointmentsByPatientId(Long patientId) {
+        return appointmentRepository.findByPatientIdOrderByAppointmentDateDesc(patientId);
     }
 
     /**
-     * Parse time string like "09:00 AM" into LocalTime
+     * A patient's appointments dated within [fromDate, toDate], newest first: the live partitions of the
+     * range plus months already moved to the archive
      */
-    private LocalTime parseTime(String timeStr) {
-        // Expected format: "09:00 AM" or "09:00 PM"
-        String[] parts = timeStr.split(" ");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid time format: " + timeStr);
+    @Transactional(readOnly = true)
+    public List<Appointment> getPatientHistory(Long patientId, LocalDate fromDate, LocalDate toDate) {
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("The end date must not be before the start date");
         }
-
-        String timePart = parts[0];
-        String amPm = parts[1];
-
-        String[] timeParts = timePart.split(":");
-        int hour = Integer.parseInt(timeParts[0]);
-        int minute = Integer.parseInt(timeParts[1]);
-
-        // Convert to 24-hour format
-        if ("PM".equals(amPm) && hour != 12) {
-            hour += 12;
-        } else if ("AM".equals(amPm) && hour == 12) {
-            hour = 0;
+        // Keyed by id: a month being archived can briefly be both in the archive and in the table
+        Map<Long, Appointment> history = new HashMap<>();
+        for (Appointment appointment : partitionService.readArchivedAppointments(patientId, fromDate, toDate)) {
+            history.put(appointment.getId(), appointment);
+        }
+        for (Appointment appointment : appointmentRepository
+                .findByPatientIdAndAppointmentDateBetweenOrderByAppointmentDateDescStartTimeDesc(patientId, fromDate, toDate)) {
+            history.put(appointment.getId(), appointment);
         }
+        List<Appointment> appointments = new ArrayList<>(history.values());
+        appointments.sort(Comparator.comparing(Appointment::getAppointmentDate)
+            .thenComparing(Appointment::getStartTime).reversed());
+        return appointments;
+    }
+
+    public List<Appointment> getAppointmentsByDoctorId(Long doctorId) {
+        return appointmentRepository.findByDoctorIdOrderByAppointmentDateDesc(doctorId);
+    }
 
-        return LocalTime.of(hour, minute);
+    public List<Appointment> getAllAppointments() {
+        return appointmentRepository.findAllByOrderByAppointmentDateDesc();
     }
 }
@@ -1,35 +1,48 @@
 package com.example.appointmentscheduler.service;
 
+import com.example.appointmentscheduler.controller.AppointmentController.BookingRequest;
 import com.example.appointmentscheduler.dto.BookingConversationState;
 import com.example.appointmentscheduler.dto.ChatMessage;
 import com.example.appointmentscheduler.dto.ChatRequest;
 import com.example.appointmentscheduler.dto.ChatResponse;
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.model.Appointment;
-import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
 import com.example.appointmentscheduler.model.User;
-import com.example.appointmentscheduler.repository.AppointmentRepository;
 import com.example.appointmentscheduler.repository.DoctorRepository;
 import com.example.appointmentscheduler.repository.UserRepository;
 import com.example.appointmentscheduler.utils.BookingSteps;
 import com.example.appointmentscheduler.utils.ChatIntents;
+import com.example.appointmentscheduler.utils.FuzzyMatcher;
+import com.example.appointmentscheduler.utils.SymptomKeywords;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 @Service
 public class ConversationalBookingService {
     
@@ -45,7 +58,27 @@ public class ConversationalBookingService {
     private UserRepository userRepository;
     
     @Autowired
-    private AppointmentRepository appointmentRepository;
+    private AppointmentService appointmentService;
+    
+    @Autowired
+    private DoctorRanker doctorRanker;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Maximum number of doctors carried into the booking conversation
+    @Value("${ranking.recommendation.limit:20}")
+    private int recommendationLimit;
+    
+    // Conversations without a message for this long are dropped and counted as abandoned
+    @Value("${booking.conversation.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+    
+    // Chat messages needed per completed booking
+    private DistributionSummary bookingTurns;
     
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -59,37 +92,68 @@ public class ConversationalBookingService {
         "02:00 PM - 03:00 PM", "03:00 PM - 04:00 PM", "04:00 PM - 05:00 PM"
     );
     
+    // Typo-tolerant fallback for time slot replies (trigram index built once)
+    private final FuzzyMatcher timeSlotMatcher = FuzzyMatcher.forTimeSlots(timeSlots);
+    
+    @PostConstruct
+    public void registerMetrics() {
+        bookingTurns = DistributionSummary.builder("booking.conversation.turns")
+            .description("Chat messages from the first symptom message to a confirmed booking")
+            .baseUnit("messages")
+            .register(meterRegistry);
+        Gauge.builder("booking.conversation.sessions.active", conversationStates, Map::size)
+            .description("Booking conversations in progress")
+            .register(meterRegistry);
+    }
+    
     public ChatResponse processBookingConversation(String message, String userId) {
-        logger.info("[ConversationalBooking] Processing message: '{}' for user: '{}'", message, userId);
-        
+        long started = System.nanoTime();
+        BookingConversationState state = conversationStates.getOrDefault(userId, new BookingConversationState(userId));
+        String step = state.getStep();
+        // userId and step go on every event logged during this turn (JSON fields in the prod profile)
+        MDC.put("userId", userId);
+        MDC.put("step", step);
+        logger.debug("[ConversationalBooking] Processing message: '{}'", message);
+        
+        ChatResponse response;
         try {
-            BookingConversationState state = conversationStates.getOrDefault(userId, new BookingConversationState(userId));
-            logger.info("[ConversationalBooking] Current step: {}", state.getStep());
-            
-            switch (state.getStep()) {
-                case BookingSteps.SYMPTOMS:
-                    logger.info("[ConversationalBooking] Handling symptoms step");
-                    return handleSymptomsStep(message, state);
-                case BookingSteps.LOCATION:
-                    logger.info("[ConversationalBooking] Handling location step");
-                    return handleLocationStep(message, state);
-                case BookingSteps.DATE:
-                    logger.info("[ConversationalBooking] Handling date step");
-                    return handleDateStep(message, state);
-                case BookingSteps.TIME:
-                    logger.info("[ConversationalBooking] Handling time step");
-                    return handleTimeStep(message, state);
-                case BookingSteps.REASON:
-                    logger.info("[ConversationalBooking] Handling reason step");
-                    return handleReasonStep(message, state);
-                default:
-                    logger.info("[ConversationalBooking] Default case - handling symptoms step");
-                    return handleSymptomsStep(message, state);
-            }
+            state.setTurnCount(state.getTurnCount() + 1);
+            state.setLastActivityMillis(System.currentTimeMillis());
+            response = handleStep(message, state);
         } catch (Exception e) {
             logger.error("Error in booking conversation", e);
-            conversationStates.remove(userId);
-            return createErrorResponse("Something went wrong. Let's start over. Please describe your symptoms.");
+            endConversation(userId, "error");
+            response = createErrorResponse("Something went wrong. Let's start over. Please describe your symptoms.");
+        }
+        
+        try {
+            // One event per turn instead of one per step; the message text stays at DEBUG
+            logger.info("[ConversationalBooking] Turn handled {} {} {}",
+                kv("intent", response.getIntent()),
+                kv("success", response.isSuccess()),
+                kv("latencyMs", Math.round((System.nanoTime() - started) / 100_000.0) / 10.0));
+        } finally {
+            MDC.remove("userId");
+            MDC.remove("step");
+        }
+        return response;
+    }
+    
+    private ChatResponse handleStep(String message, BookingConversationState state) {
+        switch (state.getStep()) {
+            case BookingSteps.SYMPTOMS:
+                return handleSymptomsStep(message, state);
+            case BookingSteps.LOCATION:
+                return handleLocationStep(message, state);
+            case BookingSteps.DATE:
+                return handleDateStep(message, state);
+            case BookingSteps.TIME:
+                return handleTimeStep(message, state);
+            case BookingSteps.REASON:
+                return handleReasonStep(message, state);
+            default:
+                logger.debug("[ConversationalBooking] Unknown step '{}', handling as symptoms", state.getStep());
+                return handleSymptomsStep(message, state);
         }
     }
     
@@ -97,14 +161,16 @@ public class ConversationalBookingService {
      * Start booking conversation with pre-analyzed symptoms and recommended doctors
      * This method is called when user has already provided symptoms to AI agent
      */
-    public ChatResponse startBookingWithSymptoms(String originalSymptoms, List<Doctor> recommendedDoctors, String userId) {
+    public ChatResponse startBookingWithSymptoms(String originalSymptoms, List<DoctorSummary> recommendedDoctors, String userId) {
         try {
             // Create new conversation state with pre-analyzed data
             BookingConversationState state = new BookingConversationState(userId, originalSymptoms, recommendedDoctors);
+            // Already two turns: the symptom message and the booking request
+            state.setTurnCount(2);
             
             // Extract unique locations from recommended doctors
             Set<String> locationSet = recommendedDoctors.stream()
-                .map(Doctor::getLocation)
+                .map(DoctorSummary::getLocation)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
             
@@ -113,6 +179,7 @@ public class ConversationalBookingService {
             
             // Store the state
             conversationStates.put(userId, state);
+            countTransition(BookingSteps.SYMPTOMS, BookingSteps.LOCATION);
             
             // Generate location selection message
             String locationOptions = locations.stream()
@@ -144,7 +211,7 @@ public class ConversationalBookingService {
     private ChatResponse handleSymptomsStep(String message, BookingConversationState state) {
         try {
             // Call AI service directly to analyze symptoms
-            List<Doctor> recommendedDoctors = analyzeSymptoms(message);
+            List<DoctorSummary> recommendedDoctors = analyzeSymptoms(message, state.getUserId());
             
             if (recommendedDoctors != null && !recommendedDoctors.isEmpty()) {
                 state.setSymptoms(message);
@@ -152,13 +219,13 @@ public class ConversationalBookingService {
                 
                 // Extract unique locations
                 Set<String> locationSet = recommendedDoctors.stream()
-                    .map(Doctor::getLocation)
+                    .map(DoctorSummary::getLocation)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toSet());
                 
                 List<String> locations = new ArrayList<>(locationSet);
                 state.setAvailableLocations(locations);
-                state.setStep(BookingSteps.LOCATION);
+                moveToStep(state, BookingSteps.LOCATION);
                 
                 conversationStates.put(state.getUserId(), state);
                 
@@ -210,6 +277,12 @@ public class ConversationalBookingService {
                     break;
                 }
             }
+            
+            // Fall back to the closest name within a few typos ("banglore" -> "Bangalore")
+            if (selectedLocation == null) {
+                selectedLocation = new FuzzyMatcher(state.getAvailableLocations()).match(message);
+                countFuzzyMatch(selectedLocation, BookingSteps.LOCATION);
+            }
         }
         
         if (selectedLocation == null) {
@@ -224,13 +297,13 @@ public class ConversationalBookingService {
         final String finalSelectedLocation = selectedLocation;
         
         // Filter doctors by location
-        List<Doctor> filteredDoctors = state.getRecommendedDoctors().stream()
+        List<DoctorSummary> filteredDoctors = state.getRecommendedDoctors().stream()
             .filter(doctor -> finalSelectedLocation.equals(doctor.getLocation()))
             .collect(Collectors.toList());
         
         state.setSelectedLocation(selectedLocation);
         state.setFilteredDoctors(filteredDoctors);
-        state.setStep(BookingSteps.DATE);
+        moveToStep(state, BookingSteps.DATE);
         
         conversationStates.put(state.getUserId(), state);
         
@@ -279,7 +352,7 @@ public class ConversationalBookingService {
         
         state.setSelectedDate(selectedDate);
         state.setAvailableTimeSlots(timeSlots);
-        state.setStep(BookingSteps.TIME);
+        moveToStep(state, BookingSteps.TIME);
         
         conversationStates.put(state.getUserId(), state);
         
@@ -327,6 +400,13 @@ public class ConversationalBookingService {
             }
         }
         
+        // Not a menu number or exact slot: try the start time with typos and loose formatting ("9am", "03:00 pn").
+        // Also covers bare hours that are not menu numbers ("10", "11").
+        if (selectedTimeSlot == null) {
+            selectedTimeSlot = timeSlotMatcher.match(message);
+            countFuzzyMatch(selectedTimeSlot, BookingSteps.TIME);
+        }
+        
         if (selectedTimeSlot == null) {
             String reply = "Please select a valid time slot:\\n";
             for (int i = 0; i < timeSlots.size(); i++) {
@@ -335,14 +415,21 @@ public class ConversationalBookingService {
             return createErrorResponse(reply);
         }
         
-        // Select the best doctor from filtered doctors (e.g., highest rated)
-        Doctor selectedDoctor = state.getFilteredDoctors().stream()
-            .max(Comparator.comparing(Doctor::getRating))
-            .orElse(state.getFilteredDoctors().get(0));
+        // Select the best doctor from filtered doctors (rating, experience, fee and proximity)
+        BookingEvents.DoctorLookup lookup = new BookingEvents.DoctorLookup();
+        lookup.begin();
+        if (lookup.isEnabled()) {
+            lookup.query = "best-in-location:" + state.getSelectedLocation();
+        }
+        DoctorSummary selectedDoctor = doctorRanker.topK(state.getFilteredDoctors(),
+            userService.findChatUser(state.getUserId()).orElse(null), 1).get(0);
+        lookup.found = state.getFilteredDoctors().size();
+        lookup.doctorId = selectedDoctor.getId();
+        lookup.finish("found");
         
         state.setSelectedTimeSlot(selectedTimeSlot);
         state.setSelectedDoctor(selectedDoctor);
-        state.setStep(BookingSteps.REASON);
+        moveToStep(state, BookingSteps.REASON);
         
         conversationStates.put(state.getUserId(), state);
         
@@ -388,7 +475,7 @@ public class ConversationalBookingService {
                 if (guestOpt.isPresent()) {
                     patient = guestOpt.get();
                 } else {
-                    conversationStates.remove(state.getUserId());
+                    endConversation(state.getUserId(), "error");
                     return createErrorResponse("Guest user not found. Please register for full booking functionality.");
                 }
             } else {
@@ -398,48 +485,41 @@ public class ConversationalBookingService {
                     if (patientOpt.isPresent()) {
                         patient = patientOpt.get();
                     } else {
-                        conversationStates.remove(state.getUserId());
+                        endConversation(state.getUserId(), "error");
                         return createErrorResponse("User not found. Please log in again.");
                     }
                 } catch (NumberFormatException e) {
-                    conversationStates.remove(state.getUserId());
+                    endConversation(state.getUserId(), "error");
                     return createErrorResponse("Invalid user ID format.");
                 }
             }
             
             if (patient == null) {
-                conversationStates.remove(state.getUserId());
+                endConversation(state.getUserId(), "error");
                 return createErrorResponse("Unable to identify patient for booking.");
             }
             
-            // Parse time slot
-            String[] timeParts = state.getSelectedTimeSlot().split(" - ");
-            if (timeParts.length != 2) {
-                conversationStates.remove(state.getUserId());
-                return createErrorResponse("Invalid time slot format. Please try again.");
-            }
-            
-            // Parse times
-            LocalTime startTime = parseTime(timeParts[0].trim());
-            LocalTime endTime = parseTime(timeParts[1].trim());
+            // Selected slot is always one of the offered labels, so this resolves to a catalog instance
+            TimeSlot slot = TimeSlot.parse(state.getSelectedTimeSlot());
             
-            // Create appointment using constructor
-            Appointment appointment = new Appointment(
+            // Book through AppointmentService so the slot is checked and marked as taken,
+            // like bookings made from the form
+            BookingRequest request = new BookingRequest(
                 state.getSelectedDoctor().getId(),
                 patient.getId(),
-                state.getSelectedDate(),
-                startTime,
-                endTime,
+                state.getSelectedDate().toString(),
+                slot.getStart().toString(),
+                slot.getEnd().toString(),
                 state.getReason(),
                 null, // No additional notes from conversational booking
                 "CONFIRMED"
             );
-            
-            // Save appointment using the correct method
-            Appointment savedAppointment = appointmentRepository.save(appointment);
+            Appointment savedAppointment = appointmentService.createAppointment(request);
             
             // Clear conversation state
             conversationStates.remove(state.getUserId());
+            countTransition(BookingSteps.REASON, BookingSteps.COMPLETE);
+            bookingTurns.record(state.getTurnCount());
             
             // Create success response
             String successReply = String.format("✅ **Appointment Booked Successfully!**\\n\\n" +
@@ -476,7 +556,7 @@ public class ConversationalBookingService {
             
         } catch (Exception e) {
             logger.error("Error booking appointment", e);
-            conversationStates.remove(state.getUserId());
+            endConversation(state.getUserId(), "booking_failed");
             
             String errorReply = "❌ **Booking Failed**\\n\\n" +
                 "I'm sorry, there was an error booking your appointment. This could be due to:\\n" +
@@ -494,6 +574,51 @@ public class ConversationalBookingService {
         }
     }
     
+    private void moveToStep(BookingConversationState state, String step) {
+        countTransition(state.getStep(), step);
+        state.setStep(step);
+    }
+    
+    private void countTransition(String from, String to) {
+        meterRegistry.counter("booking.conversation.transitions", "from", from, "to", to).increment();
+        BookingEvents.StepTransition event = new BookingEvents.StepTransition();
+        event.begin();
+        event.step = from;
+        event.nextStep = to;
+        event.finish("advanced");
+    }
+    
+    /**
+     * Drop a conversation that did not end in a booking, counted by the step it stopped at
+     */
+    private void endConversation(String userId, String reason) {
+        BookingConversationState state = conversationStates.remove(userId);
+        if (state != null) {
+            meterRegistry.counter("booking.conversation.dropoffs", "step", state.getStep(), "reason", reason).increment();
+        }
+    }
+    
+    /**
+     * Evict conversations idle for longer than the timeout; they would otherwise stay in memory forever
+     */
+    @Scheduled(fixedDelayString = "${booking.conversation.sweep-interval-ms:60000}")
+    public void evictIdleConversations() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMinutes * 60_000;
+        for (BookingConversationState state : conversationStates.values()) {
+            if (state.getLastActivityMillis() < cutoff
+                    && conversationStates.remove(state.getUserId(), state)) {
+                meterRegistry.counter("booking.conversation.dropoffs", "step", state.getStep(), "reason", "abandoned")
+                    .increment();
+            }
+        }
+    }
+    
+    private void countFuzzyMatch(String resolved, String step) {
+        if (resolved != null) {
+            meterRegistry.counter("booking.conversation.fuzzy.matches", "step", step).increment();
+        }
+    }
+    
     private ChatResponse createErrorResponse(String message) {
         ChatResponse response = new ChatResponse();
         response.setReply(message);
@@ -503,7 +628,7 @@ public class ConversationalBookingService {
     }
     
     public void clearConversationState(String userId) {
-        conversationStates.remove(userId);
+        endConversation(userId, "cleared");
     }
     
     public boolean isInBookingConversation(String userId) {
@@ -515,123 +640,92 @@ public class ConversationalBookingService {
         return state != null ? state.getStep() : null;
     }
     
-    /**
-     * Parse time string like "09:00 AM" into LocalTime
-     */
-    private LocalTime parseTime(String timeStr) {
-        // Expected format: "09:00 AM" or "09:00 PM"
-        String[] parts = timeStr.split(" ");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid time format: " + timeStr);
-        }
-
-        String timePart = parts[0];
-        String amPm = parts[1];
-
-        String[] timeParts = timePart.split(":");
-        int hour = Integer.parseInt(timeParts[0]);
-        int minute = Integer.parseInt(timeParts[1]);
-
-        // Convert to 24-hour format
-        if ("PM".equals(amPm) && hour != 12) {
-            hour += 12;
-        } else if ("AM".equals(amPm) && hour == 12) {
-            hour = 0;
-        }
-
-        return LocalTime.of(hour, minute);
-    }
-    
     /**
      * Call AI service to analyze symptoms and return recommended doctors
      */
-    private List<Doctor> analyzeSymptoms(String symptoms) {
+    private List<DoctorSummary> analyzeSymptoms(String symptoms, String userId) {
         try {
-            // Create request for AI service
-            ChatMessage message = new ChatMessage("user", symptoms);
-            ChatRequest request = new ChatRequest(Arrays.asList(message), "system");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<ChatRequest> entity = new HttpEntity<>(request, headers);
-
-            // Call AI service
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                aiServiceUrl + "/chat", entity, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                // Parse AI response
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+            JsonNode jsonNode = callAiService(symptoms);
+            if (jsonNode != null) {
                 String aiReply = jsonNode.get("reply").asText();
 
                 // Extract specialties and conditions from AI response
-                List<String> specialties = extractSpecialties(aiReply);
-                List<String> conditions = extractConditions(symptoms);
+                BookingEvents.SymptomClassification classification = new BookingEvents.SymptomClassification();
+                classification.begin();
+                List<String> specialties = SymptomKeywords.extractSpecialties(aiReply);
+                List<String> conditions = SymptomKeywords.extractConditions(symptoms);
+                if (classification.isEnabled()) {
+                    classification.specialities = String.join(",", specialties);
+                }
+                classification.finish("ai_reply");
 
                 // Find doctors based on specialties
-                List<Doctor> allDoctors = doctorRepository.findAll();
-                return allDoctors.stream()
+                BookingEvents.DoctorLookup lookup = new BookingEvents.DoctorLookup();
+                lookup.begin();
+                if (lookup.isEnabled()) {
+                    lookup.query = "specialities:" + String.join(",", specialties);
+                }
+                List<DoctorSummary> allDoctors = doctorRepository.findAllSummaries();
+                List<DoctorSummary> matches = allDoctors.stream()
                     .filter(doctor -> matchesSymptoms(doctor, specialties, conditions))
                     .collect(Collectors.toList());
+                List<DoctorSummary> ranked = doctorRanker.topK(matches,
+                    userService.findChatUser(userId).orElse(null), recommendationLimit);
+                lookup.found = ranked.size();
+                lookup.finish(ranked.isEmpty() ? "none" : "found");
+                return ranked;
             }
         } catch (Exception e) {
             logger.error("Error calling AI service", e);
         }
         
         // Fallback: return general practitioners if AI service fails
-        return doctorRepository.findBySpecialityContainingIgnoreCase("General");
+        return doctorRepository.findSummariesBySpeciality("General");
     }
     
-    private List<String> extractSpecialties(String aiReply) {
-        // Simple keyword matching for specialties
-        List<String> specialties = new ArrayList<>();
-        String lowerReply = aiReply.toLowerCase();
-        
-        if (lowerReply.contains("heart") || lowerReply.contains("cardiac") || lowerReply.contains("cardiologist")) {
-            specialties.add("Cardiology");
-        }
-        if (lowerReply.contains("dermat") || lowerReply.contains("skin") || lowerReply.contains("rash")) {
-            specialties.add("Dermatology");
-        }
-        if (lowerReply.contains("neuro") || lowerReply.contains("brain") || lowerReply.contains("headache")) {
-            specialties.add("Neurology");
-        }
-        if (lowerReply.contains("ortho") || lowerReply.contains("bone") || lowerReply.contains("joint")) {
-            specialties.add("Orthopedics");
-        }
-        if (lowerReply.contains("pediatr") || lowerReply.contains("child") || lowerReply.contains("baby")) {
-            specialties.add("Pediatrics");
-        }
-        
-        // Default to general medicine if no specific specialty found
-        if (specialties.isEmpty()) {
-            specialties.add("General");
-        }
-        
-        return specialties;
-    }
-    
-    private List<String> extractConditions(String symptoms) {
-        List<String> conditions = new ArrayList<>();
-        String lowerSymptoms = symptoms.toLowerCase();
-        
-        if (lowerSymptoms.contains("fever") || lowerSymptoms.contains("temperature")) {
-            conditions.add("fever");
-        }
-        if (lowerSymptoms.contains("headache") || lowerSymptoms.contains("head pain")) {
-            conditions.add("headache");
-        }
-        if (lowerSymptoms.contains("cough") || lowerSymptoms.contains("cold")) {
-            conditions.add("respiratory");
-        }
-        if (lowerSymptoms.contains("stomach") || lowerSymptoms.contains("abdominal")) {
-            conditions.add("digestive");
+    /**
+     * POST the symptoms to the AI service's /chat, timed by outcome and returned intent.
+     * Returns the parsed body, or null if the service answered with a non-200 status or an unusable body.
+     */
+    private JsonNode callAiService(String symptoms) {
+        ChatMessage message = new ChatMessage("user", symptoms);
+        ChatRequest request = new ChatRequest(Arrays.asList(message), "system");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<ChatRequest> entity = new HttpEntity<>(request, headers);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BookingEvents.AiRequest event = new BookingEvents.AiRequest();
+        event.begin();
+        String outcome = "error";
+        JsonNode jsonNode = null;
+        try {
+            ResponseEntity<String> response = restTemplate.postForEntity(aiServiceUrl + "/chat", entity, String.class);
+            outcome = "http_error";
+            if (response.getStatusCode() == HttpStatus.OK) {
+                outcome = "invalid_response";
+                JsonNode body = objectMapper.readTree(response.getBody());
+                if (body != null && body.hasNonNull("reply")) {
+                    jsonNode = body;
+                    outcome = "success";
+                }
+            }
+            return jsonNode;
+        } catch (JsonProcessingException e) {
+            logger.error("Unreadable AI service response", e);
+            return null;
+        } finally {
+            String intent = jsonNode != null && jsonNode.hasNonNull("intent") ? jsonNode.get("intent").asText() : null;
+            sample.stop(meterRegistry.timer("ai.service.requests",
+                "operation", "symptom_analysis", "outcome", outcome, "intent", ChatIntents.forMetrics(intent)));
+            event.operation = "symptom_analysis";
+            event.intent = intent;
+            event.finish(outcome);
         }
-        
-        return conditions;
     }
     
-    private boolean matchesSymptoms(Doctor doctor, List<String> specialties, List<String> conditions) {
+    private boolean matchesSymptoms(DoctorSummary doctor, List<String> specialties, List<String> conditions) {
         // Match by specialty
         for (String specialty : specialties) {
             if (doctor.getSpeciality().toLowerCase().contains(specialty.toLowerCase())) {
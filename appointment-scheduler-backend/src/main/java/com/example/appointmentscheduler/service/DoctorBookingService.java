@@ -1,9 +1,14 @@
 package com.example.appointmentscheduler.service;
 
 import com.example.appointmentscheduler.model.DoctorBooking;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
 import com.example.appointmentscheduler.repository.DoctorBookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -15,34 +20,80 @@ public class DoctorBookingService {
     @Autowired
     private DoctorBookingRepository doctorBookingRepository;
 
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxService outboxService;
+
     /**
      * Check if a specific time slot is available for a doctor
      */
     public boolean isTimeSlotAvailable(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        List<DoctorBooking> conflicts = doctorBookingRepository.findConflictingBookings(
-            doctorId, date, startTime, endTime
-        );
-        return conflicts.isEmpty();
+        BookingEvents.AvailabilityCheck event = availabilityEvent(date, startTime);
+        event.doctorId = doctorId != null ? doctorId : 0;
+        boolean available = occupancyService.isAvailable(doctorId, date, startTime, endTime);
+        event.finish(available ? "available" : "conflict");
+        return available;
     }
 
     /**
      * Get all doctor IDs that are booked during a specific time slot
      */
     public List<Long> getBookedDoctorIds(LocalDate date, LocalTime startTime, LocalTime endTime) {
-        return doctorBookingRepository.findBookedDoctorIds(date, startTime, endTime);
+        BookingEvents.AvailabilityCheck event = availabilityEvent(date, startTime);
+        List<Long> booked = occupancyService.getBookedDoctorIds(date, startTime, endTime);
+        // Outcome only built when a recording wants the event
+        event.finish(event.isEnabled() ? booked.size() + " booked" : null);
+        return booked;
+    }
+    
+    private static BookingEvents.AvailabilityCheck availabilityEvent(LocalDate date, LocalTime startTime) {
+        BookingEvents.AvailabilityCheck event = new BookingEvents.AvailabilityCheck();
+        event.begin();
+        if (event.isEnabled()) {
+            event.date = String.valueOf(date);
+            event.startTime = String.valueOf(startTime);
+        }
+        return event;
     }
 
     /**
-     * Book a time slot for a doctor (create a booking record)
+     * Book a time slot for a doctor (create a booking record). Holds the doctor's day lock from the
+     * check until the transaction ends, so a concurrent booking of the same slot waits and then fails.
      */
+    @Transactional
     public DoctorBooking createBooking(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        occupancyService.lockDays(doctorId, List.of(date));
         // First check if the slot is available
         if (!isTimeSlotAvailable(doctorId, date, startTime, endTime)) {
             throw new IllegalStateException("Time slot is not available");
         }
         
         DoctorBooking booking = new DoctorBooking(doctorId, date, startTime, endTime);
-        return doctorBookingRepository.save(booking);
+        booking = doctorBookingRepository.save(booking);
+        occupancyService.recordBookings(doctorId, List.of(date), startTime, endTime);
+        outboxService.record(OutboxEvent.slot(OutboxEvent.Type.SLOT_BOOKED, doctorId, date, startTime, endTime));
+        return booking;
+    }
+
+    /**
+     * Free a doctor's booked time slot (on cancel or reschedule); returns false if it was not booked.
+     * Publishes a SlotReleasedEvent so the waitlist can offer the slot once this commits.
+     */
+    @Transactional
+    public boolean releaseBooking(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        occupancyService.lockDays(doctorId, List.of(date));
+        if (doctorBookingRepository.deleteSlot(doctorId, date, startTime, endTime) == 0) {
+            return false;
+        }
+        occupancyService.recordRelease(doctorId, date, startTime, endTime);
+        outboxService.record(OutboxEvent.slot(OutboxEvent.Type.SLOT_RELEASED, doctorId, date, startTime, endTime));
+        eventPublisher.publishEvent(new SlotReleasedEvent(doctorId, date, startTime, endTime));
+        return true;
     }
 
     /**
@@ -53,11 +104,16 @@ public class DoctorBookingService {
     }
 
     /**
-     * Helper method to parse time slot string (e.g., "14:00") and create end time (1 hour later)
+     * Helper method to parse time slot string (e.g., "14:00") and create end time (1 hour later).
+     * Throws IllegalArgumentException for a start at 11:00 PM or later, whose hour would run past midnight.
      */
     public LocalTime[] parseTimeSlot(String timeSlot) {
-        LocalTime startTime = LocalTime.parse(timeSlot);
-        LocalTime endTime = startTime.plusHours(1); // Assume 1-hour appointments
-        return new LocalTime[]{startTime, endTime};
+        int start = TimeSlot.parseTime(timeSlot);
+        if (start + 60 > TimeSlot.LAST_END_MINUTE) {
+            throw new IllegalArgumentException("A one-hour appointment must start before 11:00 PM: "
+                + TimeSlot.formatTime(start));
+        }
+        TimeSlot slot = TimeSlot.of(start, start + 60); // Assume 1-hour appointments
+        return new LocalTime[]{slot.getStart(), slot.getEnd()};
     }
 }
@@ -0,0 +1,351 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.controller.AdminController.AddDoctorRequest;
+import com.example.appointmentscheduler.dto.ImportReport;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.utils.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk doctor onboarding: reads CSV (header row naming AddDoctorRequest fields) or NDJSON (one
+ * AddDoctorRequest object per line) as a stream, validates each row with AddDoctorRequest.validate()
+ * and upserts the valid ones doctors.import.batch-size at a time, one transaction and two JDBC batches
+ * (inserts, updates) per chunk. A row whose email matches an existing doctor updates that doctor;
+ * any other row inserts a new one, so re-running an import file does not duplicate its doctors.
+ * An email repeated within a chunk is rejected; repeated in a later chunk it updates the doctor
+ * the earlier row wrote, so memory stays bounded by the chunk whatever the file size.
+ * Rejected rows are reported with their line number. Each chunk records one DOCTOR_CATALOG_RELOADED
+ * outbox event, so the spatial index is rebuilt per poll of the outbox rather than per doctor.
+ */
+@Service
+public class DoctorImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorImportService.class);
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown import format: " + value + " (csv or ndjson)");
+            }
+        }
+    }
+
+    private static final String INSERT_DOCTOR =
+        "INSERT INTO doctors (name, speciality, location, fees_per_hour, rating, available, experience, qualifications, " +
+        "about, contact_number, email, latitude, longitude, years_of_experience, review_count, rating_sum) " +
+        "VALUES (?, ?, ?, ?, ?, true, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0)";
+    // Same fields as PUT /api/admin/doctors/{id}, except that a missing rating keeps the review-based one;
+    // like DoctorService.saveDoctor, coordinates are re-geocoded and cleared when the gazetteer does not know the location
+    private static final String UPDATE_DOCTOR =
+        "UPDATE doctors SET name = ?, speciality = ?, location = ?, fees_per_hour = ?, rating = COALESCE(?, rating), " +
+        "experience = ?, qualifications = ?, about = ?, contact_number = ?, email = ?, " +
+        "latitude = ?, longitude = ? WHERE id = ?";
+
+    private static final BigDecimal DEFAULT_RATING = BigDecimal.valueOf(4.0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GazetteerService gazetteerService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${doctors.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${doctors.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final ObjectReader requestReader = new ObjectMapper().readerFor(AddDoctorRequest.class);
+
+    /**
+     * Import every row of the input. Throws IllegalArgumentException when the input as a whole is
+     * unusable (e.g. a CSV header without the required columns); rows imported before that stay imported.
+     */
+    public ImportReport importDoctors(Format format, InputStream input) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        Importer importer = new Importer(report);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, importer);
+            } else {
+                readNdjson(reader, importer);
+            }
+        } finally {
+            importer.flush();
+        }
+        report.setElapsedMs(System.currentTimeMillis() - started);
+        logger.info("Imported doctors: {} rows, {} inserted, {} updated, {} rejected in {} ms",
+            report.getRows(), report.getInserted(), report.getUpdated(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, Importer importer) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            columns.add(columnKey(name));
+        }
+        for (String required : List.of("name", "speciality", "location")) {
+            if (!columns.contains(required)) {
+                throw new IllegalArgumentException("The CSV header has no " + required + " column");
+            }
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            long line = csv.getRecordLine();
+            try {
+                if (fields.size() != columns.size()) {
+                    throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+                }
+                AddDoctorRequest request = new AddDoctorRequest();
+                for (int i = 0; i < columns.size(); i++) {
+                    setField(request, columns.get(i), fields.get(i).trim());
+                }
+                importer.add(line, request);
+            } catch (IllegalArgumentException e) {
+                importer.reject(line, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Importer importer) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                importer.add(line, requestReader.readValue(text));
+            } catch (JsonProcessingException e) {
+                importer.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // Header names are matched without case, spaces or underscores ("Fees Per Hour", "fees_per_hour")
+    private static String columnKey(String name) {
+        String key = name.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+        return key.equals("specialty") ? "speciality" : key;
+    }
+
+    private static void setField(AddDoctorRequest request, String column, String value) {
+        String text = value.isEmpty() ? null : value;
+        switch (column) {
+            case "name": request.setName(text); break;
+            case "speciality": request.setSpeciality(text); break;
+            case "location": request.setLocation(text); break;
+            case "feesperhour": request.setFeesPerHour(number("feesPerHour", text)); break;
+            case "rating": request.setRating(number("rating", text)); break;
+            case "experience": request.setExperience(text); break;
+            case "qualifications": request.setQualifications(text); break;
+            case "about": request.setAbout(text); break;
+            case "contactnumber": request.setContactNumber(text); break;
+            case "email": request.setEmail(text); break;
+            default: break; // Unknown columns are ignored
+        }
+    }
+
+    private static Double number(String field, String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + text);
+        }
+    }
+
+    // Collects valid rows and writes them a chunk at a time
+    private class Importer {
+        private final ImportReport report;
+        private final List<Row> chunk = new ArrayList<>(batchSize);
+        // Email -> line of its first row in the current chunk, so one chunk cannot create a doctor twice.
+        // Kept per chunk so memory does not grow with the file: a repeat in a later chunk finds the doctor
+        // its first row created by email and updates it.
+        private final Map<String, Long> emailLines = new HashMap<>();
+
+        Importer(ImportReport report) {
+            this.report = report;
+        }
+
+        void add(long line, AddDoctorRequest request) {
+            report.addRow();
+            List<String> problems = request.validate();
+            if (!problems.isEmpty()) {
+                report.addError(line, String.join("; ", problems));
+                return;
+            }
+            String email = request.getEmail() != null && !request.getEmail().isBlank() ? request.getEmail().trim() : null;
+            if (email != null) {
+                Long firstLine = emailLines.putIfAbsent(email, line);
+                if (firstLine != null) {
+                    report.addError(line, "email " + email + " already appears on line " + firstLine);
+                    return;
+                }
+            }
+            chunk.add(new Row(line, request, email, gazetteerService.lookup(request.getLocation())));
+            if (chunk.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            report.addRow();
+            report.addError(line, message);
+        }
+
+        void flush() {
+            emailLines.clear();
+            if (chunk.isEmpty()) {
+                return;
+            }
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            try {
+                transaction.executeWithoutResult(status -> write(chunk));
+            } catch (DataAccessException e) {
+                // The chunk rolled back as a whole
+                String message = "Not saved: " + e.getMostSpecificCause().getMessage();
+                for (Row row : chunk) {
+                    report.addError(row.line, message);
+                }
+                logger.warn("Doctor import chunk of {} rows starting on line {} failed: {}",
+                    chunk.size(), chunk.get(0).line, e.getMostSpecificCause().getMessage());
+            }
+            chunk.clear();
+        }
+
+        private void write(List<Row> rows) {
+            Map<String, Long> existing = findIdsByEmail(rows);
+            List<Row> inserts = new ArrayList<>();
+            List<Row> updates = new ArrayList<>();
+            for (Row row : rows) {
+                row.id = row.email != null ? existing.get(row.email) : null;
+                (row.id != null ? updates : inserts).add(row);
+            }
+            jdbcTemplate.batchUpdate(INSERT_DOCTOR, inserts, inserts.size(), (statement, row) -> {
+                setFields(statement, row);
+                // Same default as POST /api/admin/doctors
+                statement.setBigDecimal(5, row.request.getRating() != null ? BigDecimal.valueOf(row.request.getRating()) : DEFAULT_RATING);
+            });
+            jdbcTemplate.batchUpdate(UPDATE_DOCTOR, updates, updates.size(), (statement, row) -> {
+                setFields(statement, row);
+                statement.setLong(13, row.id);
+            });
+            // One event per chunk instead of one per doctor: consumers reload the catalog
+            outboxService.record(OutboxEvent.catalogReloaded());
+            report.addInserted(inserts.size());
+            report.addUpdated(updates.size());
+        }
+
+        // Existing doctors for the chunk's emails, with one idx_doctors_email lookup (the lowest id when an email is shared)
+        private Map<String, Long> findIdsByEmail(List<Row> rows) {
+            List<Object> emails = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.email != null) {
+                    emails.add(row.email);
+                }
+            }
+            if (emails.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<String, Long> ids = new HashMap<>();
+            String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+            jdbcTemplate.query("SELECT email, MIN(id) FROM doctors WHERE email IN (" + placeholders + ") GROUP BY email",
+                resultSet -> { ids.put(resultSet.getString(1), resultSet.getLong(2)); }, emails.toArray());
+            return ids;
+        }
+    }
+
+    // Parameters 1-12 of both statements (rating is set as given; inserts replace null with the default)
+    private static void setFields(PreparedStatement statement, Row row) throws SQLException {
+        AddDoctorRequest request = row.request;
+        statement.setString(1, request.getName().trim());
+        statement.setString(2, request.getSpeciality().trim());
+        statement.setString(3, request.getLocation().trim());
+        setDecimal(statement, 4, request.getFeesPerHour());
+        setDecimal(statement, 5, request.getRating());
+        statement.setString(6, request.getExperience());
+        statement.setString(7, request.getQualifications());
+        statement.setString(8, request.getAbout());
+        statement.setString(9, request.getContactNumber());
+        statement.setString(10, row.email);
+        if (row.point != null) {
+            statement.setDouble(11, row.point.getLatitude());
+            statement.setDouble(12, row.point.getLongitude());
+        } else {
+            statement.setNull(11, Types.DOUBLE);
+            statement.setNull(12, Types.DOUBLE);
+        }
+    }
+
+    private static void setDecimal(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value != null) {
+            statement.setBigDecimal(index, BigDecimal.valueOf(value));
+        } else {
+            statement.setNull(index, Types.NUMERIC);
+        }
+    }
+
+    private static class Row {
+        final long line;
+        final AddDoctorRequest request;
+        final String email;
+        final GeoPoint point;
+        Long id;
+
+        Row(long line, AddDoctorRequest request, String email, GeoPoint point) {
+            this.line = line;
+            this.request = request;
+            this.email = email;
+            this.point = point;
+        }
+    }
+}
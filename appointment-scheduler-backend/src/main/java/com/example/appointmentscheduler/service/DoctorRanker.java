@@ -0,0 +1,212 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Multi-criteria doctor ranking.
+ * Scores each candidate on rating, years of experience, fee and proximity to the patient
+ * (distance decay when both have coordinates, location name match otherwise),
+ * each normalized to [0, 1] and combined with configurable weights. Only the best K are
+ * kept, using a bounded min-heap, so ranking n candidates costs O(n log K) instead of a full sort.
+ */
+@Component
+public class DoctorRanker {
+
+    @Value("${ranking.weight.rating:0.4}")
+    private double ratingWeight;
+
+    @Value("${ranking.weight.experience:0.2}")
+    private double experienceWeight;
+
+    @Value("${ranking.weight.fee:0.2}")
+    private double feeWeight;
+
+    @Value("${ranking.weight.distance:0.2}")
+    private double distanceWeight;
+
+    // Experience beyond this many years no longer improves the score
+    @Value("${ranking.experience.cap-years:30}")
+    private int experienceCapYears;
+
+    // Fees at or above this amount score zero on the fee criterion
+    @Value("${ranking.fee.ceiling:500}")
+    private double feeCeiling;
+
+    // Proximity score is exp(-distance / scale): 1.0 next door, ~0.37 at this distance
+    @Value("${ranking.distance.scale-km:50}")
+    private double distanceScaleKm;
+
+    public DoctorRanker() {}
+
+    public DoctorRanker(double ratingWeight, double experienceWeight, double feeWeight, double distanceWeight,
+                        int experienceCapYears, double feeCeiling, double distanceScaleKm) {
+        this.ratingWeight = ratingWeight;
+        this.experienceWeight = experienceWeight;
+        this.feeWeight = feeWeight;
+        this.distanceWeight = distanceWeight;
+        this.experienceCapYears = experienceCapYears;
+        this.feeCeiling = feeCeiling;
+        this.distanceScaleKm = distanceScaleKm;
+    }
+
+    /**
+     * Return the k best-scoring candidates for a patient (null for no proximity preference), best first.
+     */
+    public List<DoctorSummary> topK(List<DoctorSummary> candidates, User patient, int k) {
+        if (patient == null) {
+            return topK(candidates, null, null, k);
+        }
+        return topK(candidates, patient.getLocation(), GeoPoint.of(patient.getLatitude(), patient.getLongitude()), k);
+    }
+
+    /**
+     * Return the k best-scoring candidates for a patient, best first.
+     * Ties are broken by rating, then experience, then lower fee, then doctor id.
+     */
+    public List<DoctorSummary> topK(List<DoctorSummary> candidates, String patientLocation, GeoPoint patientPoint, int k) {
+        if (candidates == null || candidates.isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Min-heap on score: the root is the weakest of the current top K
+        PriorityQueue<ScoredDoctor> heap = new PriorityQueue<>(Math.min(k, candidates.size()) + 1, SCORE_ORDER);
+        for (DoctorSummary doctor : candidates) {
+            double score = score(doctor, patientLocation, patientPoint);
+            if (heap.size() < k) {
+                heap.add(new ScoredDoctor(doctor, score));
+            } else if (score >= heap.peek().score) {
+                ScoredDoctor candidate = new ScoredDoctor(doctor, score);
+                if (SCORE_ORDER.compare(candidate, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+        }
+
+        return drainBestFirst(heap);
+    }
+
+    /**
+     * Return the k best candidates by an explicit ordering (best first), with the same bounded heap.
+     */
+    public static List<DoctorSummary> topK(List<DoctorSummary> candidates, Comparator<DoctorSummary> bestFirst, int k) {
+        if (candidates == null || candidates.isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Reverse the ordering so the heap root is the worst kept candidate
+        Comparator<DoctorSummary> worstFirst = bestFirst.reversed();
+        PriorityQueue<DoctorSummary> heap = new PriorityQueue<>(Math.min(k, candidates.size()) + 1, worstFirst);
+        for (DoctorSummary doctor : candidates) {
+            if (heap.size() < k) {
+                heap.add(doctor);
+            } else if (worstFirst.compare(doctor, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(doctor);
+            }
+        }
+
+        List<DoctorSummary> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Weighted score in [0, 1] (when weights sum to 1)
+     */
+    public double score(DoctorSummary doctor, String patientLocation, GeoPoint patientPoint) {
+        double ratingScore = doctor.getRating() != null ? clamp(doctor.getRating().doubleValue() / 5.0) : 0.0;
+        double experienceScore = experienceCapYears > 0
+            ? clamp((double) doctor.getYearsOfExperience() / experienceCapYears) : 0.0;
+        double feeScore = feeScore(doctor.getFeesPerHour());
+        double proximityScore = patientPoint != null && doctor.getLatitude() != null && doctor.getLongitude() != null
+            ? distanceDecay(patientPoint.distanceKm(doctor.getLatitude(), doctor.getLongitude()))
+            : proximity(doctor.getLocation(), patientLocation);
+
+        return ratingWeight * ratingScore
+            + experienceWeight * experienceScore
+            + feeWeight * feeScore
+            + distanceWeight * proximityScore;
+    }
+
+    private double feeScore(BigDecimal fee) {
+        if (fee == null || feeCeiling <= 0) {
+            return 0.0;
+        }
+        return clamp(1.0 - fee.doubleValue() / feeCeiling);
+    }
+
+    private double distanceDecay(double distanceKm) {
+        return distanceScaleKm > 0 ? Math.exp(-distanceKm / distanceScaleKm) : 0.0;
+    }
+
+    /**
+     * 1.0 for the patient's own location, 0.5 for a partial name match, 0 otherwise or when unknown
+     */
+    private double proximity(String doctorLocation, String patientLocation) {
+        if (doctorLocation == null || patientLocation == null || patientLocation.isBlank()) {
+            return 0.0;
+        }
+        if (doctorLocation.equalsIgnoreCase(patientLocation)) {
+            return 1.0;
+        }
+        return containsIgnoreCase(doctorLocation, patientLocation)
+            || containsIgnoreCase(patientLocation, doctorLocation) ? 0.5 : 0.0;
+    }
+
+    // Case-insensitive contains without lower-casing copies (called once per candidate)
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        int last = haystack.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (haystack.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double clamp(double value) {
+        return value < 0.0 ? 0.0 : (value > 1.0 ? 1.0 : value);
+    }
+
+    private static List<DoctorSummary> drainBestFirst(PriorityQueue<ScoredDoctor> heap) {
+        List<DoctorSummary> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().doctor);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Ascending "goodness": higher score, then tie-breakers; lower doctor id wins a full tie
+    private static final Comparator<ScoredDoctor> SCORE_ORDER = Comparator
+        .comparingDouble((ScoredDoctor s) -> s.score)
+        .thenComparing(s -> s.doctor.getRating(), Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingInt(s -> s.doctor.getYearsOfExperience())
+        .thenComparing(s -> s.doctor.getFeesPerHour(), Comparator.nullsFirst(Comparator.<BigDecimal>reverseOrder()))
+        .thenComparing(s -> s.doctor.getId(), Comparator.nullsFirst(Comparator.<Long>reverseOrder()));
+
+    private static final class ScoredDoctor {
+        private final DoctorSummary doctor;
+        private final double score;
+
+        private ScoredDoctor(DoctorSummary doctor, double score) {
+            this.doctor = doctor;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.DoctorReview;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.repository.DoctorRepository;
+import com.example.appointmentscheduler.repository.DoctorReviewRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Service
+public class DoctorReviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorReviewService.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorReviewRepository doctorReviewRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Doctors locked and recomputed per transaction by reconcileRatings
+    private static final int RECONCILE_CHUNK = 500;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Store a review and fold its rating into the doctor's running count/sum in the same transaction
+     */
+    @Transactional
+    public DoctorReview addReview(Long doctorId, String reviewText, Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        // Update the aggregates first: this takes the doctor row lock and tells us whether the doctor exists
+        if (doctorRepository.applyReviewRating(doctorId, rating) == 0) {
+            throw new IllegalArgumentException("Doctor not found");
+        }
+
+        DoctorReview review = new DoctorReview(doctorRepository.getReferenceById(doctorId), reviewText, rating);
+        review = doctorReviewRepository.save(review);
+        outboxService.record(OutboxEvent.doctor(OutboxEvent.Type.DOCTOR_UPDATED, doctorId));
+        return review;
+    }
+
+    /**
+     * Recompute every doctor's aggregates from the review table, in transactions of RECONCILE_CHUNK
+     * doctors: each chunk is row-locked, then recomputed by one UPDATE, so reviews added meanwhile are
+     * counted rather than overwritten. Runs nightly and once at startup (seed data inserts reviews
+     * without going through addReview).
+     */
+    @Scheduled(cron = "${reviews.reconcile.cron:0 30 2 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileRatings() {
+        List<Long> doctorIds = transaction.execute(status -> doctorRepository.findIdsToReconcile());
+        int updated = 0;
+        for (int from = 0; from < doctorIds.size(); from += RECONCILE_CHUNK) {
+            List<Long> chunk = doctorIds.subList(from, Math.min(from + RECONCILE_CHUNK, doctorIds.size()));
+            updated += transaction.execute(status -> {
+                doctorRepository.lockForReconcile(chunk);
+                return doctorRepository.recomputeReviewAggregates(chunk);
+            });
+        }
+        logger.info("Reconciled rating aggregates for {} doctors", updated);
+        transaction.executeWithoutResult(status -> outboxService.record(OutboxEvent.catalogReloaded()));
+    }
+}
@@ -1,16 +1,40 @@
 package com.example.appointmentscheduler.service;
 
+import com.example.appointmentscheduler.dto.DoctorSummary;
 import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.model.User;
+import com.example.appointmentscheduler.monitoring.BookingEvents;
 import com.example.appointmentscheduler.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
-public class DoctorService {
+public class DoctorService implements OutboxConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DoctorService.class);
+    
+    // Tie-break of the sort options: lower id first, as in DoctorRanker, so equal keys keep a stable order across pages
+    private static final Comparator<DoctorSummary> BY_ID =
+        Comparator.comparing(DoctorSummary::getId, Comparator.nullsLast(Comparator.naturalOrder()));
     
     @Autowired
     private DoctorRepository doctorRepository;
@@ -18,34 +42,50 @@ public class DoctorService {
     @Autowired
     private DoctorBookingService doctorBookingService;
     
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findByAvailableTrue();
+    @Autowired
+    private DoctorRanker doctorRanker;
+    
+    @Autowired
+    private DoctorSpatialIndex spatialIndex;
+    
+    @Autowired
+    private GazetteerService gazetteerService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    // Nearby searches never look further than this unless the caller passes a radius
+    @Value("${geo.nearby.max-radius-km:500}")
+    private double nearbyMaxRadiusKm;
+    
+    public List<DoctorSummary> getAllDoctors() {
+        return doctorRepository.findAvailableSummaries();
     }
     
-    public List<Doctor> findDoctorsByLocationAndSpeciality(String location, String speciality) {
+    public List<DoctorSummary> findDoctorsByLocationAndSpeciality(String location, String speciality) {
         if ((location == null || location.trim().isEmpty()) && 
             (speciality == null || speciality.trim().isEmpty())) {
             return getAllDoctors();
         }
         
-        return doctorRepository.findByLocationAndSpecialityContainingIgnoreCase(
+        return doctorRepository.findSummariesByLocationAndSpeciality(
             location != null && !location.trim().isEmpty() ? location : null,
             speciality != null && !speciality.trim().isEmpty() ? speciality : null
         );
     }
     
-    public List<Doctor> findDoctorsByLocation(String location) {
+    public List<DoctorSummary> findDoctorsByLocation(String location) {
         if (location == null || location.trim().isEmpty()) {
             return getAllDoctors();
         }
-        return doctorRepository.findByLocationContainingIgnoreCase(location);
+        return doctorRepository.findSummariesByLocation(location);
     }
     
-    public List<Doctor> findDoctorsBySpeciality(String speciality) {
+    public List<DoctorSummary> findDoctorsBySpeciality(String speciality) {
         if (speciality == null || speciality.trim().isEmpty()) {
             return getAllDoctors();
         }
-        return doctorRepository.findBySpecialityContainingIgnoreCase(speciality);
+        return doctorRepository.findSummariesBySpeciality(speciality);
     }
     
     public List<String> getUniqueLocations() {
@@ -56,8 +96,14 @@ public class DoctorService {
         return doctorRepository.findUniqueSpecialities();
     }
     
-    public List<Doctor> findAvailableDoctors(String location, String speciality, String date, String timeSlot) {
-        List<Doctor> doctors;
+    /**
+     * Doctors matching the filters, minus those already booked in the given date and slot.
+     * Throws IllegalArgumentException for a malformed date or time slot.
+     */
+    public List<DoctorSummary> findAvailableDoctors(String location, String speciality, String date, String timeSlot) {
+        List<DoctorSummary> doctors;
+        BookingEvents.DoctorLookup lookup = new BookingEvents.DoctorLookup();
+        lookup.begin();
         
         // Get doctors based on location and/or speciality filters
         if ((location != null && !location.trim().isEmpty()) && 
@@ -70,88 +116,188 @@ public class DoctorService {
         } else {
             doctors = getAllDoctors();
         }
+        if (lookup.isEnabled()) {
+            lookup.query = "location:" + location + " speciality:" + speciality;
+        }
+        lookup.found = doctors.size();
+        lookup.finish(doctors.isEmpty() ? "none" : "found");
         
         // If no date or timeSlot specified, return all doctors from location/speciality filter
         if (date == null || date.trim().isEmpty() || timeSlot == null || timeSlot.trim().isEmpty()) {
             return doctors;
         }
         
+        LocalDate bookingDate;
         try {
-            LocalDate bookingDate = LocalDate.parse(date);
-            
-            // Parse time slot to get start and end times
-            LocalTime[] times = parseTimeSlot(timeSlot);
-            LocalTime startTime = times[0];
-            LocalTime endTime = times[1];
-            
-            // Get doctor IDs that are already booked for this date and time slot
-            List<Long> bookedDoctorIds = doctorBookingService.getBookedDoctorIds(bookingDate, startTime, endTime);
-            
-            // Filter out booked doctors
-            return doctors.stream()
-                    .filter(doctor -> !bookedDoctorIds.contains(doctor.getId()))
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            // If date parsing fails, return all doctors from location/speciality filter
+            bookingDate = LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date, e);
+        }
+        TimeSlot slot = TimeSlot.parse(timeSlot);
+        
+        // Get doctor IDs that are already booked for this date and time slot
+        List<Long> bookedDoctorIds = doctorBookingService.getBookedDoctorIds(bookingDate, slot.getStart(), slot.getEnd());
+        
+        return excludeBooked(doctors, bookedDoctorIds);
+    }
+    
+    /**
+     * Drop doctors whose id is in bookedDoctorIds (hashed once, so this is linear in both lists)
+     */
+    public static List<DoctorSummary> excludeBooked(List<DoctorSummary> doctors, Collection<Long> bookedDoctorIds) {
+        if (bookedDoctorIds.isEmpty()) {
             return doctors;
         }
+        Set<Long> booked = bookedDoctorIds instanceof Set ? (Set<Long>) bookedDoctorIds : new HashSet<>(bookedDoctorIds);
+        List<DoctorSummary> available = new ArrayList<>(doctors.size());
+        for (DoctorSummary doctor : doctors) {
+            if (!booked.contains(doctor.getId())) {
+                available.add(doctor);
+            }
+        }
+        return available;
     }
     
     /**
-     * Parse time slot string like "09:00 AM - 10:00 AM" into start and end LocalTime
+     * Order search results and keep at most {@code limit} of them.
+     * sort: "best" (multi-criteria DoctorRanker), "rating", "fee" (cheapest first) or "experience";
+     * null keeps the repository order (highest rating first).
+     * patient may be null (no proximity preference).
      */
-    private LocalTime[] parseTimeSlot(String timeSlot) {
-        // Expected format: "09:00 AM - 10:00 AM"
-        String[] parts = timeSlot.split(" - ");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid time slot format: " + timeSlot);
+    public List<DoctorSummary> sortDoctors(List<DoctorSummary> doctors, String sort, User patient, Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
         }
+        int k = limit != null ? limit : doctors.size();
         
-        LocalTime startTime = parseTime(parts[0].trim());
-        LocalTime endTime = parseTime(parts[1].trim());
+        if (sort == null || sort.trim().isEmpty()) {
+            return k >= doctors.size() ? doctors : doctors.subList(0, k);
+        }
         
-        return new LocalTime[]{startTime, endTime};
+        switch (sort.trim().toLowerCase()) {
+            case "best":
+                return doctorRanker.topK(doctors, patient, k);
+            case "rating":
+                return DoctorRanker.topK(doctors, Comparator.comparing(DoctorSummary::getRating,
+                    Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder())).thenComparing(BY_ID), k);
+            case "fee":
+                return DoctorRanker.topK(doctors, Comparator.comparing(DoctorSummary::getFeesPerHour,
+                    Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder())).thenComparing(BY_ID), k);
+            case "experience":
+                return DoctorRanker.topK(doctors,
+                    Comparator.comparingInt(DoctorSummary::getYearsOfExperience).reversed().thenComparing(BY_ID), k);
+            default:
+                throw new IllegalArgumentException("Unknown sort option: " + sort);
+        }
     }
     
     /**
-     * Parse time string like "09:00 AM" into LocalTime
+     * Available doctors nearest to origin, nearest first, served from the in-memory spatial index.
+     * With radiusKm only doctors within that distance are returned, otherwise the k nearest
+     * within geo.nearby.max-radius-km.
      */
-    private LocalTime parseTime(String timeStr) {
-        // Expected format: "09:00 AM" or "09:00 PM"
-        String[] parts = timeStr.split(" ");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid time format: " + timeStr);
+    public List<DoctorSummary> findNearbyDoctors(GeoPoint origin, String speciality, int k, Double radiusKm) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
         }
-        
-        String timePart = parts[0];
-        String amPm = parts[1];
-        
-        String[] timeParts = timePart.split(":");
-        int hour = Integer.parseInt(timeParts[0]);
-        int minute = Integer.parseInt(timeParts[1]);
-        
-        // Convert to 24-hour format
-        if ("PM".equals(amPm) && hour != 12) {
-            hour += 12;
-        } else if ("AM".equals(amPm) && hour == 12) {
-            hour = 0;
+        if (radiusKm != null) {
+            if (radiusKm <= 0) {
+                throw new IllegalArgumentException("radiusKm must be positive");
+            }
+            return spatialIndex.withinRadius(origin, speciality, radiusKm, k);
         }
-        
-        return LocalTime.of(hour, minute);
+        return spatialIndex.nearest(origin, speciality, k, nearbyMaxRadiusKm);
+    }
+    
+    // Coordinates for a free-text location name, or null if the gazetteer does not know it
+    public GeoPoint geocode(String location) {
+        return gazetteerService.lookup(location);
+    }
+    
+    /**
+     * Geocode doctors that have no coordinates yet (one bulk update per location) and load the spatial index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void geocodeAndIndexDoctors() {
+        int updated = 0;
+        for (String location : doctorRepository.findLocationsMissingCoordinates()) {
+            GeoPoint point = gazetteerService.lookup(location);
+            if (point != null) {
+                updated += doctorRepository.assignCoordinates(location, point.getLatitude(), point.getLongitude());
+            } else {
+                logger.warn("No gazetteer entry for doctor location '{}'", location);
+            }
+        }
+        logger.info("Geocoded {} doctors from the gazetteer", updated);
+        rebuildSpatialIndex();
+    }
+    
+    @Override
+    public String getConsumerName() {
+        return "doctor-spatial-index";
+    }
+    
+    /**
+     * Keep the spatial index in step with the catalog: each changed doctor is re-read once per batch,
+     * a catalog reload rebuilds the whole index. Runs in the dispatcher's transaction, on the primary.
+     */
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> changed = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            if (event.getType() == OutboxEvent.Type.DOCTOR_CATALOG_RELOADED) {
+                rebuildSpatialIndex();
+                return;
+            }
+            if (event.getType() == OutboxEvent.Type.DOCTOR_CREATED || event.getType() == OutboxEvent.Type.DOCTOR_UPDATED
+                    || event.getType() == OutboxEvent.Type.DOCTOR_DELETED) {
+                changed.add(event.getDoctorId());
+            }
+        }
+        changed.forEach(this::refreshSpatialIndex);
+    }
+    
+    @Override
+    public void resync() {
+        rebuildSpatialIndex();
+    }
+    
+    // Read-write, i.e. on the primary: the index must not take a lagging replica's view of the doctors
+    @Transactional
+    public void rebuildSpatialIndex() {
+        spatialIndex.rebuild(doctorRepository.findAvailableSummaries());
+        logger.info("Spatial index holds {} available doctors", spatialIndex.size());
+    }
+    
+    // Re-read one doctor's summary into the spatial index (after rating or profile changes)
+    private void refreshSpatialIndex(Long doctorId) {
+        doctorRepository.findSummaryById(doctorId)
+            .ifPresentOrElse(spatialIndex::put, () -> spatialIndex.remove(doctorId));
     }
     
     // Additional methods for admin management
+    @Transactional
     public Doctor saveDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        // Re-geocode on every save so an edited location never keeps stale coordinates
+        // (an unknown location clears them, so the doctor drops out of nearby search instead of staying at the old place)
+        GeoPoint point = gazetteerService.lookup(doctor.getLocation());
+        doctor.setLatitude(point != null ? point.getLatitude() : null);
+        doctor.setLongitude(point != null ? point.getLongitude() : null);
+        OutboxEvent.Type type = doctor.getId() == null ? OutboxEvent.Type.DOCTOR_CREATED : OutboxEvent.Type.DOCTOR_UPDATED;
+        Doctor saved = doctorRepository.save(doctor);
+        outboxService.record(OutboxEvent.doctor(type, saved.getId()));
+        return saved;
     }
     
     public Doctor findById(Long id) {
         return doctorRepository.findById(id).orElse(null);
     }
     
+    @Transactional
     public void deleteById(Long id) {
         doctorRepository.deleteById(id);
+        outboxService.record(OutboxEvent.doctor(OutboxEvent.Type.DOCTOR_DELETED, id));
     }
     
     // Get all doctors including unavailable ones (for admin)
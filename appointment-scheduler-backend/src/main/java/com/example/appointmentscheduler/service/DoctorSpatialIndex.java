@@ -0,0 +1,305 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.model.GeoPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index of available doctors by clinic coordinates.
+ * Doctors are bucketed per speciality into fixed-size latitude/longitude cells, so a
+ * speciality + proximity query only visits the cells around the origin in the matching
+ * specialities instead of loading and sorting every doctor.
+ */
+@Component
+public class DoctorSpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double HALF_CIRCUMFERENCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+    @Value("${geo.index.cell-degrees:0.5}")
+    private double cellDegrees;
+
+    // Lower-cased speciality -> cell key -> doctors in that cell
+    private final Map<String, Map<Long, List<DoctorSummary>>> cellsBySpeciality = new HashMap<>();
+    private final Map<Long, DoctorSummary> doctorsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public DoctorSpatialIndex() {}
+
+    public DoctorSpatialIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Replace the whole index contents
+     */
+    public void rebuild(Collection<DoctorSummary> doctors) {
+        lock.writeLock().lock();
+        try {
+            cellsBySpeciality.clear();
+            doctorsById.clear();
+            for (DoctorSummary doctor : doctors) {
+                insert(doctor);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace one doctor; unavailable doctors and doctors without coordinates are removed
+     */
+    public void put(DoctorSummary doctor) {
+        lock.writeLock().lock();
+        try {
+            delete(doctor.getId());
+            insert(doctor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long doctorId) {
+        lock.writeLock().lock();
+        try {
+            delete(doctorId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return doctorsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k doctors closest to origin (nearest first), optionally restricted to a speciality
+     * (case-insensitive substring, like the repository search) and to maxRadiusKm.
+     * The search radius starts at one cell and doubles until k doctors are found.
+     */
+    public List<DoctorSummary> nearest(GeoPoint origin, String speciality, int k, double maxRadiusKm) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, List<DoctorSummary>>> grids = gridsFor(speciality);
+            if (grids.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            double limit = Math.min(maxRadiusKm, HALF_CIRCUMFERENCE_KM);
+            double radius = Math.min(cellDegrees * Math.PI / 180 * EARTH_RADIUS_KM, limit);
+            while (true) {
+                // Max-heap on distance holding the best k seen so far
+                PriorityQueue<Neighbour> heap = new PriorityQueue<>(Math.min(k, doctorsById.size()) + 1, FARTHEST_FIRST);
+                double searchRadius = radius;
+                scan(origin, searchRadius, grids, (doctor, distance) -> {
+                    if (heap.size() < k) {
+                        heap.add(new Neighbour(doctor, distance));
+                    } else if (distance < heap.peek().distance) {
+                        heap.poll();
+                        heap.add(new Neighbour(doctor, distance));
+                    }
+                });
+
+                if (heap.size() == k || radius >= limit) {
+                    return drainNearestFirst(heap);
+                }
+                radius = Math.min(radius * 2, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All doctors within radiusKm of origin (nearest first), at most limit of them
+     */
+    public List<DoctorSummary> withinRadius(GeoPoint origin, String speciality, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Map<Long, List<DoctorSummary>>> grids = gridsFor(speciality);
+            List<Neighbour> found = new ArrayList<>();
+            scan(origin, Math.min(radiusKm, HALF_CIRCUMFERENCE_KM), grids,
+                (doctor, distance) -> found.add(new Neighbour(doctor, distance)));
+
+            found.sort(Comparator.comparingDouble(n -> n.distance));
+            List<DoctorSummary> result = new ArrayList<>(Math.min(limit, found.size()));
+            for (int i = 0; i < found.size() && i < limit; i++) {
+                result.add(found.get(i).doctor);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every doctor within radiusKm of origin. Cells come from the exact lat/lon bounding
+     * box of the spherical cap, so no doctor inside the radius is missed.
+     */
+    private void scan(GeoPoint origin, double radiusKm, List<Map<Long, List<DoctorSummary>>> grids,
+                      NeighbourVisitor visitor) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double lat = Math.toRadians(origin.getLatitude());
+        double lon = Math.toRadians(origin.getLongitude());
+
+        double minLat = lat - angularRadius;
+        double maxLat = lat + angularRadius;
+        double minLon;
+        double maxLon;
+        if (minLat > -Math.PI / 2 && maxLat < Math.PI / 2) {
+            double deltaLon = Math.asin(Math.min(1.0, Math.sin(angularRadius) / Math.cos(lat)));
+            minLon = lon - deltaLon;
+            maxLon = lon + deltaLon;
+        } else {
+            // The cap contains a pole: every longitude is in range
+            minLat = Math.max(minLat, -Math.PI / 2);
+            maxLat = Math.min(maxLat, Math.PI / 2);
+            minLon = -Math.PI;
+            maxLon = Math.PI;
+        }
+
+        int rowCount = rowCount();
+        int columnCount = columnCount();
+        int minRow = Math.max(0, row(Math.toDegrees(minLat)));
+        int maxRow = Math.min(rowCount - 1, row(Math.toDegrees(maxLat)));
+        int minColumn = column(Math.toDegrees(minLon));
+        int maxColumn = column(Math.toDegrees(maxLon));
+        if (maxLon - minLon >= 2 * Math.PI || maxColumn - minColumn >= columnCount) {
+            minColumn = 0;
+            maxColumn = columnCount - 1;
+        }
+
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                // Wrap across the antimeridian
+                int wrapped = Math.floorMod(c, columnCount);
+                long key = (long) r * columnCount + wrapped;
+                for (Map<Long, List<DoctorSummary>> grid : grids) {
+                    List<DoctorSummary> cell = grid.get(key);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (DoctorSummary doctor : cell) {
+                        double distance = origin.distanceKm(doctor.getLatitude(), doctor.getLongitude());
+                        if (distance <= radiusKm) {
+                            visitor.visit(doctor, distance);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Map<Long, List<DoctorSummary>>> gridsFor(String speciality) {
+        if (speciality == null || speciality.isBlank()) {
+            return new ArrayList<>(cellsBySpeciality.values());
+        }
+        String filter = speciality.trim().toLowerCase(Locale.ROOT);
+        List<Map<Long, List<DoctorSummary>>> grids = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, List<DoctorSummary>>> entry : cellsBySpeciality.entrySet()) {
+            if (entry.getKey().contains(filter)) {
+                grids.add(entry.getValue());
+            }
+        }
+        return grids;
+    }
+
+    private void insert(DoctorSummary doctor) {
+        if (!doctor.isAvailable() || doctor.getLatitude() == null || doctor.getLongitude() == null
+                || doctor.getSpeciality() == null) {
+            return;
+        }
+        long key = cellKey(doctor.getLatitude(), doctor.getLongitude());
+        cellsBySpeciality
+            .computeIfAbsent(doctor.getSpeciality().toLowerCase(Locale.ROOT), s -> new HashMap<>())
+            .computeIfAbsent(key, k -> new ArrayList<>())
+            .add(doctor);
+        doctorsById.put(doctor.getId(), doctor);
+    }
+
+    private void delete(Long doctorId) {
+        DoctorSummary existing = doctorsById.remove(doctorId);
+        if (existing == null) {
+            return;
+        }
+        String specialityKey = existing.getSpeciality().toLowerCase(Locale.ROOT);
+        Map<Long, List<DoctorSummary>> grid = cellsBySpeciality.get(specialityKey);
+        long key = cellKey(existing.getLatitude(), existing.getLongitude());
+        List<DoctorSummary> cell = grid.get(key);
+        cell.removeIf(d -> d.getId().equals(doctorId));
+        if (cell.isEmpty()) {
+            grid.remove(key);
+            if (grid.isEmpty()) {
+                cellsBySpeciality.remove(specialityKey);
+            }
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return (long) row(latitude) * columnCount() + Math.floorMod(column(longitude), columnCount());
+    }
+
+    private int row(double latitude) {
+        return Math.min(rowCount() - 1, (int) Math.floor((latitude + 90) / cellDegrees));
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private int rowCount() {
+        return (int) Math.ceil(180 / cellDegrees);
+    }
+
+    private int columnCount() {
+        return (int) Math.ceil(360 / cellDegrees);
+    }
+
+    private static List<DoctorSummary> drainNearestFirst(PriorityQueue<Neighbour> heap) {
+        List<DoctorSummary> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().doctor);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static final Comparator<Neighbour> FARTHEST_FIRST =
+        Comparator.comparingDouble((Neighbour n) -> n.distance).reversed();
+
+    @FunctionalInterface
+    private interface NeighbourVisitor {
+        void visit(DoctorSummary doctor, double distanceKm);
+    }
+
+    private static final class Neighbour {
+        private final DoctorSummary doctor;
+        private final double distance;
+
+        private Neighbour(DoctorSummary doctor, double distance) {
+            this.doctor = doctor;
+            this.distance = distance;
+        }
+    }
+}
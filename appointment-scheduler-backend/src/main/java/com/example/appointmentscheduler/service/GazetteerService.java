@@ -0,0 +1,83 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.GeoPoint;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves free-text location names to coordinates from a local gazetteer file
+ */
+@Service
+public class GazetteerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GazetteerService.class);
+
+    @Value("${geo.gazetteer.location:classpath:gazetteer.csv}")
+    private Resource gazetteerFile;
+
+    // Lower-cased location name -> coordinates
+    private final Map<String, GeoPoint> places = new HashMap<>();
+
+    @PostConstruct
+    public void load() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(gazetteerFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 3) {
+                    logger.warn("Skipping malformed gazetteer line {}: {}", lineNumber, line);
+                    continue;
+                }
+                places.put(normalize(parts[0]),
+                    new GeoPoint(Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim())));
+            }
+        }
+        logger.info("Loaded {} gazetteer locations", places.size());
+    }
+
+    /**
+     * Coordinates for a location name, or null if it is not in the gazetteer.
+     * Falls back to the longest known name contained in the text (e.g. "Downtown Chicago").
+     */
+    public GeoPoint lookup(String locationName) {
+        if (locationName == null || locationName.isBlank()) {
+            return null;
+        }
+        String key = normalize(locationName);
+        GeoPoint exact = places.get(key);
+        if (exact != null) {
+            return exact;
+        }
+
+        String bestName = null;
+        for (String name : places.keySet()) {
+            if (key.contains(name) && (bestName == null || name.length() > bestName.length())) {
+                bestName = name;
+            }
+        }
+        return bestName != null ? places.get(bestName) : null;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
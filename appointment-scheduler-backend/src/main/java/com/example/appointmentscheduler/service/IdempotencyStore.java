@@ -0,0 +1,168 @@
+package com.example.appointmentscheduler.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of requests sent with an Idempotency-Key header, kept for a TTL so a client retry gets
+ * the original response instead of running the request again. A duplicate that arrives while the
+ * first request is still running waits for its result. Only the final response is kept: 5xx results
+ * and exceptions are not stored, so the client can retry them.
+ * In memory, like the conversation states (per instance; use a shared store when running several).
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    // How long a duplicate waits for the original request before giving up with 409
+    @Value("${idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAtMillis;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAtMillis) {
+            this.fingerprint = fingerprint;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("idempotency.keys", entries, Map::size)
+            .description("Idempotency keys currently remembered")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run action once per key within scope (e.g. the endpoint). fingerprint identifies the request
+     * body: reusing a key for a different request is rejected with 422 rather than replaying an
+     * unrelated response.
+     */
+    public ResponseEntity<?> execute(String scope, String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        String scopedKey = scope + ':' + key;
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry fresh = new Entry(fingerprint, now + TimeUnit.MINUTES.toMillis(ttlMinutes));
+            boolean full = entries.size() >= maxEntries && evictExpired() == 0;
+            Entry existing = full ? entries.get(scopedKey) : entries.putIfAbsent(scopedKey, fresh);
+
+            if (existing == null) {
+                if (full) {
+                    // Store full of live keys: run without remembering rather than refuse the request
+                    logger.warn("Idempotency store full ({} keys); not remembering key", maxEntries);
+                    count(scope, "untracked");
+                    return action.get();
+                }
+                count(scope, "executed");
+                return runFirst(scopedKey, fresh, action);
+            }
+            if (existing.expiresAtMillis < now) {
+                entries.remove(scopedKey, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                count(scope, "mismatch");
+                return error(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+            }
+
+            ResponseEntity<?> original;
+            try {
+                original = existing.response.get(waitSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                count(scope, "in_progress");
+                return error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+            } catch (ExecutionException e) {
+                // The first attempt failed and was forgotten; run this one
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return error(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+            }
+            if (original.getStatusCode().is5xxServerError()) {
+                continue;
+            }
+            count(scope, "replayed");
+            return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+        }
+    }
+
+    private ResponseEntity<?> runFirst(String scopedKey, Entry entry, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(scopedKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.remove(scopedKey, entry);
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("status", "error");
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private void count(String scope, String outcome) {
+        meterRegistry.counter("idempotency.requests", "scope", scope, "outcome", outcome).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        evictExpired();
+    }
+
+    /**
+     * Drop finished keys past their TTL; returns how many were removed
+     */
+    private int evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAtMillis < now && entry.response.isDone());
+        return before - entries.size();
+    }
+}
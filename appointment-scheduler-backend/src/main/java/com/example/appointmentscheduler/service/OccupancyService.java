@@ -0,0 +1,255 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.DoctorBooking;
+import com.example.appointmentscheduler.model.DoctorDayOccupancy;
+import com.example.appointmentscheduler.repository.DoctorBookingRepository;
+import com.example.appointmentscheduler.repository.DoctorDayOccupancyRepository;
+import com.example.appointmentscheduler.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps doctor_day_occupancy in step with doctor_booking and answers availability questions from it:
+ * one small row per doctor and day instead of the day's booking rows.
+ *
+ * Every booking and release first locks the doctor's day rows (creating them if needed), then
+ * changes doctor_booking and the row in the same transaction. The lock also serializes bookings for
+ * the same doctor and day, so two requests can no longer both see a slot free and both book it.
+ * rebuild() recomputes the table from doctor_booking at startup (seed and bulk-loaded data) and nightly,
+ * taking the same row locks doctor by doctor.
+ */
+@Service
+public class OccupancyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyService.class);
+
+    // Doctors per rebuild transaction: a booking waits for one such transaction at most
+    private static final int REBUILD_DOCTORS_PER_TRANSACTION = 50;
+
+    private static final String INSERT_IF_MISSING =
+        "INSERT INTO doctor_day_occupancy (doctor_id, occupancy_date, mask_low, mask_high, booked_count, off_grid_count) " +
+        "VALUES (?, ?, 0, 0, 0, 0) ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private DoctorDayOccupancyRepository occupancyRepository;
+
+    @Autowired
+    private DoctorBookingRepository doctorBookingRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Lock a doctor's rows for the given dates (creating missing ones). Call before changing the
+     * doctor's bookings on those dates, inside the same transaction.
+     */
+    @Transactional
+    public void lockDays(Long doctorId, Collection<LocalDate> dates) {
+        TreeSet<LocalDate> sorted = new TreeSet<>(dates);
+        jdbcTemplate.batchUpdate(INSERT_IF_MISSING, sorted, sorted.size(), (statement, date) -> {
+            statement.setLong(1, doctorId);
+            statement.setDate(2, Date.valueOf(date));
+        });
+        occupancyRepository.lockRange(doctorId, sorted.first(), sorted.last());
+    }
+
+    /**
+     * Whether the doctor has no booking overlapping [startTime, endTime) on the date
+     */
+    @Transactional(readOnly = true)
+    public boolean isAvailable(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DoctorDayOccupancy day = occupancyRepository.findById(new DoctorDayOccupancy.Key(doctorId, date)).orElse(null);
+        if (day == null) {
+            return true;
+        }
+        if (day.isExact()) {
+            return !day.overlaps(startTime, endTime);
+        }
+        return doctorBookingRepository.findConflictingBookings(doctorId, date, startTime, endTime).isEmpty();
+    }
+
+    /**
+     * Doctors with a booking overlapping [startTime, endTime) on the date
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getBookedDoctorIds(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        List<DoctorDayOccupancy> days = occupancyRepository.findByDate(date);
+        if (days.stream().anyMatch(day -> !day.isExact())) {
+            return doctorBookingRepository.findBookedDoctorIds(date, startTime, endTime);
+        }
+        return days.stream()
+            .filter(day -> day.overlaps(startTime, endTime))
+            .map(DoctorDayOccupancy::getDoctorId)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Which of the dates already have a booking overlapping [startTime, endTime) with the doctor (one range read)
+     */
+    @Transactional(readOnly = true)
+    public Set<LocalDate> findBookedDates(Long doctorId, Collection<LocalDate> dates, LocalTime startTime, LocalTime endTime) {
+        TreeSet<LocalDate> sorted = new TreeSet<>(dates);
+        List<DoctorDayOccupancy> days = occupancyRepository.findRange(doctorId, sorted.first(), sorted.last());
+        if (days.stream().anyMatch(day -> !day.isExact() && sorted.contains(day.getDate()))) {
+            Set<LocalDate> booked = new HashSet<>(doctorBookingRepository.findBookedDatesInRange(
+                doctorId, sorted.first(), sorted.last(), startTime, endTime));
+            booked.retainAll(sorted);
+            return booked;
+        }
+        Set<LocalDate> booked = new HashSet<>();
+        for (DoctorDayOccupancy day : days) {
+            if (sorted.contains(day.getDate()) && day.overlaps(startTime, endTime)) {
+                booked.add(day.getDate());
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Add new bookings on the given dates to their (locked) rows
+     */
+    @Transactional
+    public void recordBookings(Long doctorId, Collection<LocalDate> dates, LocalTime startTime, LocalTime endTime) {
+        TreeSet<LocalDate> sorted = new TreeSet<>(dates);
+        for (DoctorDayOccupancy day : occupancyRepository.findRange(doctorId, sorted.first(), sorted.last())) {
+            if (sorted.contains(day.getDate())) {
+                day.occupy(startTime, endTime);
+            }
+        }
+    }
+
+    /**
+     * Take a deleted booking off its (locked) row
+     */
+    @Transactional
+    public void recordRelease(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DoctorDayOccupancy day = occupancyRepository.findById(new DoctorDayOccupancy.Key(doctorId, date)).orElse(null);
+        if (day == null) {
+            return;
+        }
+        if (DoctorDayOccupancy.isOnGrid(startTime, endTime)) {
+            day.free(startTime, endTime);
+            return;
+        }
+        // An off-grid booking may share its edge cells with a neighbour: rebuild the day from what is left
+        day.clear();
+        for (DoctorBooking booking : doctorBookingRepository.findByDoctorIdAndBookingDate(doctorId, date)) {
+            day.occupy(booking.getStartTime(), booking.getEndTime());
+        }
+    }
+
+    /**
+     * Daily utilization of every doctor with bookings on a date
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorDayOccupancy> getOccupancy(LocalDate date) {
+        return occupancyRepository.findByDate(date);
+    }
+
+    /**
+     * Daily utilization of one doctor over a date range
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorDayOccupancy> getOccupancy(Long doctorId, LocalDate fromDate, LocalDate toDate) {
+        return occupancyRepository.findRange(doctorId, fromDate, toDate);
+    }
+
+    /**
+     * Recompute the table from doctor_booking, a few doctors per transaction. Runs at startup and nightly.
+     * Each transaction takes the same row locks as bookings (see rebuildDoctors), so a booking only waits
+     * while its own doctor is being rebuilt. A failed batch is logged and left for the next run.
+     */
+    @Scheduled(cron = "${occupancy.rebuild.cron:0 45 2 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        // Read-write, i.e. on the primary: a replica may not have the newest doctors yet
+        List<Long> doctorIds = transaction.execute(status -> doctorRepository.findAllIds());
+        int changed = 0;
+        for (int i = 0; i < doctorIds.size(); i += REBUILD_DOCTORS_PER_TRANSACTION) {
+            Long fromId = doctorIds.get(i);
+            Long toId = doctorIds.get(Math.min(i + REBUILD_DOCTORS_PER_TRANSACTION, doctorIds.size()) - 1);
+            try {
+                changed += transaction.execute(status -> rebuildDoctors(fromId, toId));
+            } catch (RuntimeException e) {
+                logger.error("Rebuilding occupancy of doctors {} to {} failed; retried on the next run", fromId, toId, e);
+            }
+        }
+        logger.info("Rebuilt occupancy of {} doctors ({} doctor-days corrected) in {} ms",
+            doctorIds.size(), changed, System.currentTimeMillis() - started);
+    }
+
+    // Lock the doctors' rows (creating the missing ones first), then recompute exactly those from the
+    // bookings: every booking on a locked day has committed, and new ones wait for the lock. A row a booking
+    // created after the lock was taken is not locked and is left to that booking. Returns the rows changed.
+    private int rebuildDoctors(Long fromId, Long toId) {
+        occupancyRepository.insertMissingDays(fromId, toId);
+        Map<DoctorDayOccupancy.Key, DoctorDayOccupancy> locked = new HashMap<>();
+        for (DoctorDayOccupancy day : occupancyRepository.lockDoctors(fromId, toId)) {
+            locked.put(new DoctorDayOccupancy.Key(day.getDoctorId(), day.getDate()), day);
+        }
+
+        Map<DoctorDayOccupancy.Key, DoctorDayOccupancy> rebuilt = new HashMap<>();
+        try (Stream<Object[]> rows = doctorBookingRepository.streamSlotsOfDoctors(fromId, toId)) {
+            rows.forEach(row -> {
+                DoctorDayOccupancy.Key key = new DoctorDayOccupancy.Key((Long) row[0], (LocalDate) row[1]);
+                if (locked.containsKey(key)) {
+                    rebuilt.computeIfAbsent(key, k -> new DoctorDayOccupancy(k.getDoctorId(), k.getDate()))
+                        .occupy((LocalTime) row[2], (LocalTime) row[3]);
+                }
+            });
+        }
+
+        // Only rows that drifted are written (on flush)
+        int changed = 0;
+        for (Map.Entry<DoctorDayOccupancy.Key, DoctorDayOccupancy> entry : locked.entrySet()) {
+            DoctorDayOccupancy day = entry.getValue();
+            DoctorDayOccupancy expected = rebuilt.getOrDefault(entry.getKey(), new DoctorDayOccupancy());
+            if (day.getMaskLow() != expected.getMaskLow() || day.getMaskHigh() != expected.getMaskHigh()
+                    || day.getBookedCount() != expected.getBookedCount() || day.getOffGridCount() != expected.getOffGridCount()) {
+                day.setMaskLow(expected.getMaskLow());
+                day.setMaskHigh(expected.getMaskHigh());
+                day.setBookedCount(expected.getBookedCount());
+                day.setOffGridCount(expected.getOffGridCount());
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Something kept in step with bookings and the doctor catalog (a cache, an index) from the outbox.
+ * Every OutboxConsumer bean is fed by the OutboxDispatcher, in batches and at least once: a batch that
+ * throws, or was being handled when the application stopped, is delivered again, so handling must be
+ * idempotent. Events come in id order, except that one committing late comes in the batch after.
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Key of the stored offset, so must stay the same across releases
+     */
+    String getConsumerName();
+
+    /**
+     * Called inside the dispatcher's transaction, which also stores the new offset
+     */
+    void handle(List<OutboxEvent> events);
+
+    /**
+     * Rebuild from the database, discarding what handle() built up: called (in the dispatcher's transaction)
+     * whenever this node takes up a stored offset, which another node may have moved, and when events it
+     * had not read yet were deleted
+     */
+    void resync();
+}
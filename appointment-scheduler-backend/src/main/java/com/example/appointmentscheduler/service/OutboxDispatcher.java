@@ -0,0 +1,317 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.OutboxConsumerOffset;
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.repository.OutboxConsumerOffsetRepository;
+import com.example.appointmentscheduler.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tails the outbox for every OutboxConsumer, every outbox.poll-interval-ms. Each batch is handled and
+ * the consumer's offset stored in one transaction, so a failure or a restart delivers the batch again
+ * (at least once) and a restarted consumer carries on from its offset.
+ *
+ * Ids are taken in insertion order but transactions commit in any order, so a lower id can show up
+ * after a higher one has been delivered. Such a skipped id is looked for again on every poll and
+ * delivered when it appears; after outbox.gap-timeout-ms it is taken as rolled back. The stored offset
+ * stays below the oldest skipped id, so after a restart those events are delivered again.
+ *
+ * Cursors are in memory: with several instances each one feeds its own consumers (node-local caches),
+ * all storing the same offset rows. A node taking up a stored offset may be behind what another node
+ * stored, so the consumer is resynced from the database then; likewise when events it had not read yet
+ * were deleted. Outbox ids are the version: a node is current up to its cursor.
+ *
+ * On PostgreSQL, OutboxNotificationListener dispatches as soon as events commit on any node, and the
+ * polling only runs every outbox.notify.fallback-poll-interval-ms to pick up a lost notification.
+ *
+ * Stopped first when the context closes: a batch in progress is finished, and polls and notifications
+ * arriving after that are ignored, so nothing touches the EntityManagerFactory while it is shut down.
+ */
+@Service
+public class OutboxDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    @Autowired
+    private List<OutboxConsumer> consumers;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxConsumerOffsetRepository offsetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.gap-timeout-ms:300000}")
+    private long gapTimeoutMs;
+
+    // Polling interval while notifications are being received
+    @Value("${outbox.notify.fallback-poll-interval-ms:10000}")
+    private long fallbackPollIntervalMs;
+
+    // Delivered events are kept at least this long, so consumers can be reset to an offset inside it
+    @Value("${outbox.retention-days:7}")
+    private int retentionDays;
+
+    private TransactionTemplate transaction;
+
+    // Per consumer name, loaded from the stored offset on first use and after a failure
+    private final Map<String, Cursor> cursors = new HashMap<>();
+
+    private volatile boolean notificationsActive;
+
+    private volatile long lastDispatchMillis;
+
+    private volatile boolean running;
+
+    private static final class Cursor {
+        long highest;
+        // Ids below highest not seen yet -> when they were first skipped (ms)
+        final Map<Long, Long> skippedSince = new HashMap<>();
+
+        Cursor(long offset) {
+            this.highest = offset;
+        }
+
+        void delivered(long id, long now, int maxGap) {
+            if (id <= highest) {
+                skippedSince.remove(id);
+                return;
+            }
+            // More ids in flight than that is not concurrency but a sequence jump (e.g. after a crash)
+            if (id - highest - 1 <= maxGap) {
+                for (long skipped = highest + 1; skipped < id; skipped++) {
+                    skippedSince.put(skipped, now);
+                }
+            }
+            highest = id;
+        }
+
+        void expireSkipped(long now, long timeoutMs) {
+            skippedSince.values().removeIf(since -> now - since > timeoutMs);
+        }
+
+        // Everything up to here has been delivered (or given up on)
+        long offset() {
+            return skippedSince.isEmpty() ? highest : Collections.min(skippedSince.keySet()) - 1;
+        }
+    }
+
+    /**
+     * Where a consumer stands: its offset and how many events the outbox holds past it
+     */
+    public static class ConsumerStatus {
+        private final String consumerName;
+        private final long offset;
+        private final long lag;
+
+        public ConsumerStatus(String consumerName, long offset, long lag) {
+            this.consumerName = consumerName;
+            this.offset = offset;
+            this.lag = lag;
+        }
+
+        public String getConsumerName() { return consumerName; }
+
+        public long getOffset() { return offset; }
+
+        public long getLag() { return lag; }
+    }
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Waits for a dispatch in progress: the lifecycle stops before the EntityManagerFactory closes
+    @Override
+    public synchronized void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!running) {
+            return;
+        }
+        if (!notificationsActive || System.currentTimeMillis() - lastDispatchMillis >= fallbackPollIntervalMs) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Called by OutboxNotificationListener with the highest event id notified since its last call: skipped
+     * when every consumer on this node is already past it (delivered by an earlier dispatch). Returns
+     * whether every consumer has been given the events up to it.
+     */
+    public synchronized boolean notified(long version) {
+        if (!running) {
+            return false;
+        }
+        if (!isCurrent(version)) {
+            dispatch();
+        }
+        return isCurrent(version);
+    }
+
+    private boolean isCurrent(long version) {
+        return cursors.size() == consumers.size()
+            && cursors.values().stream().allMatch(cursor -> cursor.highest >= version);
+    }
+
+    /**
+     * Set by OutboxNotificationListener: while notifications arrive, polling drops to the fallback interval
+     */
+    public void setNotificationsActive(boolean notificationsActive) {
+        this.notificationsActive = notificationsActive;
+    }
+
+    public synchronized void dispatch() {
+        if (!running) {
+            return;
+        }
+        lastDispatchMillis = System.currentTimeMillis();
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                Integer delivered;
+                do {
+                    delivered = transaction.execute(status -> deliverBatch(consumer));
+                } while (delivered != null && delivered == batchSize);
+            } catch (RuntimeException e) {
+                // Start over from the stored offset: the failed batch comes again on the next poll
+                cursors.remove(consumer.getConsumerName());
+                logger.warn("Outbox consumer {} failed, retrying from its stored offset", consumer.getConsumerName(), e);
+            }
+        }
+    }
+
+    // Deliver skipped events that have committed since plus the next batch; returns the size of the latter
+    private int deliverBatch(OutboxConsumer consumer) {
+        Cursor cursor = cursors.computeIfAbsent(consumer.getConsumerName(), name -> loadCursor(consumer));
+        long offsetBefore = cursor.offset();
+        long now = System.currentTimeMillis();
+
+        List<OutboxEvent> events = new ArrayList<>();
+        if (!cursor.skippedSince.isEmpty()) {
+            events.addAll(outboxEventRepository.findByIdInOrderById(cursor.skippedSince.keySet()));
+        }
+        List<OutboxEvent> next = outboxEventRepository.findByIdGreaterThanOrderById(cursor.highest, PageRequest.of(0, batchSize));
+        if (!next.isEmpty() && next.get(0).getId() > cursor.highest + 1) {
+            // A gap after the cursor: ids still in flight, or events deleted before this node read them
+            Long first = outboxEventRepository.findMinId();
+            if (first != null && first > cursor.highest + 1) {
+                logger.warn("Outbox events {} to {} were deleted before consumer {} read them; resyncing",
+                    cursor.highest + 1, first - 1, consumer.getConsumerName());
+                consumer.resync();
+                cursor.highest = first - 1;
+                cursor.skippedSince.clear();
+            }
+        }
+        events.addAll(next);
+
+        if (!events.isEmpty()) {
+            consumer.handle(events);
+        }
+        for (OutboxEvent event : events) {
+            cursor.delivered(event.getId(), now, batchSize);
+        }
+        cursor.expireSkipped(now, gapTimeoutMs);
+        if (cursor.offset() != offsetBefore) {
+            offsetRepository.save(new OutboxConsumerOffset(consumer.getConsumerName(), cursor.offset()));
+        }
+        return next.size();
+    }
+
+    // Resynced after reading the offset, so anything committed up to it is in the rebuilt state
+    private Cursor loadCursor(OutboxConsumer consumer) {
+        long offset = storedOffset(consumer.getConsumerName());
+        // Events below the oldest one kept are gone; do not wait for them as skipped ids
+        Long first = outboxEventRepository.findMinId();
+        if (first != null && offset < first - 1) {
+            offset = first - 1;
+        }
+        consumer.resync();
+        return new Cursor(offset);
+    }
+
+    // Read in a read-write transaction, i.e. on the primary, not a replica that may be behind
+    public List<ConsumerStatus> getStatus() {
+        return transaction.execute(status -> {
+            Long head = outboxEventRepository.findMaxId();
+            List<ConsumerStatus> statuses = new ArrayList<>();
+            for (OutboxConsumer consumer : consumers) {
+                long offset = storedOffset(consumer.getConsumerName());
+                statuses.add(new ConsumerStatus(consumer.getConsumerName(), offset, head != null ? Math.max(0, head - offset) : 0));
+            }
+            return statuses;
+        });
+    }
+
+    /**
+     * Move a consumer's offset, e.g. to 0 to have it rebuilt from every event still kept.
+     * Throws IllegalArgumentException for an unknown consumer or a negative offset.
+     */
+    public synchronized void resetOffset(String consumerName, long eventId) {
+        if (eventId < 0) {
+            throw new IllegalArgumentException("The offset must not be negative");
+        }
+        if (consumers.stream().noneMatch(consumer -> consumer.getConsumerName().equals(consumerName))) {
+            throw new IllegalArgumentException("Unknown outbox consumer: " + consumerName);
+        }
+        transaction.executeWithoutResult(status -> offsetRepository.save(new OutboxConsumerOffset(consumerName, eventId)));
+        cursors.remove(consumerName);
+        logger.info("Outbox consumer {} reset to offset {}", consumerName, eventId);
+    }
+
+    /**
+     * Delete events that every consumer has been given and that are older than the retention
+     */
+    @Scheduled(cron = "${outbox.cleanup.cron:0 45 2 * * *}")
+    public void deleteDeliveredEvents() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transaction.execute(status -> {
+            long delivered = consumers.stream()
+                .mapToLong(consumer -> storedOffset(consumer.getConsumerName()))
+                .min()
+                .orElse(Long.MAX_VALUE);
+            return outboxEventRepository.deleteDelivered(delivered, before);
+        });
+        logger.info("Deleted {} delivered outbox events older than {} days", deleted, retentionDays);
+    }
+
+    private long storedOffset(String consumerName) {
+        return offsetRepository.findById(consumerName).map(OutboxConsumerOffset::getEventId).orElse(0L);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.appointmentscheduler.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the node-local caches of every instance in step with writes made on any instance: LISTENs on
+ * OutboxService.NOTIFY_CHANNEL and has the OutboxDispatcher deliver new events as soon as a notification
+ * arrives. Notifications only wake the dispatcher, which reads the outbox itself, so one that is lost
+ * delays delivery until the next fallback poll but never drops an event.
+ *
+ * The delay from a transaction committing on any node to every consumer on this node having its events is
+ * timed as outbox.propagation. Both ends are taken on the database clock (the commit time in the payload,
+ * the delivery time through this node's measured offset to it), so skew between nodes does not count.
+ *
+ * Uses a connection of its own to the primary (spring.datasource.*), outside the pool. PostgreSQL only;
+ * while it is not connected the dispatcher polls every outbox.poll-interval-ms instead. The driver is a
+ * runtime dependency, so its notification API (PGConnection, PGNotification) is called by reflection.
+ */
+@Service
+public class OutboxNotificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxNotificationListener.class);
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${outbox.notify.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    // How long one wait for notifications blocks before checking for shutdown
+    private static final int WAIT_MS = 1000;
+
+    // How often the offset to the database clock is measured again
+    private static final long CLOCK_SYNC_INTERVAL_MS = 60_000;
+
+    private volatile boolean running;
+
+    private Class<?> pgConnection;
+
+    // PGConnection.getNotifications(int) and PGNotification.getParameter()
+    private Method getNotifications;
+    private Method getParameter;
+
+    private Timer propagation;
+
+    // Database clock minus this node's clock (ms), and when it was measured
+    private long clockOffsetMillis;
+    private long clockSyncedAt;
+
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !datasourceUrl.startsWith("jdbc:postgresql:")) {
+            logger.info("Outbox notifications need PostgreSQL; outbox events are delivered by polling");
+            return;
+        }
+        try {
+            pgConnection = Class.forName("org.postgresql.PGConnection");
+            getNotifications = pgConnection.getMethod("getNotifications", int.class);
+            getParameter = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+        } catch (ReflectiveOperationException e) {
+            logger.warn("PostgreSQL driver without LISTEN/NOTIFY support; outbox events are delivered by polling", e);
+            return;
+        }
+        propagation = Timer.builder("outbox.propagation")
+            .description("Time from an outbox transaction committing on any node to every consumer on this node having its events")
+            .register(meterRegistry);
+        running = true;
+        thread = new Thread(this::listen, "outbox-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Before the dispatcher and the pools shut down
+    @EventListener(ContextClosedEvent.class)
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(2L * WAIT_MS);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OutboxService.NOTIFY_CHANNEL);
+                }
+                Object notifications = connection.unwrap(pgConnection);
+                syncClock(connection);
+                outboxDispatcher.setNotificationsActive(true);
+                logger.info("Listening for outbox notifications");
+                // Whatever was committed while not listening
+                outboxDispatcher.dispatch();
+
+                while (running) {
+                    Object[] received = (Object[]) invoke(getNotifications, notifications, WAIT_MS);
+                    if (received != null && received.length > 0) {
+                        List<String> payloads = new ArrayList<>(received.length);
+                        for (Object notification : received) {
+                            payloads.add((String) invoke(getParameter, notification));
+                        }
+                        // Everything pending is taken at once: one dispatch for the lot
+                        if (outboxDispatcher.notified(highestVersion(payloads))) {
+                            recordPropagation(payloads);
+                        }
+                    }
+                    if (System.currentTimeMillis() - clockSyncedAt >= CLOCK_SYNC_INTERVAL_MS) {
+                        syncClock(connection);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    logger.warn("Outbox notification connection failed; polling until reconnected", e);
+                }
+            } finally {
+                outboxDispatcher.setNotificationsActive(false);
+            }
+            sleepBeforeReconnect();
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        // A connection dropped without a FIN must still fail, or notifications stop silently
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "outbox-listener");
+        return DriverManager.getConnection(datasourceUrl, properties);
+    }
+
+    // Round trip midpoint against the database's clock_timestamp(), i.e. the clock commit times are taken on
+    private void syncClock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long before = System.currentTimeMillis();
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT CAST(floor(extract(epoch FROM clock_timestamp()) * 1000) AS bigint)")) {
+                long after = System.currentTimeMillis();
+                resultSet.next();
+                clockOffsetMillis = resultSet.getLong(1) - (before + after) / 2;
+                clockSyncedAt = after;
+            }
+        }
+    }
+
+    // Payloads are "id:commitEpochMillis", id the highest event id of the notifying transaction (see OutboxService)
+    private static long highestVersion(List<String> payloads) {
+        long highest = 0;
+        for (String payload : payloads) {
+            try {
+                highest = Math.max(highest, Long.parseLong(payload.split(":", 2)[0]));
+            } catch (NumberFormatException | NullPointerException e) {
+                // Not one of ours: dispatch anyway
+                highest = Long.MAX_VALUE;
+            }
+        }
+        return highest;
+    }
+
+    private void recordPropagation(List<String> payloads) {
+        long now = System.currentTimeMillis() + clockOffsetMillis;
+        for (String payload : payloads) {
+            String[] parts = payload != null ? payload.split(":", 2) : new String[0];
+            if (parts.length == 2) {
+                try {
+                    propagation.record(Math.max(0, now - Long.parseLong(parts[1])), TimeUnit.MILLISECONDS);
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+    }
+
+    // A driver method, with the SQLException it throws passed on as is
+    private static Object invoke(Method method, Object target, Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.OutboxEvent;
+import com.example.appointmentscheduler.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Records change events in the outbox. Only callable inside the transaction making the change, so an
+ * event exists exactly when its change committed.
+ *
+ * On PostgreSQL the transaction also sends one NOTIFY on NOTIFY_CHANNEL, delivered when it commits, with
+ * the highest event id it recorded and the database clock at commit, as "id:epochMillis";
+ * OutboxNotificationListener wakes the dispatcher of every node with it.
+ */
+@Service
+public class OutboxService {
+
+    public static final String NOTIFY_CHANNEL = "outbox_events";
+
+    private static final String INSERT_EVENT =
+        "INSERT INTO outbox_events (event_type, doctor_id, appointment_id, patient_id, event_date, start_time, " +
+        "end_time, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // The last id this connection drew, i.e. the highest one recorded in the transaction, and the time now:
+    // the last statement before COMMIT, so the time the transaction took is not part of the delay measured
+    private static final String NOTIFY_EVENTS =
+        "SELECT pg_notify('" + NOTIFY_CHANNEL + "', CAST(currval(pg_get_serial_sequence('outbox_events', 'id')) AS text) " +
+        "|| ':' || CAST(floor(extract(epoch FROM clock_timestamp()) * 1000) AS bigint))";
+
+    // Transaction resource marking that the NOTIFY is already registered
+    private static final Object NOTIFY_PENDING = new Object();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${outbox.notify.enabled:true}")
+    private boolean notifyEnabled;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent event) {
+        outboxEventRepository.save(event);
+        notifyOnCommit();
+    }
+
+    /**
+     * Many events in one JDBC batch, for changes that are themselves batched (appointment series)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getType().name());
+            statement.setObject(2, event.getDoctorId(), Types.BIGINT);
+            statement.setObject(3, event.getAppointmentId(), Types.BIGINT);
+            statement.setObject(4, event.getPatientId(), Types.BIGINT);
+            statement.setObject(5, event.getDate() != null ? Date.valueOf(event.getDate()) : null, Types.DATE);
+            statement.setObject(6, event.getStartTime() != null ? Time.valueOf(event.getStartTime()) : null, Types.TIME);
+            statement.setObject(7, event.getEndTime() != null ? Time.valueOf(event.getEndTime()) : null, Types.TIME);
+            statement.setTimestamp(8, Timestamp.valueOf(event.getCreatedAt()));
+        });
+        if (!events.isEmpty()) {
+            notifyOnCommit();
+        }
+    }
+
+    // One NOTIFY per transaction however many events it records, sent last so it carries the highest id
+    private void notifyOnCommit() {
+        if (!notifyEnabled || !datasourceUrl.startsWith("jdbc:postgresql:")
+                || TransactionSynchronizationManager.hasResource(NOTIFY_PENDING)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(NOTIFY_PENDING, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                jdbcTemplate.execute(NOTIFY_EVENTS);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(NOTIFY_PENDING);
+            }
+        });
+    }
+}
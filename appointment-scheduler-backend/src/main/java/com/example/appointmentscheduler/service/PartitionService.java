@@ -0,0 +1,430 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.model.Appointment;
+import com.example.appointmentscheduler.utils.CsvReader;
+import com.example.appointmentscheduler.utils.CsvWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly range partitions for appointments (on appointment_date) and doctor_booking (on booking_date),
+ * PostgreSQL only. Queries that filter on the date only touch the partitions of that range.
+ *
+ * At startup a plain table (as Hibernate creates it) is swapped for a partitioned one with the same
+ * columns and indexes, keyed by (id, date), plus a default partition for dates without their own.
+ * maintain() runs at startup and nightly: it creates the partitions for the next partitions.months-ahead
+ * months (moving rows that landed in the default partition into theirs), then detaches every month older
+ * than partitions.retention-months, writes its rows to a gzipped CSV file under partitions.archive-dir
+ * and drops it. With several instances only one runs maintain() at a time (a PostgreSQL advisory lock);
+ * the others skip that run. Archived appointments stay readable through readArchivedAppointments(); reports and
+ * exports only see the live partitions.
+ */
+@Service
+public class PartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionService.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final DateTimeFormatter ARCHIVE_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    // <month>-<written at, epoch ms>.csv.gz: a month archived again (late rows) gets a second file
+    private static final Pattern ARCHIVE_FILE = Pattern.compile("(\\d{4}-\\d{2})-\\d+\\.csv\\.gz");
+
+    // Session-level advisory lock held by the instance running maintain()
+    private static final long MAINTAIN_LOCK_KEY = 0x70617274L;
+
+    enum PartitionedTable {
+        APPOINTMENTS("appointments", "appointment_date"),
+        DOCTOR_BOOKING("doctor_booking", "booking_date");
+
+        final String table;
+        final String dateColumn;
+        final Pattern partitionName;
+
+        PartitionedTable(String table, String dateColumn) {
+            this.table = table;
+            this.dateColumn = dateColumn;
+            this.partitionName = Pattern.compile(Pattern.quote(table) + "_p(\\d{4})_(\\d{2})");
+        }
+
+        String defaultPartition() {
+            return table + "_default";
+        }
+
+        String partition(LocalDate month) {
+            return table + month.format(PARTITION_SUFFIX);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${partitions.archive-dir:archive}")
+    private String archiveDir;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    private TransactionTemplate transaction;
+
+    /**
+     * Partition the tables before the application serves anything. Injecting JdbcTemplate makes this
+     * run after Hibernate has created the schema and data.sql has been loaded, so existing rows are copied.
+     */
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        if (!datasourceUrl.startsWith("jdbc:postgresql:")) {
+            logger.info("Table partitioning needs PostgreSQL; appointments and doctor_booking stay unpartitioned");
+            return;
+        }
+        for (PartitionedTable table : PartitionedTable.values()) {
+            String kind = relationKind(table.table);
+            if ("r".equals(kind)) {
+                transaction.executeWithoutResult(status -> partitionTable(table));
+            }
+        }
+    }
+
+    /**
+     * Create the coming months' partitions and archive the expired ones, table by table. A failed
+     * partition is logged and left for the next run. Skipped while another instance is at it.
+     */
+    @Scheduled(cron = "${partitions.maintain.cron:0 15 2 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void maintain() {
+        if (!datasourceUrl.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        // The lock belongs to this connection's session, so it is held on the connection for the whole
+        // run; the work itself uses other connections. A lost connection releases it.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, MAINTAIN_LOCK_KEY))) {
+                logger.info("Partition maintenance is running on another instance; skipped");
+                return null;
+            }
+            try {
+                maintainPartitions();
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, MAINTAIN_LOCK_KEY);
+            }
+            return null;
+        });
+    }
+
+    private void maintainPartitions() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate cutoff = thisMonth.minusMonths(retentionMonths);
+        for (PartitionedTable table : PartitionedTable.values()) {
+            if (!"p".equals(relationKind(table.table))) {
+                continue;
+            }
+            Map<LocalDate, Boolean> partitions = findPartitions(table);
+
+            TreeSet<LocalDate> missing = new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(date_trunc('month', " + table.dateColumn + ") AS date) FROM " + table.defaultPartition(),
+                LocalDate.class));
+            for (int i = 0; i <= monthsAhead; i++) {
+                missing.add(thisMonth.plusMonths(i));
+            }
+            missing.removeAll(partitions.keySet());
+            for (LocalDate month : missing) {
+                try {
+                    createPartition(table, month);
+                    partitions.put(month, true);
+                } catch (RuntimeException e) {
+                    logger.error("Creating partition {} failed; retried on the next run", table.partition(month), e);
+                }
+            }
+
+            for (Map.Entry<LocalDate, Boolean> partition : partitions.entrySet()) {
+                if (!partition.getKey().isBefore(cutoff)) {
+                    break;
+                }
+                try {
+                    archivePartition(table, partition.getKey(), partition.getValue());
+                } catch (RuntimeException e) {
+                    logger.error("Archiving partition {} failed; retried on the next run", table.partition(partition.getKey()), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archived appointments of a patient dated within [fromDate, toDate], in no particular order. Only
+     * the archive files of the months in range are read.
+     */
+    public List<Appointment> readArchivedAppointments(Long patientId, LocalDate fromDate, LocalDate toDate) {
+        Path directory = Paths.get(archiveDir, PartitionedTable.APPOINTMENTS.table);
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> {
+                Matcher matcher = ARCHIVE_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    return false;
+                }
+                YearMonth month = YearMonth.parse(matcher.group(1));
+                return !month.atDay(1).isAfter(toDate) && !month.atEndOfMonth().isBefore(fromDate);
+            }).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String patient = patientId.toString();
+        List<Appointment> appointments = new ArrayList<>();
+        for (Path file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+                CsvReader csv = new CsvReader(reader);
+                Map<String, Integer> columns = new HashMap<>();
+                List<String> header = csv.next();
+                for (int i = 0; header != null && i < header.size(); i++) {
+                    columns.put(header.get(i), i);
+                }
+                List<String> record;
+                while ((record = csv.next()) != null) {
+                    if (!patient.equals(value(record, columns, "patient_id"))) {
+                        continue;
+                    }
+                    Appointment appointment = toAppointment(record, columns);
+                    if (!appointment.getAppointmentDate().isBefore(fromDate) && !appointment.getAppointmentDate().isAfter(toDate)) {
+                        appointments.add(appointment);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reading archive " + file + " failed", e);
+            }
+        }
+        return appointments;
+    }
+
+    // Swap the plain table for a partitioned one with the same columns, rows and indexes (one transaction)
+    private void partitionTable(PartitionedTable table) {
+        long started = System.currentTimeMillis();
+        String plain = table.table + "_unpartitioned";
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT pg_get_indexdef(indexrelid) FROM pg_index WHERE indrelid = to_regclass(?) AND NOT indisprimary",
+            String.class, table.table);
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table.table);
+        Boolean identity = jdbcTemplate.queryForObject(
+            "SELECT attidentity <> '' FROM pg_attribute WHERE attrelid = to_regclass(?) AND attname = 'id'", Boolean.class, table.table);
+
+        jdbcTemplate.execute("LOCK TABLE " + table.table + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + table.table + " RENAME TO " + plain);
+        jdbcTemplate.execute("CREATE TABLE " + table.table + " (LIKE " + plain +
+            " INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING CONSTRAINTS) PARTITION BY RANGE (" + table.dateColumn + ")");
+        jdbcTemplate.execute("CREATE TABLE " + table.defaultPartition() + " PARTITION OF " + table.table + " DEFAULT");
+        int rows = jdbcTemplate.update("INSERT INTO " + table.table + " SELECT * FROM " + plain);
+        if (Boolean.TRUE.equals(identity)) {
+            // The copied identity column has a new sequence; continue after the copied ids
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), COALESCE(MAX(id), 0) + 1, false) FROM " +
+                table.table, Long.class, table.table);
+        } else if (sequence != null) {
+            // bigserial (Hibernate's IDENTITY on PostgreSQL): the copied default still draws from the old
+            // table's sequence, which would be dropped with it
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table.table + ".id");
+        }
+        jdbcTemplate.execute("DROP TABLE " + plain);
+
+        // A primary key of a partitioned table must include the partition column; the other indexes
+        // (dropped with the plain table, so their names are free again) are recreated on every partition
+        jdbcTemplate.execute("ALTER TABLE " + table.table + " ADD PRIMARY KEY (id, " + table.dateColumn + ")");
+        for (String index : indexes) {
+            jdbcTemplate.execute(index);
+        }
+        logger.info("Partitioned {} by month of {} ({} rows copied) in {} ms",
+            table.table, table.dateColumn, rows, System.currentTimeMillis() - started);
+    }
+
+    // Create a month's partition, taking over its rows from the default partition (attaching checks that none are left)
+    private void createPartition(PartitionedTable table, LocalDate month) {
+        String partition = table.partition(month);
+        LocalDate end = month.plusMonths(1);
+        int moved = transaction.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table.table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + table.defaultPartition() +
+                " WHERE " + table.dateColumn + " >= ? AND " + table.dateColumn + " < ? RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved", month, end);
+            jdbcTemplate.execute("ALTER TABLE " + table.table + " ATTACH PARTITION " + partition +
+                " FOR VALUES FROM ('" + month + "') TO ('" + end + "')");
+            return rows;
+        });
+        logger.info("Created partition {} ({} rows moved from {})", partition, moved, table.defaultPartition());
+    }
+
+    // Detach (unless a failed run already did), write the rows to the archive, then drop the table
+    private void archivePartition(PartitionedTable table, LocalDate month, boolean attached) {
+        long started = System.currentTimeMillis();
+        String partition = table.partition(month);
+        if (attached) {
+            transaction.executeWithoutResult(status ->
+                jdbcTemplate.execute("ALTER TABLE " + table.table + " DETACH PARTITION " + partition));
+        }
+
+        Path directory = Paths.get(archiveDir, table.table);
+        String name = month.format(ARCHIVE_MONTH) + "-" + System.currentTimeMillis() + ".csv.gz";
+        Path file = directory.resolve(name);
+        Path temporary = directory.resolve(name + ".tmp");
+        long rows;
+        try {
+            Files.createDirectories(directory);
+            rows = writeArchive(partition, temporary);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing archive " + file + " failed", e);
+        }
+
+        transaction.executeWithoutResult(status -> jdbcTemplate.execute("DROP TABLE " + partition));
+        logger.info("Archived partition {} ({} rows) to {} in {} ms", partition, rows, file, System.currentTimeMillis() - started);
+    }
+
+    // All rows of a (detached) partition as gzipped CSV with a header line, read through a cursor
+    private long writeArchive(String partition, Path file) throws IOException {
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+            CsvWriter csv = new CsvWriter(writer);
+            // Not read-only: the partition was just detached on the primary, a replica may not have it yet
+            return transaction.execute(status -> cursor.query("SELECT * FROM " + partition, (ResultSetExtractor<Long>) resultSet -> {
+                try {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    int columns = metaData.getColumnCount();
+                    for (int i = 1; i <= columns; i++) {
+                        csv.field(metaData.getColumnLabel(i));
+                    }
+                    csv.endRecord();
+                    long rows = 0;
+                    while (resultSet.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            csv.field(AppointmentExportService.text(resultSet, i));
+                        }
+                        csv.endRecord();
+                        rows++;
+                    }
+                    return rows;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Monthly partitions of the table: month -> still attached (a detached one was left by a failed archive run)
+    private Map<LocalDate, Boolean> findPartitions(PartitionedTable table) {
+        Map<LocalDate, Boolean> partitions = new TreeMap<>();
+        jdbcTemplate.query(
+            "SELECT c.relname, EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid) FROM pg_class c " +
+            "WHERE c.relkind = 'r' AND c.relname LIKE ? AND pg_table_is_visible(c.oid)",
+            resultSet -> {
+                Matcher matcher = table.partitionName.matcher(resultSet.getString(1));
+                if (matcher.matches()) {
+                    LocalDate month = LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+                    partitions.put(month, resultSet.getBoolean(2));
+                }
+            }, table.table + "_p%");
+        return partitions;
+    }
+
+    // pg_class.relkind of a table in the search path: r plain, p partitioned, null when missing
+    private String relationKind(String table) {
+        List<String> kinds = jdbcTemplate.queryForList("SELECT relkind FROM pg_class WHERE oid = to_regclass(?)", String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private static Appointment toAppointment(List<String> record, Map<String, Integer> columns) {
+        Appointment appointment = new Appointment();
+        try {
+            appointment.setId(Long.valueOf(value(record, columns, "id")));
+            appointment.setPatientId(Long.valueOf(value(record, columns, "patient_id")));
+            appointment.setDoctorId(Long.valueOf(value(record, columns, "doctor_id")));
+            appointment.setAppointmentDate(LocalDate.parse(value(record, columns, "appointment_date")));
+            appointment.setStartTime(LocalTime.parse(value(record, columns, "start_time")));
+            appointment.setEndTime(LocalTime.parse(value(record, columns, "end_time")));
+        } catch (NumberFormatException | DateTimeParseException | NullPointerException e) {
+            throw new IllegalStateException("Malformed archived appointment: " + record, e);
+        }
+        appointment.setStatus(value(record, columns, "status"));
+        appointment.setReasonForVisit(value(record, columns, "reason_for_visit"));
+        appointment.setAdditionalNotes(value(record, columns, "additional_notes"));
+        appointment.setSeriesId(value(record, columns, "series_id"));
+        String createdAt = value(record, columns, "created_at");
+        appointment.setCreatedAt(createdAt != null ? LocalDateTime.parse(createdAt) : null);
+        String updatedAt = value(record, columns, "updated_at");
+        appointment.setUpdatedAt(updatedAt != null ? LocalDateTime.parse(updatedAt) : null);
+        return appointment;
+    }
+
+    // A field by column name; empty (CSV for null) and unknown columns read as null
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.appointmentscheduler.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published by DoctorBookingService when a booked slot is freed (cancel, reschedule, expired hold).
+ * Listeners should use @TransactionalEventListener so they only see slots whose release committed.
+ */
+public class SlotReleasedEvent {
+
+    private final Long doctorId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    public SlotReleasedEvent(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this.doctorId = doctorId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+
+    public LocalDate getDate() { return date; }
+
+    public LocalTime getStartTime() { return startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+
+    @Override
+    public String toString() {
+        return "SlotReleasedEvent{doctorId=" + doctorId + ", date=" + date +
+            ", startTime=" + startTime + ", endTime=" + endTime + '}';
+    }
+}
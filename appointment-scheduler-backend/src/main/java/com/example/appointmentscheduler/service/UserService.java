@@ -3,24 +3,39 @@ package com.example.appointmentscheduler.service;
 import com.example.appointmentscheduler.model.User;
 import com.example.appointmentscheduler.model.UserRole;
 import com.example.appointmentscheduler.repository.UserRepository;
+import com.example.appointmentscheduler.model.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.List;
 
 @Service
 public class UserService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private GazetteerService gazetteerService;
+    
     // Registration
+    @Transactional
     public User registerUser(User user) {
         // Check if email already exists
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
         
+        geocode(user);
+        
         // Save user with encrypted password (in real app, use BCrypt)
         return userRepository.save(user);
     }
@@ -46,6 +61,7 @@ public class UserService {
     }
     
     // Update user profile
+    @Transactional
     public User updateUser(Long userId, User updatedUser) {
         Optional<User> existingUser = userRepository.findById(userId);
         if (existingUser.isPresent()) {
@@ -53,13 +69,21 @@ public class UserService {
             user.setFirstName(updatedUser.getFirstName());
             user.setLastName(updatedUser.getLastName());
             user.setPhoneNumber(updatedUser.getPhoneNumber());
-            user.setLocation(updatedUser.getLocation());
+            if (!Objects.equals(user.getLocation(), updatedUser.getLocation())) {
+                // A new location always takes the gazetteer's coordinates: the client may echo back the old ones
+                user.setLocation(updatedUser.getLocation());
+                locate(user);
+            } else if (updatedUser.getLatitude() != null && updatedUser.getLongitude() != null) {
+                user.setLatitude(updatedUser.getLatitude());
+                user.setLongitude(updatedUser.getLongitude());
+            }
             return userRepository.save(user);
         }
         throw new RuntimeException("User not found");
     }
     
     // Delete user
+    @Transactional
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
     }
@@ -79,4 +103,49 @@ public class UserService {
         Optional<User> user = userRepository.findById(userId);
         return user.isPresent() && user.get().getRole() == UserRole.ADMIN;
     }
+    
+    // Resolve a chat user id ("guest" or a numeric user id) to the user, if known
+    public Optional<User> findChatUser(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        if ("guest".equals(userId)) {
+            return userRepository.findByEmail("guest@example.com");
+        }
+        try {
+            return userRepository.findById(Long.parseLong(userId.trim()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+    
+    // Fill in home coordinates from the gazetteer when the client did not send them
+    private void geocode(User user) {
+        if (user.getLatitude() == null || user.getLongitude() == null) {
+            locate(user);
+        }
+    }
+    
+    // Home coordinates from the gazetteer; an unknown location clears them rather than keeping the old place
+    private void locate(User user) {
+        GeoPoint point = gazetteerService.lookup(user.getLocation());
+        user.setLatitude(point != null ? point.getLatitude() : null);
+        user.setLongitude(point != null ? point.getLongitude() : null);
+    }
+    
+    /**
+     * Geocode users created before coordinates existed (or by data.sql), one bulk update per location
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void geocodeExistingUsers() {
+        int updated = 0;
+        for (String location : userRepository.findLocationsMissingCoordinates()) {
+            GeoPoint point = gazetteerService.lookup(location);
+            if (point != null) {
+                updated += userRepository.assignCoordinates(location, point.getLatitude(), point.getLongitude());
+            }
+        }
+        logger.info("Geocoded {} users from the gazetteer", updated);
+    }
 }
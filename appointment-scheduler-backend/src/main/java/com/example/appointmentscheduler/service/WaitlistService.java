@@ -0,0 +1,291 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.controller.AppointmentController.BookingRequest;
+import com.example.appointmentscheduler.datasource.ReplicaStickiness;
+import com.example.appointmentscheduler.model.Appointment;
+import com.example.appointmentscheduler.model.TimeSlot;
+import com.example.appointmentscheduler.model.WaitlistEntry;
+import com.example.appointmentscheduler.repository.DoctorRepository;
+import com.example.appointmentscheduler.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Waitlist for fully booked doctors. Nothing polls: each committed SlotReleasedEvent offers the
+ * slot to the oldest waiting entry whose window fits it (one seek on idx_waitlist_queue).
+ * Entries with autoConfirm get the appointment booked at once; the others get the slot held
+ * for waitlist.offer-hold-minutes. Accepting books it; declining or letting the hold expire
+ * releases it, which passes it on to the next entry through the same event.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final List<String> OPEN_STATUSES = List.of("WAITING", "OFFERED");
+
+    // Entries tried per released slot when concurrent releases claim the same ones first
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorBookingService doctorBookingService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private ReplicaStickiness replicaStickiness;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${waitlist.offer-hold-minutes:15}")
+    private long offerHoldMinutes;
+
+    // Offers run after the releasing transaction committed, so they need their own
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Join the waitlist for a doctor on a date, for any slot inside [windowStart, windowEnd]
+     */
+    @Transactional
+    public WaitlistEntry join(Long patientId, Long doctorId, String date, String windowStart, String windowEnd,
+                              String reasonForVisit, boolean autoConfirm) {
+        if (patientId == null) {
+            throw new IllegalArgumentException("Patient is required");
+        }
+        if (doctorId == null || !doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found");
+        }
+        if (reasonForVisit == null || reasonForVisit.trim().isEmpty()) {
+            throw new IllegalArgumentException("Reason for visit is required");
+        }
+        LocalDate requestedDate;
+        try {
+            requestedDate = LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        if (requestedDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Date must not be in the past");
+        }
+        TimeSlot window = TimeSlot.parse(windowStart, windowEnd);
+
+        if (waitlistRepository.existsByPatientIdAndDoctorIdAndRequestedDateAndStatusIn(
+                patientId, doctorId, requestedDate, OPEN_STATUSES)) {
+            throw new IllegalStateException("Already on the waitlist for this doctor and date");
+        }
+        WaitlistEntry entry = new WaitlistEntry(patientId, doctorId, requestedDate, window.getStart(),
+            window.getEnd(), reasonForVisit.trim(), autoConfirm);
+        replicaStickiness.recordWrite(patientId);
+        return waitlistRepository.save(entry);
+    }
+
+    /**
+     * Book the slot held for an entry
+     */
+    @Transactional
+    public WaitlistEntry accept(Long entryId) {
+        WaitlistEntry entry = findOffered(entryId);
+        if (entry.getOfferExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalStateException("The offer has expired");
+        }
+        // Swap the hold for the real booking; the release event finds the slot taken again and does nothing
+        releaseHold(entry);
+        Appointment appointment = appointmentService.createAppointment(bookingRequest(entry,
+            entry.getOfferedStartTime(), entry.getOfferedEndTime()));
+        entry.setStatus("BOOKED");
+        entry.setAppointmentId(appointment.getId());
+        count("accepted");
+        return entry;
+    }
+
+    /**
+     * Turn down the slot held for an entry; it leaves the waitlist and the slot goes to the next entry
+     */
+    @Transactional
+    public WaitlistEntry decline(Long entryId) {
+        WaitlistEntry entry = findOffered(entryId);
+        entry.setStatus("DECLINED");
+        releaseHold(entry);
+        count("declined");
+        return entry;
+    }
+
+    /**
+     * Leave the waitlist (releasing the held slot, if any)
+     */
+    @Transactional
+    public WaitlistEntry leave(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findByIdForUpdate(entryId)
+            .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found"));
+        if (!OPEN_STATUSES.contains(entry.getStatus())) {
+            throw new IllegalStateException("Waitlist entry is already " + entry.getStatus().toLowerCase());
+        }
+        if ("OFFERED".equals(entry.getStatus())) {
+            releaseHold(entry);
+        }
+        entry.setStatus("CANCELLED");
+        return entry;
+    }
+
+    public List<WaitlistEntry> getPatientEntries(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByIdDesc(patientId);
+    }
+
+    /**
+     * Offer a freed slot to the waitlist once the release has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotReleased(SlotReleasedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> offerSlot(event));
+        } catch (RuntimeException e) {
+            // The release itself has committed; a failed offer must not fail the caller
+            logger.warn("Could not offer released slot {} to the waitlist", event, e);
+        }
+    }
+
+    private void offerSlot(SlotReleasedEvent slot) {
+        // Someone may have booked it between the release and now (or a reschedule moved into it)
+        if (!doctorBookingService.isTimeSlotAvailable(slot.getDoctorId(), slot.getDate(),
+                slot.getStartTime(), slot.getEndTime())) {
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            List<WaitlistEntry> next = waitlistRepository.findNextEligible(slot.getDoctorId(), slot.getDate(),
+                slot.getStartTime(), slot.getEndTime(), PageRequest.of(0, 1));
+            if (next.isEmpty()) {
+                return;
+            }
+            WaitlistEntry entry = next.get(0);
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(offerHoldMinutes);
+            if (waitlistRepository.claimForOffer(entry.getId(), slot.getStartTime(), slot.getEndTime(), expiresAt) == 0) {
+                continue;
+            }
+            // Keep the loaded entity in step with the UPDATE above, since it is flushed again below
+            entry.setStatus("OFFERED");
+            entry.setOfferedStartTime(slot.getStartTime());
+            entry.setOfferedEndTime(slot.getEndTime());
+            entry.setOfferExpiresAt(expiresAt);
+
+            if (entry.isAutoConfirm()) {
+                Appointment appointment = appointmentService.createAppointment(
+                    bookingRequest(entry, slot.getStartTime(), slot.getEndTime()));
+                entry.setStatus("BOOKED");
+                entry.setAppointmentId(appointment.getId());
+                count("booked");
+                logger.info("Booked released slot {} for waitlist entry {}", slot, entry.getId());
+            } else {
+                doctorBookingService.createBooking(slot.getDoctorId(), slot.getDate(),
+                    slot.getStartTime(), slot.getEndTime());
+                scheduleExpiry(entry.getId(), expiresAt);
+                count("held");
+                logger.info("Holding released slot {} for waitlist entry {} until {}", slot, entry.getId(), expiresAt);
+            }
+            return;
+        }
+        logger.warn("Gave up offering slot {} after {} contended claims", slot, MAX_CLAIM_ATTEMPTS);
+    }
+
+    /**
+     * Holds whose expiry timer was lost with a restart get one again (past ones fire at once)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenOfferExpiries() {
+        for (WaitlistEntry entry : waitlistRepository.findByStatus("OFFERED")) {
+            scheduleExpiry(entry.getId(), entry.getOfferExpiresAt());
+        }
+    }
+
+    private void scheduleExpiry(Long entryId, LocalDateTime expiresAt) {
+        taskScheduler.schedule(() -> expireOffer(entryId), expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void expireOffer(Long entryId) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                WaitlistEntry entry = waitlistRepository.findByIdForUpdate(entryId).orElse(null);
+                // Accepted, declined or withdrawn in time
+                if (entry == null || !"OFFERED".equals(entry.getStatus())) {
+                    return;
+                }
+                entry.setStatus("EXPIRED");
+                releaseHold(entry);
+                count("expired");
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not expire waitlist offer {}", entryId, e);
+        }
+    }
+
+    private WaitlistEntry findOffered(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findByIdForUpdate(entryId)
+            .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found"));
+        if (!"OFFERED".equals(entry.getStatus())) {
+            throw new IllegalStateException("No slot is on offer for this waitlist entry");
+        }
+        return entry;
+    }
+
+    private void releaseHold(WaitlistEntry entry) {
+        doctorBookingService.releaseBooking(entry.getDoctorId(), entry.getRequestedDate(),
+            entry.getOfferedStartTime(), entry.getOfferedEndTime());
+    }
+
+    private static BookingRequest bookingRequest(WaitlistEntry entry, LocalTime startTime, LocalTime endTime) {
+        return new BookingRequest(
+            entry.getDoctorId(),
+            entry.getPatientId(),
+            entry.getRequestedDate().toString(),
+            startTime.toString(),
+            endTime.toString(),
+            entry.getReasonForVisit(),
+            "Booked from waitlist",
+            "CONFIRMED"
+        );
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("waitlist.offers", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.appointmentscheduler.utils;
+
+import com.example.appointmentscheduler.dto.ChatResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the AI service /chat response body (reply, intent, entities) into a ChatResponse,
+ * including the enhanced fields carried in the entities (confidence, clarification, fallback level)
+ */
+public final class AIResponseParser {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AIResponseParser() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Parse a response body; throws if it is not JSON or has no reply/intent
+     */
+    public static ChatResponse parse(String jsonResponse) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(jsonResponse);
+        if (node == null || !node.hasNonNull("reply") || !node.hasNonNull("intent")) {
+            throw new IllegalArgumentException("AI response without reply or intent");
+        }
+
+        ChatResponse response = new ChatResponse();
+        response.setReply(node.get("reply").asText());
+        response.setIntent(node.get("intent").asText());
+
+        // Parse entities
+        Map<String, Object> entities = new HashMap<>();
+        JsonNode entitiesNode = node.get("entities");
+        if (entitiesNode != null) {
+            entitiesNode.fields().forEachRemaining(entry -> {
+                JsonNode valueNode = entry.getValue();
+                if (valueNode.isArray()) {
+                    // Handle arrays (like clarification_questions)
+                    List<String> arrayValues = new ArrayList<>();
+                    valueNode.forEach(item -> arrayValues.add(item.asText()));
+                    entities.put(entry.getKey(), arrayValues);
+                } else {
+                    entities.put(entry.getKey(), valueNode.asText());
+                }
+            });
+        }
+        response.setEntities(entities);
+
+        // Parse new enhanced fields from entities
+        if (entitiesNode != null) {
+            // Map confidence level
+            if (entitiesNode.has("confidence")) {
+                double confidence = entitiesNode.get("confidence").asDouble();
+                response.setConfidenceLevel(mapConfidenceLevel(confidence));
+            }
+
+            // Map requires clarification
+            if (entitiesNode.has("requires_clarification")) {
+                response.setRequiresClarification(entitiesNode.get("requires_clarification").asBoolean());
+            }
+
+            // Map clarification questions
+            if (entitiesNode.has("clarification_questions")) {
+                JsonNode questionsNode = entitiesNode.get("clarification_questions");
+                if (questionsNode.isArray()) {
+                    List<String> questions = new ArrayList<>();
+                    questionsNode.forEach(q -> questions.add(q.asText()));
+                    response.setClarificationQuestions(questions);
+                }
+            }
+
+            // Map fallback level
+            if (entitiesNode.has("fallback_level")) {
+                response.setFallbackLevel(entitiesNode.get("fallback_level").asText());
+            }
+        }
+
+        response.setSuccess(true);
+        return response;
+    }
+
+    /**
+     * Map numeric confidence to string levels
+     */
+    private static String mapConfidenceLevel(double confidence) {
+        if (confidence >= 0.8) {
+            return "high";
+        } else if (confidence >= 0.5) {
+            return "medium";
+        } else {
+            return "low";
+        }
+    }
+}
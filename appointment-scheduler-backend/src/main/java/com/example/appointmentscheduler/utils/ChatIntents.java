@@ -1,5 +1,7 @@
 package com.example.appointmentscheduler.utils;
 
+import java.util.Set;
+
 /**
  * Constants for all chat intents used throughout the application
  */
@@ -11,6 +13,7 @@ public class ChatIntents {
     public static final String BOOK_APPOINTMENT = "book_appointment";
     public static final String DOCTOR_RECOMMENDATION = "doctor_recommendation";
     public static final String CONFIRMATION = "confirmation";
+    public static final String CLARIFICATION = "clarification";
     
     // Booking Flow Intents (from ConversationalBookingService)
     public static final String BOOKING_LOCATION_SELECTION = "booking_location_selection";
@@ -24,6 +27,21 @@ public class ChatIntents {
     public static final String ERROR = "error";
     public static final String BOOKING_START = "booking_start";
     
+    // Intents the AI service may return, used as metric tag values
+    private static final Set<String> AI_INTENTS = Set.of(
+        SYMPTOM_CHECK, GENERAL_CHAT, BOOK_APPOINTMENT, DOCTOR_RECOMMENDATION, CONFIRMATION, CLARIFICATION, ERROR);
+    
+    /**
+     * Intent as a metric tag: unknown values collapse to "other" so the AI service cannot grow tag cardinality
+     */
+    public static String forMetrics(String intent) {
+        if (intent == null) {
+            return "none";
+        }
+        String normalized = intent.toLowerCase();
+        return AI_INTENTS.contains(normalized) ? normalized : "other";
+    }
+    
     // Private constructor to prevent instantiation
     private ChatIntents() {
         throw new IllegalStateException("Utility class");
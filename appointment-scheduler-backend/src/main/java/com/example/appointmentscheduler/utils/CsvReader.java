@@ -0,0 +1,108 @@
+package com.example.appointmentscheduler.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time from a Reader: fields separated by commas, optionally
+ * quoted ("" inside quotes is a quote), quoted fields may span lines, records end with LF or CRLF.
+ * Nothing beyond the current record is kept, so input of any size streams through.
+ */
+public final class CsvReader {
+
+    private final Reader reader;
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+
+    // The reader should be buffered
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * The next record's fields, or null at the end of the input. Blank lines are skipped.
+     * Throws IllegalArgumentException for a quote that is never closed.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n' || peek() != '\n') {
+                line++;
+            }
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        // Byte order mark some spreadsheet tools put before the header
+        if (recordLine == 0 && c == '\uFEFF') {
+            c = read();
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unclosed quote in the record starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Line on which the last record returned by next() started (1-based)
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
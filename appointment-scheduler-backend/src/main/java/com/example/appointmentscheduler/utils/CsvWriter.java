@@ -0,0 +1,45 @@
+package com.example.appointmentscheduler.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV field by field, the counterpart of CsvReader: fields are quoted when they hold a
+ * comma, quote or line break ("" inside quotes is a quote), records end with CRLF, null is an empty field.
+ */
+public final class CsvWriter {
+
+    private final Writer writer;
+    private boolean firstField = true;
+
+    // The writer should be buffered
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void field(String value) throws IOException {
+        if (!firstField) {
+            writer.write(',');
+        }
+        firstField = false;
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    public void endRecord() throws IOException {
+        writer.write("\r\n");
+        firstField = true;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
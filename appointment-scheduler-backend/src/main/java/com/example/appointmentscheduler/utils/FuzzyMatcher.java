@@ -0,0 +1,256 @@
+package com.example.appointmentscheduler.utils;
+
+import com.example.appointmentscheduler.model.TimeSlot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant matching of a chat reply against a small, fixed set of options
+ * (e.g. "banglore" -> "Bangalore", "03:00 pn" -> "03:00 PM - 04:00 PM").
+ * Text is compared with case, spaces and punctuation removed. Candidates are prefiltered
+ * with a trigram index built once per option set, then verified with an edit distance
+ * that stops as soon as the bound is exceeded. Digits are never corrected, so "10 am"
+ * cannot turn into "11 am".
+ */
+public final class FuzzyMatcher {
+
+    // Alias target meaning "recognised, but not an option" (e.g. "9 PM" when only 9 AM is offered)
+    private static final String NOT_AN_OPTION = "";
+
+    private final List<String> aliases = new ArrayList<>();
+    private final List<String> optionOfAlias = new ArrayList<>();
+    private final List<String> digitsOfAlias = new ArrayList<>();
+    private final List<Integer> trigramCountOfAlias = new ArrayList<>();
+    // Trigram -> indexes of the aliases containing it
+    private final Map<Long, List<Integer>> postings = new HashMap<>();
+
+    /**
+     * Match against the options themselves
+     */
+    public FuzzyMatcher(List<String> options) {
+        for (String option : options) {
+            addAlias(option, option);
+        }
+    }
+
+    /**
+     * Match against alternative spellings; each alias resolves to its option
+     */
+    public FuzzyMatcher(Map<String, String> optionByAlias) {
+        for (Map.Entry<String, String> entry : optionByAlias.entrySet()) {
+            addAlias(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Options plus the start time of each slot in its usual spellings ("09:00 AM", "9:00", "9am", "9").
+     * The same time with the other AM/PM is registered as not an option, so "9pm" is not read as "9am".
+     */
+    public static FuzzyMatcher forTimeSlots(List<String> timeSlots) {
+        Map<String, String> optionByAlias = new LinkedHashMap<>();
+        for (String slot : timeSlots) {
+            optionByAlias.put(slot, slot);
+            for (String alias : startTimeSpellings(TimeSlot.parse(slot).getStartMinute())) {
+                optionByAlias.putIfAbsent(alias, slot);
+            }
+        }
+        for (String slot : timeSlots) {
+            int start = TimeSlot.parse(slot).getStartMinute();
+            int otherMeridiem = (start + 12 * 60) % (24 * 60);
+            for (String alias : startTimeSpellings(otherMeridiem)) {
+                // Only the AM/PM spellings: a bare "9" or "9:00" still means the offered slot
+                if (Character.isLetter(alias.charAt(alias.length() - 1))) {
+                    optionByAlias.putIfAbsent(alias, NOT_AN_OPTION);
+                }
+            }
+        }
+        return new FuzzyMatcher(optionByAlias);
+    }
+
+    // "09:00 AM", "9:00 AM", "9 AM" (whole hours only), "09:00", "9:00", "9" (whole hours only)
+    private static List<String> startTimeSpellings(int minuteOfDay) {
+        String label = TimeSlot.formatTime(minuteOfDay);          // "09:00 AM"
+        String clock = label.substring(0, 5);                      // "09:00"
+        String meridiem = label.substring(6);                      // "AM"
+        String shortClock = clock.charAt(0) == '0' ? clock.substring(1) : clock;
+        List<String> spellings = new ArrayList<>();
+        spellings.add(label);
+        spellings.add(shortClock + " " + meridiem);
+        spellings.add(clock);
+        spellings.add(shortClock);
+        if (minuteOfDay % 60 == 0) {
+            String hour = shortClock.substring(0, shortClock.indexOf(':'));
+            spellings.add(hour + " " + meridiem);
+            spellings.add(hour);
+        }
+        return spellings;
+    }
+
+    /**
+     * The option closest to the input within the allowed number of edits, or null when nothing
+     * is close enough or two different options are equally close.
+     */
+    public String match(String input) {
+        String query = normalize(input);
+        if (query.isEmpty()) {
+            return null;
+        }
+
+        int maxEdits = maxEditsFor(query.length());
+        String queryDigits = digitsOf(query);
+        Set<Long> queryTrigrams = trigramsOf(query);
+
+        // Count trigrams shared with each alias
+        int[] shared = new int[aliases.size()];
+        for (Long trigram : queryTrigrams) {
+            List<Integer> containing = postings.get(trigram);
+            if (containing != null) {
+                for (int index : containing) {
+                    shared[index]++;
+                }
+            }
+        }
+
+        String bestOption = null;
+        int bestDistance = Integer.MAX_VALUE;
+        boolean ambiguous = false;
+        for (int i = 0; i < aliases.size(); i++) {
+            String alias = aliases.get(i);
+            if (Math.abs(alias.length() - query.length()) > maxEdits || !digitsOfAlias.get(i).equals(queryDigits)) {
+                continue;
+            }
+            // One edit changes at most 3 trigrams, so fewer shared trigrams than this rules the alias out
+            int required = Math.max(queryTrigrams.size(), trigramCountOfAlias.get(i)) - 3 * maxEdits;
+            if (shared[i] < required) {
+                continue;
+            }
+
+            int distance = boundedEditDistance(query, alias, Math.min(maxEdits, bestDistance));
+            if (distance < 0) {
+                continue;
+            }
+            String option = optionOfAlias.get(i);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestOption = option;
+                ambiguous = false;
+            } else if (distance == bestDistance && !option.equals(bestOption)) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous || NOT_AN_OPTION.equals(bestOption) ? null : bestOption;
+    }
+
+    /**
+     * Levenshtein distance between a and b, or -1 as soon as it is known to exceed maxDistance.
+     * Only the diagonal band of width 2 * maxDistance + 1 is computed.
+     */
+    static int boundedEditDistance(String a, String b, int maxDistance) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxDistance) {
+            return -1;
+        }
+
+        int outside = maxDistance + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= maxDistance ? j : outside;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            current[0] = i <= maxDistance ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = outside;
+            }
+            // Every path to the end passes through this row
+            if (rowMin > maxDistance) {
+                return -1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m] <= maxDistance ? previous[m] : -1;
+    }
+
+    private void addAlias(String alias, String option) {
+        String normalized = normalize(alias);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        int index = aliases.size();
+        aliases.add(normalized);
+        optionOfAlias.add(option);
+        digitsOfAlias.add(digitsOf(normalized));
+        Set<Long> trigrams = trigramsOf(normalized);
+        trigramCountOfAlias.add(trigrams.size());
+        for (Long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new ArrayList<>()).add(index);
+        }
+    }
+
+    // 1 edit for short words, 2 up to 8 characters, 3 beyond
+    private static int maxEditsFor(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        return length <= 4 ? 1 : (length <= 8 ? 2 : 3);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String digitsOf(String text) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                digits.append(text.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+
+    // Distinct trigrams of the text padded with two markers on each side, packed into a long
+    private static Set<Long> trigramsOf(String text) {
+        String padded = "\u0001\u0001" + text + "\u0002\u0002";
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.appointmentscheduler.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule-based keyword classification of chat text, used when the AI service is bypassed or to
+ * interpret its free-text reply: whether a message describes symptoms, and which specialities
+ * and conditions it points to
+ */
+public final class SymptomKeywords {
+
+    // Common symptom keywords
+    private static final String[] SYMPTOM_KEYWORDS = {
+        "headache", "fever", "pain", "ache", "hurt", "sick", "ill",
+        "cough", "cold", "flu", "nausea", "dizzy", "tired", "fatigue",
+        "stomach", "chest", "back", "throat", "ear", "eye", "skin",
+        "rash", "bleeding", "swollen", "infection", "symptom", "problem",
+        "i have", "i feel", "experiencing", "suffering"
+    };
+
+    private SymptomKeywords() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Check if user message contains symptom-related keywords
+     */
+    public static boolean containsSymptoms(String message) {
+        if (message == null) return false;
+
+        String lowerMessage = message.toLowerCase();
+        for (String keyword : SYMPTOM_KEYWORDS) {
+            if (lowerMessage.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine medical specialty based on the symptoms in a user message
+     */
+    public static String determineSpecialty(String message) {
+        if (message == null) return null;
+
+        String lowerMessage = message.toLowerCase();
+
+        // Heart/Chest related
+        if (lowerMessage.contains("chest pain") || lowerMessage.contains("heart")) {
+            return "Cardiology";
+        }
+
+        // Skin related
+        if (lowerMessage.contains("skin") || lowerMessage.contains("rash")) {
+            return "Dermatology";
+        }
+
+        // Respiratory
+        if (lowerMessage.contains("cough") || lowerMessage.contains("breathing") || lowerMessage.contains("lung")) {
+            return "Pulmonology";
+        }
+
+        // Digestive
+        if (lowerMessage.contains("stomach") || lowerMessage.contains("nausea") || lowerMessage.contains("digestive")) {
+            return "Gastroenterology";
+        }
+
+        // Bone/Joint
+        if (lowerMessage.contains("joint") || lowerMessage.contains("back pain") || lowerMessage.contains("bone")) {
+            return "Orthopedics";
+        }
+
+        // Eye related
+        if (lowerMessage.contains("eye") || lowerMessage.contains("vision")) {
+            return "Ophthalmology";
+        }
+
+        // ENT
+        if (lowerMessage.contains("ear") || lowerMessage.contains("throat") || lowerMessage.contains("nose")) {
+            return "ENT";
+        }
+
+        // Neurological
+        if (lowerMessage.contains("headache") || lowerMessage.contains("migraine") || lowerMessage.contains("dizzy")) {
+            return "Neurology";
+        }
+
+        // Default to General Medicine
+        return "General Medicine";
+    }
+
+    /**
+     * Specialities mentioned in the AI service's reply; "General" if none
+     */
+    public static List<String> extractSpecialties(String aiReply) {
+        // Simple keyword matching for specialties
+        List<String> specialties = new ArrayList<>();
+        String lowerReply = aiReply.toLowerCase();
+
+        if (lowerReply.contains("heart") || lowerReply.contains("cardiac") || lowerReply.contains("cardiologist")) {
+            specialties.add("Cardiology");
+        }
+        if (lowerReply.contains("dermat") || lowerReply.contains("skin") || lowerReply.contains("rash")) {
+            specialties.add("Dermatology");
+        }
+        if (lowerReply.contains("neuro") || lowerReply.contains("brain") || lowerReply.contains("headache")) {
+            specialties.add("Neurology");
+        }
+        if (lowerReply.contains("ortho") || lowerReply.contains("bone") || lowerReply.contains("joint")) {
+            specialties.add("Orthopedics");
+        }
+        if (lowerReply.contains("pediatr") || lowerReply.contains("child") || lowerReply.contains("baby")) {
+            specialties.add("Pediatrics");
+        }
+
+        // Default to general medicine if no specific specialty found
+        if (specialties.isEmpty()) {
+            specialties.add("General");
+        }
+
+        return specialties;
+    }
+
+    /**
+     * Condition groups (fever, headache, respiratory, digestive) named in the patient's symptoms
+     */
+    public static List<String> extractConditions(String symptoms) {
+        List<String> conditions = new ArrayList<>();
+        String lowerSymptoms = symptoms.toLowerCase();
+
+        if (lowerSymptoms.contains("fever") || lowerSymptoms.contains("temperature")) {
+            conditions.add("fever");
+        }
+        if (lowerSymptoms.contains("headache") || lowerSymptoms.contains("head pain")) {
+            conditions.add("headache");
+        }
+        if (lowerSymptoms.contains("cough") || lowerSymptoms.contains("cold")) {
+            conditions.add("respiratory");
+        }
+        if (lowerSymptoms.contains("stomach") || lowerSymptoms.contains("abdominal")) {
+            conditions.add("digestive");
+        }
+
+        return conditions;
+    }
+}
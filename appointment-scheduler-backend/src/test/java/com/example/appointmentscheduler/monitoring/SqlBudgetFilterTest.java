@@ -0,0 +1,97 @@
+package com.example.appointmentscheduler.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlBudgetFilterTest {
+
+    private SqlBudgetFilter filter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlBudgetFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "maxStatements", 5);
+        ReflectionTestUtils.setField(filter, "maxRows", 5000L);
+        ReflectionTestUtils.setField(filter, "maxRepeatedStatements", 3);
+    }
+
+    @Test
+    void failModeFailsOverBudgetRequestBeforeAnythingIsCommitted() throws Exception {
+        ReflectionTestUtils.setField(filter, "failOnViolation", true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(SqlBudgetExceededException.class,
+            () -> filter.doFilter(new MockHttpServletRequest("GET", "/api/doctors"), response, handler(10)));
+
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.counter("sql.budget.violations",
+            "method", "GET", "uri", "UNKNOWN", "kind", "statements").count());
+    }
+
+    @Test
+    void failModePassesRequestWithinBudgetThrough() throws Exception {
+        ReflectionTestUtils.setField(filter, "failOnViolation", true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/doctors"), response, handler(2));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void failModeExemptsUnboundedRequests() throws Exception {
+        ReflectionTestUtils.setField(filter, "failOnViolation", true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/export");
+        request.setAttribute(SqlBudgetFilter.UNBOUNDED_ATTRIBUTE, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, handler(10));
+
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void warnModeOnlyRecordsTheViolation() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/doctors"), response, handler(10));
+
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.counter("sql.budget.violations",
+            "method", "GET", "uri", "UNKNOWN", "kind", "repeated_statement").count());
+    }
+
+    // Runs the same query statements times, then writes and flushes a 200 body
+    private static MockFilterChain handler(int statements) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                for (int i = 0; i < statements; i++) {
+                    SqlStatementStats.current().recordStatement("select * from doctors where id = " + i, 1000);
+                }
+                response.setStatus(200);
+                response.getWriter().write("[]");
+                response.flushBuffer();
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.appointmentscheduler.service;
+
+import com.example.appointmentscheduler.AppointmentSchedulerApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Two instances against one PostgreSQL database: a doctor added on one must show up in the other's
+ * spatial index through LISTEN/NOTIFY, well before the fallback poll would deliver it, and the receiving
+ * node must time it as outbox.propagation.
+ *
+ * Needs a PostgreSQL server (-Dit.postgres.url, default localhost:5433) and is skipped without one. It
+ * (re)creates its own database, appointment_scheduler_it, so the instances' ddl-auto=create leaves the
+ * application's database alone.
+ */
+class OutboxPropagationTest {
+
+    private static final String SERVER_URL = System.getProperty("it.postgres.url", "jdbc:postgresql://localhost:5433/");
+    private static final String USERNAME = System.getProperty("it.postgres.username", "postgres");
+    private static final String PASSWORD = System.getProperty("it.postgres.password", "123");
+    private static final String DATABASE = "appointment_scheduler_it";
+
+    // Far above the expected propagation, far below the fallback poll
+    private static final long VISIBLE_WITHIN_MS = 5000;
+    private static final long FALLBACK_POLL_MS = 60000;
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startInstances() throws Exception {
+        try (Connection connection = DriverManager.getConnection(SERVER_URL + "postgres", USERNAME, PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + DATABASE);
+        } catch (SQLException e) {
+            assumeTrue(false, "No PostgreSQL at " + SERVER_URL + ": " + e.getMessage());
+        }
+        // The first instance creates the schema and loads data.sql, the second starts on top of it
+        writer = start("--spring.jpa.hibernate.ddl-auto=create", "--spring.sql.init.mode=always");
+        reader = start("--spring.jpa.hibernate.ddl-auto=none", "--spring.sql.init.mode=never");
+        awaitListening(writer);
+        awaitListening(reader);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void doctorAddedOnOneInstanceIsFoundOnTheOther() throws Exception {
+        String speciality = "Propagation " + UUID.randomUUID();
+        String name = "Dr. " + UUID.randomUUID();
+        Timer propagation = reader.getBean(MeterRegistry.class).find("outbox.propagation").timer();
+        assertNotNull(propagation);
+        long recorded = propagation.count();
+
+        HttpResponse<String> added = http.send(HttpRequest.newBuilder(uri(writer, "/api/admin/doctors"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"" + name + "\",\"speciality\":\"" + speciality
+                    + "\",\"location\":\"Chicago\",\"feesPerHour\":100}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, added.statusCode(), added.body());
+        long addedAt = System.currentTimeMillis();
+
+        URI nearby = uri(reader, "/api/doctors/nearby?location=Chicago&speciality="
+            + URLEncoder.encode(speciality, StandardCharsets.UTF_8));
+        while (!http.send(HttpRequest.newBuilder(nearby).build(), HttpResponse.BodyHandlers.ofString()).body().contains(name)) {
+            if (System.currentTimeMillis() - addedAt > VISIBLE_WITHIN_MS) {
+                fail("Doctor added on one instance not found on the other within " + VISIBLE_WITHIN_MS + " ms");
+            }
+            Thread.sleep(20);
+        }
+        assertTrue(propagation.count() > recorded, "outbox.propagation not recorded on the receiving instance");
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        String[] common = {
+            "--server.port=0",
+            "--management.server.port=0",
+            "--spring.datasource.url=" + SERVER_URL + DATABASE,
+            "--spring.datasource.username=" + USERNAME,
+            "--spring.datasource.password=" + PASSWORD,
+            "--outbox.notify.fallback-poll-interval-ms=" + FALLBACK_POLL_MS,
+            "--spring.jpa.show-sql=false",
+            "--logging.level.org.hibernate.SQL=INFO",
+        };
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+        return new SpringApplicationBuilder(AppointmentSchedulerApplication.class).run(all);
+    }
+
+    // The listener connects on its own thread after startup; until then the dispatcher polls
+    private static void awaitListening(ConfigurableApplicationContext context) throws InterruptedException {
+        OutboxDispatcher dispatcher = context.getBean(OutboxDispatcher.class);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!Boolean.TRUE.equals(ReflectionTestUtils.getField(dispatcher, "notificationsActive"))) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Outbox listener did not connect");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static URI uri(ConfigurableApplicationContext context, String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.dto.ChatResponse;
+import com.example.appointmentscheduler.utils.AIResponseParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIResponseParser.parse, which AIAgentService runs on every AI service /chat body,
+ * with and without clarification questions
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AIResponseParseBenchmark {
+
+    // Distinct response bodies cycled through
+    @Param({"256"})
+    private int responses;
+
+    // Clarification questions per response
+    @Param({"0", "5"})
+    private int questions;
+
+    private List<String> bodies;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bodies = Fixtures.aiResponses(responses, questions, 42L);
+    }
+
+    @Benchmark
+    public ChatResponse parse() throws Exception {
+        String body = bodies.get(next);
+        next = next + 1 == bodies.size() ? 0 : next + 1;
+        return AIResponseParser.parse(body);
+    }
+}
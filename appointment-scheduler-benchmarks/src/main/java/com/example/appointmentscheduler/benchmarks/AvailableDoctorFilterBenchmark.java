@@ -0,0 +1,51 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.service.DoctorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The booked-doctor filter at the end of DoctorService.findAvailableDoctors: excludeBooked (hashed ids)
+ * versus the previous stream filter calling List.contains for every doctor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailableDoctorFilterBenchmark {
+
+    // Doctors matching the location/speciality filter
+    @Param({"1000", "10000"})
+    private int doctors;
+
+    // Share of those doctors already booked in the requested slot
+    @Param({"1", "20"})
+    private int bookedPercent;
+
+    private List<DoctorSummary> candidates;
+    private List<Long> bookedIds;
+
+    @Setup
+    public void setUp() {
+        candidates = Fixtures.doctors(doctors, 42L);
+        bookedIds = Fixtures.bookedDoctorIds(doctors, doctors * bookedPercent / 100, 43L);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> excludeBooked() {
+        return DoctorService.excludeBooked(candidates, bookedIds);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> listContainsBaseline() {
+        return candidates.stream()
+            .filter(doctor -> !bookedIds.contains(doctor.getId()))
+            .collect(Collectors.toList());
+    }
+}
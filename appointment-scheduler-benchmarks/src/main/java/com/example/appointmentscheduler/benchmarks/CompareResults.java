@@ -0,0 +1,80 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Diff two JMH JSON result files (-rf json) and flag regressions.
+ * Usage: CompareResults baseline.json current.json [thresholdPercent, default 10]
+ * Exits with status 1 when any benchmark is slower than the baseline by more than the threshold.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s (new)%n", entry.getKey(), "-", score, "", unit);
+                continue;
+            }
+
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = previous != 0 ? (score - previous) / previous * 100 : 0;
+            // Throughput modes: higher is better; time modes: lower is better
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double slowdown = higherIsBetter ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), previous, score, change, unit,
+                regressed ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%n%d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Benchmark name plus parameters -> result entry
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                .replace("com.example.appointmentscheduler.", ""));
+            JsonNode params = result.path("params");
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
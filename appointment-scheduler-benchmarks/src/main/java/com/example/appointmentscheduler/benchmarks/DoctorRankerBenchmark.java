@@ -0,0 +1,58 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.service.DoctorRanker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Top-K doctor ranking with the bounded heap versus scoring and fully sorting the candidates
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorRankerBenchmark {
+
+    @Param({"50000"})
+    private int candidates;
+
+    @Param({"1", "10", "100"})
+    private int k;
+
+    private static final GeoPoint CHICAGO = new GeoPoint(41.8781, -87.6298);
+
+    private List<DoctorSummary> doctors;
+    private DoctorRanker ranker;
+
+    @Setup
+    public void setUp() {
+        doctors = Fixtures.doctors(candidates, 42L);
+        ranker = new DoctorRanker(0.4, 0.2, 0.2, 0.2, 30, 500, 50);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> boundedHeapTopK() {
+        return ranker.topK(doctors, "Chicago", CHICAGO, k);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> fullSortBaseline() {
+        // Score each candidate once, then sort everything
+        return doctors.stream()
+            .map(d -> new Scored(d, ranker.score(d, "Chicago", CHICAGO)))
+            .sorted(Comparator.comparingDouble(Scored::score).reversed())
+            .limit(k)
+            .map(Scored::doctor)
+            .collect(Collectors.toList());
+    }
+
+    private record Scored(DoctorSummary doctor, double score) {}
+}
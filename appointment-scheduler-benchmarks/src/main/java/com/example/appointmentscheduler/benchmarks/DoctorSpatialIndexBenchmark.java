@@ -0,0 +1,55 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.model.GeoPoint;
+import com.example.appointmentscheduler.service.DoctorSpatialIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Speciality + k-nearest query on the grid index versus filtering the speciality and sorting by distance
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorSpatialIndexBenchmark {
+
+    private static final GeoPoint CHICAGO = new GeoPoint(41.8781, -87.6298);
+
+    @Param({"50000"})
+    private int doctorCount;
+
+    @Param({"10"})
+    private int k;
+
+    private List<DoctorSummary> doctors;
+    private DoctorSpatialIndex index;
+
+    @Setup
+    public void setUp() {
+        doctors = Fixtures.doctors(doctorCount, 42L);
+        index = new DoctorSpatialIndex(0.5);
+        index.rebuild(doctors);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> gridNearest() {
+        return index.nearest(CHICAGO, "Cardiology", k, 500);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> filterAndSortBaseline() {
+        return doctors.stream()
+            .filter(d -> d.getSpeciality().toLowerCase().contains("cardiology"))
+            .sorted(Comparator.comparingDouble(d -> CHICAGO.distanceKm(d.getLatitude(), d.getLongitude())))
+            .limit(k)
+            .collect(Collectors.toList());
+    }
+}
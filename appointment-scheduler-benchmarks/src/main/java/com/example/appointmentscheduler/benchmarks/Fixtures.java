@@ -0,0 +1,164 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.model.DoctorBooking;
+import com.example.appointmentscheduler.model.TimeSlot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory fixtures shared by the benchmark suites
+ */
+public final class Fixtures {
+
+    public static final String[] LOCATIONS = {
+        "New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Philadelphia", "San Antonio",
+        "San Diego", "Dallas", "San Jose", "Austin", "Jacksonville", "Fort Worth", "Columbus", "Charlotte"
+    };
+
+    // Latitude/longitude of each entry in LOCATIONS
+    public static final double[][] COORDINATES = {
+        {40.7128, -74.0060}, {34.0522, -118.2437}, {41.8781, -87.6298}, {29.7604, -95.3698},
+        {33.4484, -112.0740}, {39.9526, -75.1652}, {29.4241, -98.4936}, {32.7157, -117.1611},
+        {32.7767, -96.7970}, {37.3382, -121.8863}, {30.2672, -97.7431}, {30.3322, -81.6557},
+        {32.7555, -97.3308}, {39.9612, -82.9988}, {35.2271, -80.8431}
+    };
+
+    public static final String[] SPECIALITIES = {
+        "Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "Gynecology",
+        "General Medicine", "Pulmonology", "Gastroenterology", "Ophthalmology", "ENT"
+    };
+
+    // Slots offered by the UI, in label form
+    public static final String[] SLOT_LABELS = {
+        "09:00 AM - 10:00 AM", "10:00 AM - 11:00 AM", "11:00 AM - 12:00 PM", "12:00 PM - 01:00 PM",
+        "01:00 PM - 02:00 PM", "02:00 PM - 03:00 PM", "03:00 PM - 04:00 PM", "04:00 PM - 05:00 PM"
+    };
+
+    // Phrases patients type, mixed into generated chat messages
+    private static final String[] SYMPTOM_PHRASES = {
+        "chest pain", "a skin rash", "a bad cough", "stomach ache and nausea", "back pain", "blurry vision",
+        "a sore throat", "a migraine", "fever and chills", "a swollen knee", "my child has a temperature",
+        "trouble breathing", "dizzy spells", "joint pain"
+    };
+
+    private static final String[] FILLER = {
+        "Hi,", "Hello, I think", "For the past three days", "Since yesterday", "Doctor, I have been noticing that",
+        "I need help because", "Good morning."
+    };
+
+    private Fixtures() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Generate {@code count} available doctors with a fixed seed so runs are comparable.
+     * Clinics are scattered up to ~30 km around their city.
+     */
+    public static List<DoctorSummary> doctors(int count, long seed) {
+        Random random = new Random(seed);
+        List<DoctorSummary> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int city = random.nextInt(LOCATIONS.length);
+            doctors.add(new DoctorSummary(
+                (long) (i + 1),
+                "Dr. Benchmark " + i,
+                SPECIALITIES[random.nextInt(SPECIALITIES.length)],
+                LOCATIONS[city],
+                1 + random.nextInt(35),
+                BigDecimal.valueOf(80 + random.nextInt(320)),
+                BigDecimal.valueOf(30 + random.nextInt(21), 1),
+                true,
+                COORDINATES[city][0] + (random.nextDouble() - 0.5) * 0.5,
+                COORDINATES[city][1] + (random.nextDouble() - 0.5) * 0.5
+            ));
+        }
+        return doctors;
+    }
+
+    /**
+     * {@code count} existing bookings for one doctor on one day, each an hour long on the 30-minute grid
+     */
+    public static List<DoctorBooking> bookings(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate day = LocalDate.of(2025, 1, 15);
+        List<DoctorBooking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TimeSlot slot = randomSlot(random);
+            bookings.add(new DoctorBooking(1L, day, slot.getStart(), slot.getEnd()));
+        }
+        return bookings;
+    }
+
+    /**
+     * An hour-long slot starting on the half hour between 06:00 and 21:30
+     */
+    public static TimeSlot randomSlot(Random random) {
+        int start = 6 * 60 + 30 * random.nextInt(32);
+        return TimeSlot.of(start, start + 60);
+    }
+
+    /**
+     * Ids of {@code count} distinct doctors out of 1..doctorCount
+     */
+    public static List<Long> bookedDoctorIds(int doctorCount, int count, long seed) {
+        Random random = new Random(seed);
+        List<Long> ids = new ArrayList<>(doctorCount);
+        for (long id = 1; id <= doctorCount; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        return new ArrayList<>(ids.subList(0, Math.min(count, doctorCount)));
+    }
+
+    /**
+     * Free-text chat messages, most of them describing a symptom
+     */
+    public static List<String> chatMessages(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(5) == 0) {
+                messages.add("Can I book an appointment for next week in " + LOCATIONS[random.nextInt(LOCATIONS.length)] + "?");
+            } else {
+                messages.add(FILLER[random.nextInt(FILLER.length)] + " I have "
+                    + SYMPTOM_PHRASES[random.nextInt(SYMPTOM_PHRASES.length)] + " and it is getting worse.");
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * JSON bodies shaped like the AI service /chat response, with {@code questions} clarification questions
+     */
+    public static List<String> aiResponses(int count, int questions, long seed) {
+        Random random = new Random(seed);
+        List<String> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder json = new StringBuilder(256);
+            json.append("{\"reply\":\"Based on what you describe, a ")
+                .append(SPECIALITIES[random.nextInt(SPECIALITIES.length)])
+                .append(" specialist should take a look.\",\"intent\":\"symptom_check\",\"entities\":{")
+                .append("\"specialty\":\"").append(SPECIALITIES[random.nextInt(SPECIALITIES.length)]).append("\",")
+                .append("\"symptoms\":[\"").append(SYMPTOM_PHRASES[random.nextInt(SYMPTOM_PHRASES.length)]).append("\"],")
+                .append("\"confidence\":").append(random.nextInt(100) / 100.0).append(',')
+                .append("\"requires_clarification\":").append(questions > 0).append(',')
+                .append("\"fallback_level\":\"none\",")
+                .append("\"clarification_questions\":[");
+            for (int q = 0; q < questions; q++) {
+                if (q > 0) {
+                    json.append(',');
+                }
+                json.append("\"How long have you had this symptom (question ").append(q + 1).append(")?\"");
+            }
+            json.append("]}}");
+            responses.add(json.toString());
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.model.DoctorBooking;
+import com.example.appointmentscheduler.model.DoctorDayOccupancy;
+import com.example.appointmentscheduler.model.TimeSlot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict check of a slot against one doctor's bookings on one day: the occupancy mask that
+ * OccupancyService.isAvailable tests (DoctorDayOccupancy.overlaps), versus TimeSlot.overlaps against
+ * every booking. Reported per candidate slot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotConflictBenchmark {
+
+    private static final int CANDIDATES = 64;
+
+    // Existing bookings for the doctor and day being checked
+    @Param({"8", "64", "512"})
+    private int bookings;
+
+    private DoctorDayOccupancy occupancy;
+    private List<TimeSlot> existingSlots;
+    private TimeSlot[] candidates;
+
+    @Setup
+    public void setUp() {
+        List<DoctorBooking> existing = Fixtures.bookings(bookings, 42L);
+        occupancy = new DoctorDayOccupancy(1L, LocalDate.now());
+        existingSlots = new ArrayList<>(existing.size());
+        for (DoctorBooking booking : existing) {
+            occupancy.occupy(booking.getStartTime(), booking.getEndTime());
+            existingSlots.add(TimeSlot.of(booking.getStartTime(), booking.getEndTime()));
+        }
+        Random random = new Random(7L);
+        candidates = new TimeSlot[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates[i] = Fixtures.randomSlot(random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public int occupancyMask() {
+        int available = 0;
+        for (TimeSlot candidate : candidates) {
+            if (!occupancy.overlaps(candidate.getStart(), candidate.getEnd())) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public int timeSlotOverlaps() {
+        int available = 0;
+        for (TimeSlot candidate : candidates) {
+            boolean free = true;
+            for (TimeSlot booked : existingSlots) {
+                if (booked.overlaps(candidate)) {
+                    free = false;
+                    break;
+                }
+            }
+            if (free) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+}
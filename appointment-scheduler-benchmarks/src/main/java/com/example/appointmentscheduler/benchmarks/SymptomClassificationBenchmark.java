@@ -0,0 +1,57 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.utils.SymptomKeywords;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based symptom keyword classification used by the chat flow (SymptomKeywords), one message per op:
+ * containsSymptoms / determineSpecialty as AIAgentService runs them, and
+ * extractSpecialties / extractConditions as ConversationalBookingService does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymptomClassificationBenchmark {
+
+    // Distinct chat messages cycled through
+    @Param({"1024"})
+    private int messages;
+
+    private List<String> chatMessages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        chatMessages = Fixtures.chatMessages(messages, 42L);
+    }
+
+    @Benchmark
+    public boolean containsSymptoms() {
+        return SymptomKeywords.containsSymptoms(nextMessage());
+    }
+
+    @Benchmark
+    public String determineSpecialty() {
+        return SymptomKeywords.determineSpecialty(nextMessage());
+    }
+
+    @Benchmark
+    public void extractSpecialtiesAndConditions(Blackhole blackhole) {
+        String message = nextMessage();
+        blackhole.consume(SymptomKeywords.extractSpecialties(message));
+        blackhole.consume(SymptomKeywords.extractConditions(message));
+    }
+
+    private String nextMessage() {
+        String message = chatMessages.get(next);
+        next = next + 1 == chatMessages.size() ? 0 : next + 1;
+        return message;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.appointmentscheduler.benchmarks;
+
+import com.example.appointmentscheduler.model.TimeSlot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing "09:00 AM - 10:00 AM" slot labels: TimeSlot's scanner and interned catalog versus the
+ * split/parseInt parser the services used before. Run with -prof gc to compare allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeSlotParseBenchmark {
+
+    private static final String[] LABELS = {
+        "09:00 AM - 10:00 AM", "10:00 AM - 11:00 AM", "11:00 AM - 12:00 PM", "12:00 PM - 01:00 PM",
+        "01:00 PM - 02:00 PM", "02:00 PM - 03:00 PM", "03:00 PM - 04:00 PM", "04:00 PM - 05:00 PM"
+    };
+
+    private int next;
+
+    @Benchmark
+    public TimeSlot timeSlotParse() {
+        return TimeSlot.parse(nextLabel());
+    }
+
+    @Benchmark
+    public void legacySplitParse(Blackhole blackhole) {
+        String[] parts = nextLabel().split(" - ");
+        blackhole.consume(legacyParseTime(parts[0].trim()));
+        blackhole.consume(legacyParseTime(parts[1].trim()));
+    }
+
+    private String nextLabel() {
+        String label = LABELS[next];
+        next = (next + 1) & (LABELS.length - 1);
+        return label;
+    }
+
+    // The parser previously copied into DoctorService, AppointmentService and ConversationalBookingService
+    private static LocalTime legacyParseTime(String timeStr) {
+        String[] parts = timeStr.split(" ");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid time format: " + timeStr);
+        }
+
+        String[] timeParts = parts[0].split(":");
+        int hour = Integer.parseInt(timeParts[0]);
+        int minute = Integer.parseInt(timeParts[1]);
+
+        if ("PM".equals(parts[1]) && hour != 12) {
+            hour += 12;
+        } else if ("AM".equals(parts[1]) && hour == 12) {
+            hour = 0;
+        }
+
+        return LocalTime.of(hour, minute);
+    }
+}
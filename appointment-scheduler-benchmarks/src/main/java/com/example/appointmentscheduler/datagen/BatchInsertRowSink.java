@@ -0,0 +1,63 @@
+package com.example.appointmentscheduler.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * JDBC batched INSERTs, committed every batch; used for databases without COPY (e.g. H2)
+ */
+public class BatchInsertRowSink implements RowSink {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long rowCount;
+
+    public BatchInsertRowSink(Connection connection, int batchSize, String table, String... columns)
+            throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        this.statement = connection.prepareStatement(
+            "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        rowCount++;
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+}
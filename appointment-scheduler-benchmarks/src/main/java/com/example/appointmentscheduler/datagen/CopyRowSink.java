@@ -0,0 +1,89 @@
+package com.example.appointmentscheduler.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into PostgreSQL with COPY ... FROM STDIN in text format. One COPY per table,
+ * so a load is a single statement per table instead of one round trip per batch.
+ */
+public class CopyRowSink implements RowSink {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private long rowCount;
+
+    public CopyRowSink(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+        PGCopyOutputStream out = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, BUFFER_BYTES);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new SQLException("COPY failed after " + rowCount + " rows", e);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            // Closing the copy stream ends the COPY and surfaces any server-side error
+            writer.close();
+        } catch (IOException e) {
+            throw new SQLException("COPY failed after " + rowCount + " rows", e);
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof Boolean) {
+            line.append((Boolean) value ? 't' : 'f');
+        } else if (value instanceof BigDecimal) {
+            line.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            line.append(value);
+        } else {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': line.append("\\\\"); break;
+                    case '\t': line.append("\\t"); break;
+                    case '\n': line.append("\\n"); break;
+                    case '\r': line.append("\\r"); break;
+                    default: line.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.appointmentscheduler.datagen;
+
+import com.example.appointmentscheduler.AppointmentSchedulerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a large, reproducible dataset straight into the application's tables: doctors with
+ * reviews, patients, and two years of appointments with their doctor_booking slots.
+ * Specialities and cities are Zipf-skewed, doctors have lognormal popularity, and weekends are
+ * quiet. Every row is derived from the seed and its own id, so the same options always give the
+ * same data. PostgreSQL is loaded with COPY; other databases (H2) use batched inserts.
+ *
+ * Options (all --name=value): url, user, password, doctors, users, appointments,
+ * reviews-per-doctor, start (first appointment date), days, as-of (the date past appointments are
+ * before, by default the middle of the period), seed, batch, mode (auto|copy|insert), truncate,
+ * create-schema. Nothing depends on the current date.
+ */
+public class DatasetGenerator {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("url", "jdbc:postgresql://localhost:5433/appointment_scheduler");
+        DEFAULTS.put("user", "postgres");
+        DEFAULTS.put("password", "123");
+        DEFAULTS.put("doctors", "10000");
+        DEFAULTS.put("users", "200000");
+        DEFAULTS.put("appointments", "2000000");
+        DEFAULTS.put("reviews-per-doctor", "20");
+        DEFAULTS.put("start", "2025-01-01");
+        DEFAULTS.put("days", "730");
+        // Empty: start + days / 2
+        DEFAULTS.put("as-of", "");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("batch", "5000");
+        DEFAULTS.put("mode", "auto");
+        DEFAULTS.put("truncate", "false");
+        DEFAULTS.put("create-schema", "false");
+    }
+
+    // Most common first: the Zipf skew makes General Medicine far more common than Pulmonology
+    static final String[] SPECIALITIES = {
+        "General Medicine", "Pediatrics", "Gynecology", "Orthopedics", "Dermatology", "Cardiology",
+        "ENT", "Ophthalmology", "Gastroenterology", "Neurology", "Pulmonology"
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Priya", "Wei",
+        "Carlos", "Aisha", "Hiroshi", "Fatima", "Olga", "Mateo", "Amara", "Noah", "Emma", "Liam"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Patel", "Nguyen", "Kim", "Chen", "Singh", "Khan", "Ivanova", "Okafor", "Sato"
+    };
+
+    private static final String[] REASONS = {
+        "Follow-up consultation", "First visit", "Persistent pain", "Routine check-up", "Test results review",
+        "Prescription renewal", "Second opinion", "Recurring symptoms", "Pre-operative assessment"
+    };
+
+    // Review texts by rating (1-5)
+    private static final String[][] REVIEW_TEXTS = {
+        {"Very disappointing visit.", "Long wait and a rushed appointment."},
+        {"Not very helpful.", "Felt the doctor did not listen."},
+        {"Average experience.", "Okay, but the clinic was disorganised."},
+        {"Good doctor, explained everything clearly.", "Helpful and professional."},
+        {"Excellent care, highly recommend!", "Outstanding doctor, solved my problem quickly."}
+    };
+
+    // Review ratings skew positive, as they do on real review sites
+    private static final int[] RATING_WEIGHTS = {4, 6, 12, 33, 45};
+
+    // One-hour slots between 09:00 and 17:00
+    private static final LocalTime[] SLOT_STARTS = new LocalTime[8];
+
+    static {
+        for (int i = 0; i < SLOT_STARTS.length; i++) {
+            SLOT_STARTS[i] = LocalTime.of(9 + i, 0);
+        }
+    }
+
+    // Random streams, so each kind of row draws from its own sequence
+    private static final long DOCTOR_STREAM = 1;
+    private static final long REVIEW_STREAM = 2;
+    private static final long USER_STREAM = 3;
+    private static final long APPOINTMENT_STREAM = 4;
+
+    private static final double POPULARITY_SIGMA = 0.6;
+
+    private final long seed;
+    private final int doctorCount;
+    private final int userCount;
+    private final long appointmentTarget;
+    private final double reviewsPerDoctor;
+    private final LocalDate start;
+    private final int days;
+    private final LocalDate asOf;
+    private final List<String> cityNames = new ArrayList<>();
+    private final List<double[]> cityCoordinates = new ArrayList<>();
+    private final ZipfSampler specialitySampler = new ZipfSampler(SPECIALITIES.length, 0.8);
+    private final ZipfSampler citySampler;
+
+    // Per doctor (index = id), filled by the doctors pass and used by the reviews and appointments passes
+    private final float[] popularity;
+    private final boolean[] available;
+
+    public DatasetGenerator(long seed, int doctorCount, int userCount, long appointmentTarget, double reviewsPerDoctor,
+                            LocalDate start, int days, LocalDate asOf) throws IOException {
+        this.seed = seed;
+        this.doctorCount = doctorCount;
+        this.userCount = userCount;
+        this.appointmentTarget = appointmentTarget;
+        this.reviewsPerDoctor = reviewsPerDoctor;
+        this.start = start;
+        this.days = days;
+        this.asOf = asOf;
+        loadCities();
+        this.citySampler = new ZipfSampler(cityNames.size(), 1.0);
+        this.popularity = new float[doctorCount + 1];
+        this.available = new boolean[doctorCount + 1];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String url = options.get("url");
+        if (Boolean.parseBoolean(options.get("create-schema"))) {
+            createSchema(url, options.get("user"), options.get("password"));
+        }
+
+        LocalDate start = LocalDate.parse(options.get("start"));
+        int days = Integer.parseInt(options.get("days"));
+        String asOf = options.get("as-of");
+        DatasetGenerator generator = new DatasetGenerator(
+            Long.parseLong(options.get("seed")),
+            Integer.parseInt(options.get("doctors")),
+            Integer.parseInt(options.get("users")),
+            Long.parseLong(options.get("appointments")),
+            Double.parseDouble(options.get("reviews-per-doctor")),
+            start,
+            days,
+            asOf.isEmpty() ? start.plusDays(days / 2) : LocalDate.parse(asOf));
+
+        try (Connection connection = DriverManager.getConnection(url, options.get("user"), options.get("password"));
+             Connection bookingConnection = DriverManager.getConnection(url, options.get("user"), options.get("password"))) {
+            boolean postgres = connection.getMetaData().getDatabaseProductName().contains("PostgreSQL");
+            String mode = options.get("mode");
+            boolean copy = "auto".equals(mode) ? postgres : "copy".equals(mode);
+            if (copy && !postgres) {
+                throw new IllegalArgumentException("--mode=copy needs PostgreSQL");
+            }
+            int batch = Integer.parseInt(options.get("batch"));
+            SinkFactory sinks = copy
+                ? (c, table, columns) -> new CopyRowSink(c, table, columns)
+                : (c, table, columns) -> new BatchInsertRowSink(c, batch, table, columns);
+
+            if (Boolean.parseBoolean(options.get("truncate"))) {
+                truncate(connection, postgres);
+            } else {
+                requireEmpty(connection);
+            }
+            System.out.printf("Loading with %s into %s%n", copy ? "COPY" : "batched INSERT", url);
+
+            long started = System.nanoTime();
+            generator.generateDoctors(sinks, connection);
+            generator.generateReviews(sinks, connection);
+            generator.generateUsers(sinks, connection);
+            generator.generateAppointments(sinks, connection, bookingConnection);
+            finish(connection, postgres);
+            System.out.printf("Done in %.1f s%n", (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    @FunctionalInterface
+    interface SinkFactory {
+        RowSink open(Connection connection, String table, String... columns) throws SQLException;
+    }
+
+    void generateDoctors(SinkFactory sinks, Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        double popularityMean = Math.exp(POPULARITY_SIGMA * POPULARITY_SIGMA / 2);
+        try (RowSink doctors = sinks.open(connection, "doctors",
+                "id", "name", "category", "speciality", "years_of_experience", "fees_per_hour", "rating",
+                "review_count", "rating_sum", "location", "latitude", "longitude", "available", "experience",
+                "qualifications", "about", "contact_number", "email")) {
+            for (int id = 1; id <= doctorCount; id++) {
+                SplittableRandom random = random(DOCTOR_STREAM, id);
+                String speciality = SPECIALITIES[specialitySampler.sample(random)];
+                int city = citySampler.sample(random);
+                String name = "Dr. " + pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+                int years = 1 + random.nextInt(40);
+                // Lognormal, scaled to mean 1: a few doctors are several times busier than average
+                popularity[id] = (float) (Math.exp(POPULARITY_SIGMA * random.nextGaussian()) / popularityMean);
+                available[id] = random.nextInt(100) < 95;
+
+                int[] ratings = reviewRatings(id);
+                long ratingSum = 0;
+                for (int rating : ratings) {
+                    ratingSum += rating;
+                }
+                BigDecimal average = ratings.length > 0
+                    ? BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(ratings.length), 2, RoundingMode.HALF_UP)
+                    : null;
+
+                doctors.add(id, name, speciality, speciality, years,
+                    BigDecimal.valueOf(8000 + random.nextInt(32001), 2), average, ratings.length, ratingSum,
+                    cityNames.get(city), jitter(random, cityCoordinates.get(city)[0]),
+                    jitter(random, cityCoordinates.get(city)[1]), available[id],
+                    years + " years experience in " + speciality, "MBBS, MD (" + speciality + ")",
+                    random.nextInt(3) == 0 ? name + " has practised in " + cityNames.get(city) + " for " + years + " years." : null,
+                    "+1-555-" + (1000000 + random.nextInt(9000000)), "doctor" + id + "@clinic.example.com");
+            }
+            report("doctors", doctors.getRowCount(), started);
+        }
+    }
+
+    void generateReviews(SinkFactory sinks, Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        long reviewId = 0;
+        try (RowSink reviews = sinks.open(connection, "doctor_reviews", "id", "doctor_id", "review_text", "rating")) {
+            for (int doctorId = 1; doctorId <= doctorCount; doctorId++) {
+                int[] ratings = reviewRatings(doctorId);
+                for (int i = 0; i < ratings.length; i++) {
+                    String[] texts = REVIEW_TEXTS[ratings[i] - 1];
+                    reviews.add(++reviewId, doctorId, texts[i % texts.length], ratings[i]);
+                }
+            }
+            report("doctor_reviews", reviews.getRowCount(), started);
+        }
+    }
+
+    void generateUsers(SinkFactory sinks, Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        LocalDateTime firstAppointment = start.atStartOfDay();
+        try (RowSink users = sinks.open(connection, "users",
+                "id", "email", "password", "first_name", "last_name", "phone_number", "location", "latitude",
+                "longitude", "role", "created_at", "updated_at")) {
+            for (int id = 1; id <= userCount; id++) {
+                SplittableRandom random = random(USER_STREAM, id);
+                int city = citySampler.sample(random);
+                LocalDateTime created = firstAppointment.minusDays(1 + random.nextInt(1000))
+                    .plusSeconds(random.nextInt(86400));
+                users.add(id, "patient" + id + "@example.com", "password", pick(random, FIRST_NAMES),
+                    pick(random, LAST_NAMES), "+1-555-" + (1000000 + random.nextInt(9000000)), cityNames.get(city),
+                    jitter(random, cityCoordinates.get(city)[0]), jitter(random, cityCoordinates.get(city)[1]),
+                    "PATIENT", created, created);
+            }
+            report("users", users.getRowCount(), started);
+        }
+    }
+
+    /**
+     * Day by day, each doctor gets a Poisson number of one-hour slots (at most one per slot, so no
+     * double booking), scaled by the doctor's popularity and the weekday. Appointments before as-of
+     * are mostly COMPLETED and later ones CONFIRMED; every non-cancelled appointment holds its slot in
+     * doctor_booking.
+     */
+    void generateAppointments(SinkFactory sinks, Connection appointmentConnection, Connection bookingConnection)
+            throws SQLException {
+        long started = System.nanoTime();
+        double perDoctorDay = (double) appointmentTarget / ((double) doctorCount * days);
+        long appointmentId = 0;
+        long bookingId = 0;
+        int[] slots = new int[SLOT_STARTS.length];
+
+        try (RowSink appointments = sinks.open(appointmentConnection, "appointments",
+                "id", "patient_id", "doctor_id", "appointment_date", "start_time", "end_time", "reason_for_visit",
+                "additional_notes", "status", "created_at", "updated_at");
+             RowSink bookings = sinks.open(bookingConnection, "doctor_booking",
+                "id", "doctor_id", "booking_date", "start_time", "end_time", "created_at")) {
+            for (int day = 0; day < days; day++) {
+                LocalDate date = start.plusDays(day);
+                boolean past = date.isBefore(asOf);
+                double dayMean = perDoctorDay * weekdayFactor(date.getDayOfWeek());
+                SplittableRandom random = random(APPOINTMENT_STREAM, day);
+
+                for (int doctorId = 1; doctorId <= doctorCount; doctorId++) {
+                    int count = Math.min(slots.length, poisson(random, dayMean * popularity[doctorId]));
+                    if (count == 0 || (!past && !available[doctorId])) {
+                        continue;
+                    }
+                    // Partial shuffle: the first count entries are distinct random slots
+                    for (int i = 0; i < slots.length; i++) {
+                        slots[i] = i;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        int j = i + random.nextInt(slots.length - i);
+                        int swap = slots[i];
+                        slots[i] = slots[j];
+                        slots[j] = swap;
+
+                        LocalTime startTime = SLOT_STARTS[slots[i]];
+                        LocalTime endTime = startTime.plusHours(1);
+                        String status = past
+                            ? (random.nextInt(100) < 88 ? "COMPLETED" : "CANCELLED")
+                            : (random.nextInt(100) < 93 ? "CONFIRMED" : "CANCELLED");
+                        LocalDateTime created = date.atTime(startTime).minusDays(1 + random.nextInt(30))
+                            .minusMinutes(random.nextInt(1440));
+                        appointments.add(++appointmentId, 1 + random.nextInt(userCount), doctorId, date, startTime,
+                            endTime, pick(random, REASONS), null, status, created, created);
+                        if (!"CANCELLED".equals(status)) {
+                            bookings.add(++bookingId, doctorId, date, startTime, endTime, created);
+                        }
+                    }
+                }
+                if ((day + 1) % 30 == 0) {
+                    System.out.printf("  appointments: %d days, %,d rows%n", day + 1, appointments.getRowCount());
+                }
+            }
+            report("appointments", appointments.getRowCount(), started);
+            report("doctor_booking", bookings.getRowCount(), started);
+        }
+    }
+
+    // Ratings for one doctor's reviews; regenerated identically by the doctors and reviews passes
+    private int[] reviewRatings(int doctorId) {
+        SplittableRandom random = random(REVIEW_STREAM, doctorId);
+        double doctorPopularity = popularity[doctorId] > 0 ? popularity[doctorId] : 1;
+        int[] ratings = new int[poisson(random, reviewsPerDoctor * doctorPopularity)];
+        int totalWeight = 0;
+        for (int weight : RATING_WEIGHTS) {
+            totalWeight += weight;
+        }
+        for (int i = 0; i < ratings.length; i++) {
+            int roll = random.nextInt(totalWeight);
+            int rating = 0;
+            while (roll >= RATING_WEIGHTS[rating]) {
+                roll -= RATING_WEIGHTS[rating];
+                rating++;
+            }
+            ratings[i] = rating + 1;
+        }
+        return ratings;
+    }
+
+    private SplittableRandom random(long stream, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + (stream << 48) + id);
+    }
+
+    // Mon-Fri full, Saturday 30%, Sunday 10%, scaled so the weekly average is 1
+    private static double weekdayFactor(DayOfWeek day) {
+        double weight = day == DayOfWeek.SATURDAY ? 0.3 : (day == DayOfWeek.SUNDAY ? 0.1 : 1.0);
+        return weight * 7 / 5.4;
+    }
+
+    // Knuth's method for small means, normal approximation for large ones
+    private static int poisson(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > 50) {
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    // Clinics and homes within about 15 km of the city centre
+    private static double jitter(SplittableRandom random, double degrees) {
+        return Math.round((degrees + (random.nextDouble() - 0.5) * 0.25) * 1e6) / 1e6;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%-15s %,12d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    // Cities from the backend's gazetteer, in file order (largest first), so they geocode as-is
+    private void loadCities() throws IOException {
+        try (InputStream in = AppointmentSchedulerApplication.class.getResourceAsStream("/gazetteer.csv")) {
+            if (in == null) {
+                throw new IOException("gazetteer.csv not found on the classpath");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                cityNames.add(parts[0].trim());
+                cityCoordinates.add(new double[]{Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim())});
+            }
+        }
+    }
+
+    /**
+     * Let Hibernate create the tables by starting the application once without a web server
+     */
+    private static void createSchema(String url, String user, String password) {
+        System.out.println("Creating schema from the JPA entities...");
+        boolean h2 = url.startsWith("jdbc:h2:");
+        new SpringApplicationBuilder(AppointmentSchedulerApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.main.banner-mode=off",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + user,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=" + (h2 ? "org.h2.Driver" : "org.postgresql.Driver"),
+                "--spring.jpa.properties.hibernate.dialect=" + (h2 ? "org.hibernate.dialect.H2Dialect"
+                    : "org.hibernate.dialect.PostgreSQLDialect"),
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+            .close();
+    }
+
+    private static final String[] TABLES = {"doctor_reviews", "doctor_booking", "appointments", "doctors", "users"};
+
+    private static void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    rows.next();
+                    if (rows.getLong(1) > 0) {
+                        throw new IllegalStateException("Table " + table + " already has " + rows.getLong(1)
+                            + " rows; rerun with --truncate=true to replace them");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void truncate(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("TRUNCATE TABLE " + String.join(", ", TABLES) + " RESTART IDENTITY CASCADE");
+            } else {
+                for (String table : TABLES) {
+                    statement.execute("DELETE FROM " + table);
+                }
+            }
+        }
+    }
+
+    // Move identity columns past the generated ids so the application can insert again; refresh statistics
+    private static void finish(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long next;
+                try (ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rows.next();
+                    next = rows.getLong(1);
+                }
+                if (postgres) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + next + ", false)");
+                    statement.execute("ANALYZE " + table);
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known: " + DEFAULTS.keySet());
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.appointmentscheduler.datagen;
+
+import java.sql.SQLException;
+
+/**
+ * Destination for generated rows of one table, written in column order
+ */
+public interface RowSink extends AutoCloseable {
+
+    void add(Object... values) throws SQLException;
+
+    long getRowCount();
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,34 @@
+package com.example.appointmentscheduler.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws an index in [0, n) with probability proportional to 1 / (rank + 1)^exponent,
+ * so the first entries are the most frequent (exponent 0 is uniform)
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf sampler needs at least one entry");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // Not found: insertion point is the first entry whose cumulative probability exceeds the draw
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
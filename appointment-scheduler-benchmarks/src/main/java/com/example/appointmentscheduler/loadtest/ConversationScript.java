@@ -0,0 +1,140 @@
+package com.example.appointmentscheduler.loadtest;
+
+import com.example.appointmentscheduler.utils.ChatIntents;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * One patient's scripted multi-turn booking conversation.
+ * The assistant path goes through /api/ai/chat: symptoms, then "book appointment", then the
+ * booking steps. The direct path sends everything to /api/booking/conversation. Each HTTP
+ * call is timed and recorded under its step name.
+ */
+public class ConversationScript {
+
+    public static final String AI_CHAT = "/api/ai/chat";
+    public static final String BOOKING_CONVERSATION = "/api/booking/conversation";
+
+    private static final int MAX_CLARIFICATION_RETRIES = 3;
+
+    private static final String[] SYMPTOMS = {
+        "I have chest pain when I climb stairs",
+        "I have an itchy rash on my arm",
+        "I keep getting a migraine headache every morning",
+        "I have joint pain in my knee after running",
+        "My child has had a fever for two days"
+    };
+
+    private static final String[] CLARIFICATIONS = {
+        "It started three days ago.",
+        "It is about a 6 out of 10.",
+        "It gets worse in the evening."
+    };
+
+    // Menu numbers and the free-text spellings patients type (the last one has a typo)
+    private static final String[] TIME_REPLIES = {"1", "2", "3", "4", "5", "6", "9am", "10:00 AM", "2 pm", "03:00 pn"};
+
+    private static final String[] REASONS = {
+        "Follow-up consultation", "First visit for these symptoms", "Second opinion", "Routine check"
+    };
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LoadReport report;
+
+    public ConversationScript(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadReport report) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.report = report;
+    }
+
+    /**
+     * Run the whole conversation for userId; true when it ended in a confirmed booking
+     */
+    public boolean run(String userId, boolean assistantPath, Random random) {
+        String symptoms = SYMPTOMS[random.nextInt(SYMPTOMS.length)];
+        String endpoint = assistantPath ? AI_CHAT : BOOKING_CONVERSATION;
+
+        if (assistantPath) {
+            if (!describeSymptoms(userId, symptoms, random)) {
+                return false;
+            }
+            if (send("book", AI_CHAT, userId, "I'd like to book an appointment",
+                    ChatIntents.BOOKING_LOCATION_SELECTION) == null) {
+                return false;
+            }
+        } else if (send("symptoms", BOOKING_CONVERSATION, userId, symptoms,
+                ChatIntents.BOOKING_LOCATION_SELECTION) == null) {
+            return false;
+        }
+
+        String date = LocalDate.now().plusDays(1 + random.nextInt(30)).toString();
+        return send("location", endpoint, userId, "1", ChatIntents.BOOKING_DATE_SELECTION) != null
+            && send("date", endpoint, userId, date, ChatIntents.BOOKING_TIME_SELECTION) != null
+            && send("time", endpoint, userId, TIME_REPLIES[random.nextInt(TIME_REPLIES.length)],
+                ChatIntents.BOOKING_REASON_INPUT) != null
+            && send("reason", endpoint, userId, REASONS[random.nextInt(REASONS.length)],
+                ChatIntents.BOOKING_SUCCESS) != null;
+    }
+
+    // Symptom message on /api/ai/chat, answering clarification questions until doctors are recommended
+    private boolean describeSymptoms(String userId, String symptoms, Random random) {
+        String message = symptoms;
+        for (int attempt = 0; attempt <= MAX_CLARIFICATION_RETRIES; attempt++) {
+            long start = System.nanoTime();
+            JsonNode response = post(AI_CHAT, userId, message);
+            long elapsed = System.nanoTime() - start;
+
+            if (response != null && response.path("requiresClarification").asBoolean()) {
+                report.recordStep("symptoms", elapsed, true);
+                report.recordClarificationRetry();
+                message = symptoms + ". " + CLARIFICATIONS[random.nextInt(CLARIFICATIONS.length)];
+                continue;
+            }
+            boolean ok = response != null && response.path("recommendedDoctors").size() > 0;
+            report.recordStep("symptoms", elapsed, ok);
+            return ok;
+        }
+        return false;
+    }
+
+    // Post one message and check the reply moved the conversation to the expected step
+    private JsonNode send(String step, String path, String userId, String message, String expectedIntent) {
+        long start = System.nanoTime();
+        JsonNode response = post(path, userId, message);
+        boolean ok = response != null && expectedIntent.equals(response.path("intent").asText());
+        report.recordStep(step, System.nanoTime() - start, ok);
+        return ok ? response : null;
+    }
+
+    private JsonNode post(String path, String userId, String message) {
+        try {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.put("message", message);
+            body.put("userId", userId);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.appointmentscheduler.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per conversation step plus booking counters, printed and written as JSON
+ * at the end of a run. Latencies are recorded in microseconds.
+ */
+public class LoadReport {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    // Insertion order is the order steps first ran, which is conversation order
+    private final Map<String, Histogram> latencyByStep = new LinkedHashMap<>();
+    private final Map<String, LongAdder> failuresByStep = new ConcurrentHashMap<>();
+    private final LongAdder conversations = new LongAdder();
+    private final LongAdder bookings = new LongAdder();
+    private final LongAdder clarificationRetries = new LongAdder();
+
+    private long startNanos;
+    private long endNanos;
+
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public void recordStep(String step, long elapsedNanos, boolean ok) {
+        long micros = Math.min(MAX_TRACKED_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        synchronized (latencyByStep) {
+            latencyByStep.computeIfAbsent(step, s -> new Histogram(MAX_TRACKED_MICROS, 3)).recordValue(micros);
+        }
+        if (!ok) {
+            failuresByStep.computeIfAbsent(step, s -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordConversation(boolean booked) {
+        conversations.increment();
+        if (booked) {
+            bookings.increment();
+        }
+    }
+
+    public void recordClarificationRetry() {
+        clarificationRetries.increment();
+    }
+
+    public long getBookings() {
+        return bookings.sum();
+    }
+
+    public double elapsedSeconds() {
+        return (endNanos - startNanos) / 1e9;
+    }
+
+    public double bookingsPerSecond() {
+        double seconds = elapsedSeconds();
+        return seconds > 0 ? bookings.sum() / seconds : 0;
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Conversations: %d, bookings: %d (%.1f%%), clarification retries: %d%n",
+            conversations.sum(), bookings.sum(),
+            conversations.sum() > 0 ? 100.0 * bookings.sum() / conversations.sum() : 0.0,
+            clarificationRetries.sum());
+        out.printf("Elapsed: %.1f s, bookings/sec: %.2f%n%n", elapsedSeconds(), bookingsPerSecond());
+
+        out.printf("%-14s %8s %7s %9s %9s %9s %9s %9s%n",
+            "Step (ms)", "Count", "Failed", "p50", "p90", "p99", "p99.9", "Max");
+        synchronized (latencyByStep) {
+            for (Map.Entry<String, Histogram> entry : latencyByStep.entrySet()) {
+                Histogram histogram = entry.getValue();
+                out.printf("%-14s %8d %7d", entry.getKey(), histogram.getTotalCount(), failures(entry.getKey()));
+                for (double percentile : PERCENTILES) {
+                    out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+                }
+                out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+            }
+
+            for (Map.Entry<String, Histogram> entry : latencyByStep.entrySet()) {
+                out.printf("%n%s%n", entry.getKey());
+                printBuckets(out, entry.getValue());
+            }
+        }
+    }
+
+    public void writeJson(File file, Map<String, Object> settings, Map<String, Long> aiRequests) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("elapsedSeconds", elapsedSeconds());
+        report.put("conversations", conversations.sum());
+        report.put("bookings", bookings.sum());
+        report.put("bookingsPerSecond", bookingsPerSecond());
+        report.put("clarificationRetries", clarificationRetries.sum());
+        report.put("aiRequestsByIntent", aiRequests);
+
+        Map<String, Object> steps = new LinkedHashMap<>();
+        synchronized (latencyByStep) {
+            for (Map.Entry<String, Histogram> entry : latencyByStep.entrySet()) {
+                Histogram histogram = entry.getValue();
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("count", histogram.getTotalCount());
+                step.put("failed", failures(entry.getKey()));
+                step.put("meanMs", histogram.getMean() / 1000.0);
+                for (double percentile : PERCENTILES) {
+                    step.put("p" + formatPercentile(percentile) + "Ms", histogram.getValueAtPercentile(percentile) / 1000.0);
+                }
+                step.put("maxMs", histogram.getMaxValue() / 1000.0);
+                Map<String, Long> buckets = new LinkedHashMap<>();
+                for (HistogramIterationValue value : histogram.logarithmicBucketValues(1000, 2)) {
+                    buckets.put("<=" + formatMillis(value.getValueIteratedTo()), value.getCountAddedInThisIterationStep());
+                }
+                step.put("buckets", buckets);
+                steps.put(entry.getKey(), step);
+            }
+        }
+        report.put("steps", steps);
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+
+    // Doubling buckets from 1 ms, with a bar scaled to the fullest bucket
+    private static void printBuckets(PrintStream out, Histogram histogram) {
+        long fullest = 1;
+        for (HistogramIterationValue value : histogram.logarithmicBucketValues(1000, 2)) {
+            fullest = Math.max(fullest, value.getCountAddedInThisIterationStep());
+        }
+        for (HistogramIterationValue value : histogram.logarithmicBucketValues(1000, 2)) {
+            long count = value.getCountAddedInThisIterationStep();
+            int bar = (int) Math.round(40.0 * count / fullest);
+            out.printf("  <= %6s ms %8d %s%n", formatMillis(value.getValueIteratedTo()), count, "#".repeat(bar));
+        }
+    }
+
+    private long failures(String step) {
+        LongAdder failed = failuresByStep.get(step);
+        return failed != null ? failed.sum() : 0;
+    }
+
+    // Bucket upper bounds are the histogram's highest equivalent value (e.g. 1023 us), shown as whole ms
+    private static String formatMillis(long micros) {
+        return String.valueOf(Math.round(micros / 1000.0));
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
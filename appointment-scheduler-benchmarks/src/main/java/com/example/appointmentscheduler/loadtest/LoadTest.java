@@ -0,0 +1,215 @@
+package com.example.appointmentscheduler.loadtest;
+
+import com.example.appointmentscheduler.AppointmentSchedulerApplication;
+import com.example.appointmentscheduler.benchmarks.Fixtures;
+import com.example.appointmentscheduler.model.Doctor;
+import com.example.appointmentscheduler.model.User;
+import com.example.appointmentscheduler.model.UserRole;
+import com.example.appointmentscheduler.service.DoctorService;
+import com.example.appointmentscheduler.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load harness: boots the backend on an in-memory H2 database with a stub AI service,
+ * seeds doctors and patients, then starts scripted booking conversations at a fixed rate
+ * (open loop) and reports per-step latency histograms and bookings per second.
+ *
+ * Options (all --name=value): conversations, rate (conversations started per second),
+ * concurrency, doctors, assistant-percent (share run through /api/ai/chat), ai-latency-ms,
+ * ai-jitter-ms, intent-mix (e.g. symptom_check:80,general_chat:15,clarification:5), seed,
+ * report (JSON output file), app-log-level.
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("conversations", "200");
+        DEFAULTS.put("rate", "20");
+        DEFAULTS.put("concurrency", "32");
+        DEFAULTS.put("doctors", "150");
+        DEFAULTS.put("assistant-percent", "50");
+        DEFAULTS.put("ai-latency-ms", "50");
+        DEFAULTS.put("ai-jitter-ms", "20");
+        DEFAULTS.put("intent-mix", "symptom_check:80,general_chat:15," + StubAiService.CLARIFICATION + ":5");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("report", "target/loadtest-report.json");
+        DEFAULTS.put("app-log-level", "WARN");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int conversations = Integer.parseInt(options.get("conversations"));
+        double rate = Double.parseDouble(options.get("rate"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        int assistantPercent = Integer.parseInt(options.get("assistant-percent"));
+        long seed = Long.parseLong(options.get("seed"));
+        if (conversations <= 0 || rate <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("conversations, rate and concurrency must be positive");
+        }
+
+        StubAiService aiService = new StubAiService(
+            Long.parseLong(options.get("ai-latency-ms")),
+            Long.parseLong(options.get("ai-jitter-ms")),
+            parseIntentMix(options.get("intent-mix")));
+        int aiPort = aiService.start();
+
+        ConfigurableApplicationContext context = startApplication(aiPort, options.get("app-log-level"));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            seedDoctors(context.getBean(DoctorService.class), Integer.parseInt(options.get("doctors")), seed);
+            // One patient per conversation: chat state is keyed by user, so conversations never share it
+            List<Long> patientIds = seedPatients(context.getBean(UserService.class), conversations, seed);
+
+            System.out.printf("Backend on port %d, stub AI on port %d. Running %d conversations at %.1f/s "
+                + "with %d workers...%n", port, aiPort, conversations, rate, concurrency);
+
+            LoadReport report = new LoadReport();
+            ConversationScript script = new ConversationScript(
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build(),
+                new ObjectMapper(), "http://127.0.0.1:" + port, report);
+            run(script, report, patientIds, rate, concurrency, assistantPercent, seed);
+
+            report.print(System.out);
+            System.out.printf("%nAI stub requests: %s%n", aiService.getRequestsByIntent());
+
+            File reportFile = new File(options.get("report"));
+            report.writeJson(reportFile, new LinkedHashMap<>(options), aiService.getRequestsByIntent());
+            System.out.println("Report written to " + reportFile.getAbsolutePath());
+        } finally {
+            context.close();
+            aiService.stop();
+        }
+    }
+
+    /**
+     * Start one conversation every 1/rate seconds on a fixed worker pool. If workers fall behind,
+     * conversations queue and the delay shows up as lower bookings/sec rather than being hidden.
+     */
+    private static void run(ConversationScript script, LoadReport report, List<Long> patientIds, double rate,
+                            int concurrency, int assistantPercent, long seed) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch done = new CountDownLatch(patientIds.size());
+        AtomicInteger next = new AtomicInteger();
+
+        report.start();
+        long periodNanos = (long) (1e9 / rate);
+        scheduler.scheduleAtFixedRate(() -> {
+            int index = next.getAndIncrement();
+            if (index >= patientIds.size()) {
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    // Per-conversation random so a run is repeatable regardless of thread timing
+                    Random random = new Random(seed + index);
+                    boolean assistantPath = random.nextInt(100) < assistantPercent;
+                    boolean booked = script.run(String.valueOf(patientIds.get(index)), assistantPath, random);
+                    report.recordConversation(booked);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        done.await();
+        report.finish();
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    // Passed as command-line arguments so they override application.properties
+    private static ConfigurableApplicationContext startApplication(int aiPort, String logLevel) {
+        return new SpringApplicationBuilder(AppointmentSchedulerApplication.class).run(
+            "--server.port=0",
+            "--management.server.port=0",
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            // data.sql is PostgreSQL-specific (ON CONFLICT); the harness seeds through the services instead
+            "--spring.sql.init.mode=never",
+            "--ai.service.url=http://127.0.0.1:" + aiPort,
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.appointmentscheduler=" + logLevel,
+            "--logging.level.org.hibernate.SQL=WARN",
+            // Hikari's housekeeping thread outlives Tomcat's shutdown check when the context closes
+            "--logging.level.org.apache.catalina.loader=ERROR",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    // Doctors spread over the benchmark cities and specialities; saveDoctor geocodes and indexes them
+    private static void seedDoctors(DoctorService doctorService, int count, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            String speciality = Fixtures.SPECIALITIES[i % Fixtures.SPECIALITIES.length];
+            Doctor doctor = new Doctor("Dr. Load " + i, speciality, speciality, 1 + random.nextInt(35),
+                BigDecimal.valueOf(80 + random.nextInt(320)), BigDecimal.valueOf(30 + random.nextInt(21), 1),
+                Fixtures.LOCATIONS[random.nextInt(Fixtures.LOCATIONS.length)], true);
+            doctorService.saveDoctor(doctor);
+        }
+    }
+
+    private static List<Long> seedPatients(UserService userService, int count, long seed) {
+        Random random = new Random(seed + 1);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User("load" + i + "@example.com", "password", "Load", "Patient " + i, UserRole.PATIENT);
+            user.setLocation(Fixtures.LOCATIONS[random.nextInt(Fixtures.LOCATIONS.length)]);
+            ids.add(userService.registerUser(user).getId());
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known: " + DEFAULTS.keySet());
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseIntentMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected intent:weight in intent-mix but got: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
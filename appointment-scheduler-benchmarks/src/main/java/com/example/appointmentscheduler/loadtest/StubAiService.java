@@ -0,0 +1,193 @@
+package com.example.appointmentscheduler.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the Python ai_server.py "/chat" endpoint.
+ * Answers with the same JSON shape after a configurable delay. Symptom messages get an intent
+ * drawn from a weighted mix (symptom_check, general_chat, or a clarification request), and
+ * "book" messages always get book_appointment.
+ */
+public class StubAiService {
+
+    public static final String CLARIFICATION = "clarification";
+
+    // Message keyword -> specialty, and a reply worded so the backend's keyword extraction finds it
+    private static final String[][] SPECIALTIES = {
+        {"chest", "Cardiology", "This could be a heart issue; a cardiologist can examine you."},
+        {"rash", "Dermatology", "This looks like a skin condition; a dermatologist can help."},
+        {"migraine", "Neurology", "Recurring headaches are best seen by a neurologist."},
+        {"joint", "Orthopedics", "Joint problems are treated by an orthopedic specialist."},
+        {"child", "Pediatrics", "For a child, a pediatrician is the right specialist."}
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final String[] intents;
+    private final int[] cumulativeWeights;
+    private final Map<String, LongAdder> requestsByIntent = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param intentMix symptom intent -> relative weight, e.g. {symptom_check=80, general_chat=15, clarification=5}
+     */
+    public StubAiService(long latencyMillis, long jitterMillis, Map<String, Integer> intentMix) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.intents = intentMix.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new int[intents.length];
+        int total = 0;
+        for (int i = 0; i < intents.length; i++) {
+            total += intentMix.get(intents[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Intent mix needs at least one positive weight");
+        }
+    }
+
+    /**
+     * Listen on an ephemeral loopback port and return it
+     */
+    public int start() throws IOException {
+        // Without TCP_NODELAY small responses can wait for a delayed ACK, adding ~40 ms the real service does not have
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        // Requests sleep for the simulated latency, so each one gets its own thread
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/chat", this::handleChat);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public Map<String, Long> getRequestsByIntent() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        requestsByIntent.forEach((intent, count) -> counts.put(intent, count.sum()));
+        return counts;
+    }
+
+    private void handleChat(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode messages = request.path("messages");
+            String text = messages.size() > 0
+                ? messages.get(messages.size() - 1).path("content").asText("").toLowerCase(Locale.ROOT)
+                : "";
+
+            simulateLatency();
+
+            ObjectNode response = text.contains("book") ? bookingResponse() : symptomResponse(text);
+            requestsByIntent.computeIfAbsent(response.path("intent").asText() +
+                (response.path("entities").path("requires_clarification").asBoolean() ? " (" + CLARIFICATION + ")" : ""),
+                k -> new LongAdder()).increment();
+
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = latencyMillis;
+        if (jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private ObjectNode bookingResponse() {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("reply", "Sure, let's get you booked.");
+        response.put("intent", "book_appointment");
+        response.putObject("entities");
+        return response;
+    }
+
+    private ObjectNode symptomResponse(String text) {
+        String[] specialty = SPECIALTIES[0];
+        for (String[] candidate : SPECIALTIES) {
+            if (text.contains(candidate[0])) {
+                specialty = candidate;
+                break;
+            }
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode entities;
+        switch (pickIntent()) {
+            case CLARIFICATION:
+                response.put("reply", "Could you tell me a little more about what you are feeling?");
+                response.put("intent", "symptom_check");
+                entities = response.putObject("entities");
+                entities.put("requires_clarification", true);
+                entities.put("confidence", 0.3);
+                ArrayNode questions = entities.putArray("clarification_questions");
+                questions.add("How long have you had these symptoms?");
+                questions.add("How severe are they on a scale of 1 to 10?");
+                entities.put("fallback_level", "clarification");
+                break;
+            case "general_chat":
+                response.put("reply", "I'm here to help. Tell me what's bothering you.");
+                response.put("intent", "general_chat");
+                entities = response.putObject("entities");
+                break;
+            default:
+                response.put("reply", specialty[2]);
+                response.put("intent", "symptom_check");
+                entities = response.putObject("entities");
+                entities.put("specialty", specialty[1]);
+                entities.putArray("symptoms").add(text);
+                entities.put("confidence", 0.9);
+                entities.put("fallback_level", "static");
+        }
+        return response;
+    }
+
+    private String pickIntent() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return intents[i];
+            }
+        }
+        return intents[intents.length - 1];
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.appointmentscheduler.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.example.appointmentscheduler.benchmarks.Fixtures;
+import com.example.appointmentscheduler.dto.ChatResponse;
+import com.example.appointmentscheduler.dto.DoctorSummary;
+import com.example.appointmentscheduler.monitoring.SamplingTurboFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of booking chat turns (start with pre-analyzed symptoms, pick a location, pick a date
+ * through ConversationalBookingService) under each logging setup:
+ * off, synchronous pattern file appender (the dev default), and the prod profile's async JSON
+ * appender with DEBUG sampling. appLevel=DEBUG adds the per-message debug events.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingLoggingBenchmark {
+
+    @Param({"off", "sync", "async-json"})
+    private String logging;
+
+    @Param({"INFO", "DEBUG"})
+    private String appLevel;
+
+    private ConversationalBookingService service;
+    private List<DoctorSummary> doctors;
+    private String date;
+    private File logFile;
+    private int user;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new ConversationalBookingService();
+        Field registry = ConversationalBookingService.class.getDeclaredField("meterRegistry");
+        registry.setAccessible(true);
+        registry.set(service, new SimpleMeterRegistry());
+        service.registerMetrics();
+        doctors = Fixtures.doctors(20, 42L);
+        date = LocalDate.now().plusDays(7).toString();
+        logFile = File.createTempFile("booking-logging", ".log");
+        configureLogging();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void bookingTurns(Blackhole blackhole) {
+        String userId = Integer.toString(user++ & 1023);
+        blackhole.consume(service.startBookingWithSymptoms("headache and fever", doctors, userId));
+        ChatResponse location = service.processBookingConversation("1", userId);
+        blackhole.consume(location);
+        blackhole.consume(service.processBookingConversation(date, userId));
+        service.clearConversationState(userId);
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        context.getLogger("com.example.appointmentscheduler").setLevel(Level.toLevel(appLevel));
+
+        switch (logging) {
+            case "off":
+                root.setLevel(Level.OFF);
+                context.getLogger("com.example.appointmentscheduler").setLevel(Level.OFF);
+                break;
+            case "sync": {
+                PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+                // Spring Boot's default file pattern
+                encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+                root.addAppender(fileAppender(context, encoder));
+                break;
+            }
+            case "async-json": {
+                SamplingTurboFilter sampler = new SamplingTurboFilter();
+                sampler.addLoggerPrefix("com.example.appointmentscheduler");
+                sampler.setSampleEvery(100);
+                sampler.start();
+                context.addTurboFilter(sampler);
+
+                LogstashEncoder encoder = new LogstashEncoder();
+                encoder.setIncludeCallerData(false);
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(context);
+                async.setQueueSize(8192);
+                async.setDiscardingThreshold(0);
+                async.setNeverBlock(true);
+                async.addAppender(fileAppender(context, encoder));
+                async.start();
+                root.addAppender(async);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown logging mode: " + logging);
+        }
+    }
+
+    private Appender<ILoggingEvent> fileAppender(LoggerContext context, Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(context);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(logFile.getAbsolutePath());
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -26,7 +26,6 @@ const DoctorCard = ({ doctor, selectedDate, selectedTimeSlot }) => {
       
       <div className="doctor-info">
         <p><strong>Speciality:</strong> {doctor.speciality}</p>
-        <p><strong>Category:</strong> {doctor.category}</p>
         <p><strong>Location:</strong> {doctor.location}</p>
         <p><strong>Experience:</strong> {doctor.yearsOfExperience} years</p>
         <p><strong>Fees:</strong> ${doctor.feesPerHour}/hour</p>
@@ -38,17 +37,6 @@ const DoctorCard = ({ doctor, selectedDate, selectedTimeSlot }) => {
         )}
       </div>
       
-      {doctor.reviews && doctor.reviews.length > 0 && (
-        <div className="reviews">
-          <h4>Recent Reviews:</h4>
-          <ul>
-            {doctor.reviews.slice(0, 2).map((review, index) => (
-              <li key={index}>{review}</li>
-            ))}
-          </ul>
-        </div>
-      )}
-      
       <button 
         className="book-appointment-btn" 
         disabled={!doctor.available}
@@ -13,6 +13,8 @@ CREATE TABLE users (
     last_name VARCHAR(100) NOT NULL,
     phone_number VARCHAR(20),
     location VARCHAR(255),
+    latitude DOUBLE PRECISION,  -- geocoded from location via the gazetteer
+    longitude DOUBLE PRECISION,
     role VARCHAR(20) NOT NULL CHECK (role IN ('PATIENT', 'ADMIN')),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -27,7 +29,11 @@ CREATE TABLE doctors (
     years_of_experience INTEGER,
     fees_per_hour DECIMAL(10,2),
     rating DECIMAL(3,2),
+    review_count INTEGER NOT NULL DEFAULT 0,  -- running review aggregates (rating = rating_sum / review_count)
+    rating_sum BIGINT NOT NULL DEFAULT 0,
     location VARCHAR(255) NOT NULL,
+    latitude DOUBLE PRECISION,  -- clinic coordinates, geocoded from location via the gazetteer
+    longitude DOUBLE PRECISION,
     available BOOLEAN DEFAULT TRUE,
     experience TEXT,  -- e.g., "5 years experience in Cardiology"
     qualifications TEXT,  -- e.g., "MBBS, MD (Cardiology)"
@@ -42,22 +48,40 @@ CREATE TABLE doctor_reviews (
     id BIGSERIAL PRIMARY KEY,
     doctor_id BIGINT REFERENCES doctors(id) ON DELETE CASCADE,
     review_text TEXT,
+    rating INTEGER,  -- 1-5, summed into doctors.rating_sum
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Create doctor bookings table (for tracking occupied time slots)
+-- Create doctor bookings table (for tracking occupied time slots), partitioned by month of booking_date;
+-- the backend creates the monthly partitions and archives expired ones (rows without a partition go to the default one)
 CREATE TABLE doctor_booking (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
     doctor_id BIGINT REFERENCES doctors(id) ON DELETE CASCADE,
     booking_date DATE NOT NULL,
     start_time TIME NOT NULL,
     end_time TIME NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, booking_date)
+) PARTITION BY RANGE (booking_date);
+CREATE TABLE doctor_booking_default PARTITION OF doctor_booking DEFAULT;
+CREATE INDEX idx_doctor_booking_doctor_date ON doctor_booking (doctor_id, booking_date);
+
+-- One row per doctor and day with bookings: a bit per 15-minute cell that any booking overlaps, kept in step
+-- with doctor_booking by the backend (which also rebuilds it from doctor_booking at startup)
+CREATE TABLE doctor_day_occupancy (
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    occupancy_date DATE NOT NULL,
+    mask_low BIGINT NOT NULL,  -- cells 0-63
+    mask_high BIGINT NOT NULL,  -- cells 64-95
+    booked_count INTEGER NOT NULL,
+    off_grid_count INTEGER NOT NULL,  -- bookings not on the 15-minute grid
+    PRIMARY KEY (doctor_id, occupancy_date)
 );
+CREATE INDEX idx_occupancy_date ON doctor_day_occupancy (occupancy_date);
 
--- Create appointments table
+-- Create appointments table, partitioned by month of appointment_date like doctor_booking
 CREATE TABLE appointments (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
     patient_id BIGINT NOT NULL,
     doctor_id BIGINT REFERENCES doctors(id) ON DELETE CASCADE,
     appointment_date DATE NOT NULL,
@@ -67,7 +91,52 @@ CREATE TABLE appointments (
     additional_notes TEXT,
     status VARCHAR(50) DEFAULT 'CONFIRMED',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP
+    updated_at TIMESTAMP,
+    series_id VARCHAR(36),  -- shared by the appointments of a recurring series booked together
+    PRIMARY KEY (id, appointment_date)
+) PARTITION BY RANGE (appointment_date);
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+CREATE INDEX idx_appointments_date ON appointments (appointment_date);
+CREATE INDEX idx_appointments_patient_date ON appointments (patient_id, appointment_date);
+
+-- Patients waiting for any slot with a doctor on a date, inside a time window; served in id order
+CREATE TABLE waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    patient_id BIGINT NOT NULL,
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    requested_date DATE NOT NULL,
+    window_start TIME NOT NULL,
+    window_end TIME NOT NULL,
+    reason_for_visit VARCHAR(255) NOT NULL,
+    auto_confirm BOOLEAN NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'OFFERED', 'BOOKED', 'DECLINED', 'EXPIRED', 'CANCELLED')),
+    offered_start_time TIME,
+    offered_end_time TIME,
+    offer_expires_at TIMESTAMP,
+    appointment_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_waitlist_queue ON waitlist_entries (doctor_id, requested_date, status, id);
+CREATE INDEX idx_waitlist_patient ON waitlist_entries (patient_id);
+
+-- Change events written in the same transaction as each booking or catalog change, tailed in id order
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(40) NOT NULL,
+    doctor_id BIGINT,
+    appointment_id BIGINT,
+    patient_id BIGINT,
+    event_date DATE,
+    start_time TIME,
+    end_time TIME,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- How far each outbox consumer has got
+CREATE TABLE outbox_consumer_offsets (
+    consumer_name VARCHAR(100) PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
 );
 
 -- Insert sample doctors data